@@ -0,0 +1,39 @@
+package ru.practicum.shareit.common;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+//Executor for the virtual-threads profile of the gateway and the server, each wires it into its own Tomcat
+@UtilityClass
+public class VirtualThreads {
+    //a task waiting for a permit is a parked thread, a running request holds its buffers until it completes,
+    //so under overload the excess waits here instead of piling up in flight until the heap runs out
+    public static TaskExecutorAdapter boundedExecutor(int maxConcurrency) {
+        ExecutorService executor = newVirtualThreadPerTaskExecutor();
+        Semaphore permits = new Semaphore(maxConcurrency, true);
+        return new TaskExecutorAdapter(task -> executor.execute(() -> {
+            permits.acquireUninterruptibly();
+            try {
+                task.run();
+            } finally {
+                permits.release();
+            }
+        }));
+    }
+
+    //the code is compiled for Java 11, the executor factory only exists on 21+
+    private static ExecutorService newVirtualThreadPerTaskExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            throw new IllegalStateException("Virtual threads require Java 21 or newer, running on "
+                    + Runtime.version());
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Failed to create a virtual thread executor", e);
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.common;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class VirtualThreadsTest {
+    private static final int TASKS = 20;
+
+    @Test
+    void boundedExecutorRequiresJava21Test() {
+        assumeTrue(Runtime.version().feature() < 21);
+        assertThrows(IllegalStateException.class, () -> VirtualThreads.boundedExecutor(2));
+    }
+
+    @Test
+    void boundedExecutorLimitsConcurrencyTest() throws InterruptedException {
+        assumeTrue(Runtime.version().feature() >= 21);
+        TaskExecutorAdapter executor = VirtualThreads.boundedExecutor(2);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(TASKS);
+        for (int i = 0; i < TASKS; i++) {
+            executor.execute(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                try {
+                    Thread.sleep(10);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    running.decrementAndGet();
+                    done.countDown();
+                }
+            });
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        assertEquals(2, maxRunning.get());
+    }
+}
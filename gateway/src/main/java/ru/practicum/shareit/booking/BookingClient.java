@@ -3,60 +3,71 @@ package ru.practicum.shareit.booking;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
 
-import java.util.Map;
+import java.util.List;
 
+@Profile("!reactive")
 @Service
 public class BookingClient extends BaseClient {
-    private static final String API_PREFIX = "/bookings";
-
     @Autowired
-    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public BookingClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                         ClientHttpRequestFactory requestFactory, RequestCoalescer coalescer) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + BookingPaths.API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                coalescer
         );
     }
 
     public ResponseEntity<Object> createBooking(Long userId, BookingDto bookingDto) {
-        return post("", userId, bookingDto);
+        return post(BookingPaths.create(), userId, bookingDto);
     }
 
     public ResponseEntity<Object> findBookingById(Long userId, Long bookingId) {
-        return get("/" + bookingId, userId);
+        return get(BookingPaths.byId(bookingId), userId);
     }
 
-    public ResponseEntity<Object> findBookingByBooker(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> findBookingByBooker(Long userId, BookingState state, Integer from, String cursor,
+                                                      Integer size) {
+        return get(BookingPaths.findByBooker(state, from, cursor, size), userId);
     }
 
-    public ResponseEntity<Object> findBookingByOwner(Long userId, BookingState state, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "state", state.name(),
-                "from", from,
-                "size", size
-        );
-        return get("/owner?state={state}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> findBookingByOwner(Long userId, BookingState state, Integer from, String cursor,
+                                                     Integer size) {
+        return get(BookingPaths.findByOwner(state, from, cursor, size), userId);
+    }
+
+    public ResponseEntity<Object> findBookerSummary(Long userId) {
+        return get(BookingPaths.findBookerSummary(), userId);
+    }
+
+    public ResponseEntity<Object> findOwnerSummary(Long userId) {
+        return get(BookingPaths.findOwnerSummary(), userId);
+    }
+
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(Long userId) {
+        return stream(BookingPaths.exportByOwner(), userId, MediaType.APPLICATION_NDJSON);
     }
 
     public ResponseEntity<Object> updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
-        Map<String, Object> parameters = Map.of(
-                "approved", approved
-        );
-        return patch("/" + bookingId + "?approved={approved}", userId, parameters, null);
+        return patch(BookingPaths.updateStatus(bookingId, approved), userId, null);
+    }
+
+    public ResponseEntity<Object> updateBookingStatuses(Long userId, List<BookingDecisionDto> decisions) {
+        return patch(BookingPaths.updateStatuses(), userId, decisions);
     }
 }
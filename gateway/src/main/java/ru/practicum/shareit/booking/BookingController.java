@@ -3,18 +3,26 @@ package ru.practicum.shareit.booking;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingState;
 
 import javax.validation.Valid;
 import javax.validation.ValidationException;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
 
+@Profile("!reactive")
 @Controller
 @RequestMapping(path = "/bookings")
 @RequiredArgsConstructor
@@ -40,16 +48,29 @@ public class BookingController {
         return bookingClient.findBookingById(userId, bookingId);
     }
 
+    @GetMapping("/summary")
+    public ResponseEntity<Object> findBookerSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get booking summary, userId={}", userId);
+        return bookingClient.findBookerSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public ResponseEntity<Object> findOwnerSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get owner booking summary, userId={}", userId);
+        return bookingClient.findOwnerSummary(userId);
+    }
+
     @GetMapping
     public ResponseEntity<Object> findBookingByBooker(
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
-        BookingState state = BookingState.from(stateParam)
-                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.findBookingByBooker(userId, state, from, size);
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        BookingState state = BookingState.parse(stateParam);
+        log.info("Get booking with state {}, userId={}, from={}, cursor={}, size={}",
+                stateParam, userId, from, cursor, size);
+        return bookingClient.findBookingByBooker(userId, state, from, cursor, size);
     }
 
     @GetMapping("/owner")
@@ -57,12 +78,18 @@ public class BookingController {
             @RequestHeader("X-Sharer-User-Id") long userId,
             @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
             @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
-            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size) {
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        BookingState state = BookingState.parse(stateParam);
+        log.info("Get booking with state {}, userId={}, from={}, cursor={}, size={}",
+                stateParam, userId, from, cursor, size);
+        return bookingClient.findBookingByOwner(userId, state, from, cursor, size);
+    }
 
-        BookingState state = BookingState.from(stateParam)
-                .orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stateParam));
-        log.info("Get booking with state {}, userId={}, from={}, size={}", stateParam, userId, from, size);
-        return bookingClient.findBookingByOwner(userId, state, from, size);
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Export bookings, userId={}", userId);
+        return bookingClient.exportBookingsByOwner(userId);
     }
 
     @PatchMapping(path = "/{bookingId}")
@@ -72,4 +99,12 @@ public class BookingController {
         log.info("Updating booking approved status {} to {}, userId={}", bookingId, approved, userId);
         return bookingClient.updateBookingStatus(userId, bookingId, approved);
     }
+
+    @PatchMapping(path = "/owner/batch")
+    public ResponseEntity<Object> updateBookingStates(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid @NotNull BookingDecisionDto> decisions) {
+        log.info("Updating approved status of {} bookings, userId={}", decisions.size(), userId);
+        return bookingClient.updateBookingStatuses(userId, decisions);
+    }
 }
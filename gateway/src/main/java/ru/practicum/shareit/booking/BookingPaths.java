@@ -0,0 +1,61 @@
+package ru.practicum.shareit.booking;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.ServerPath;
+
+import java.util.Map;
+
+//Server endpoints of BookingClient and ReactiveBookingClient
+@UtilityClass
+class BookingPaths {
+    static final String API_PREFIX = "/bookings";
+
+    static ServerPath create() {
+        return ServerPath.of("");
+    }
+
+    static ServerPath byId(Long bookingId) {
+        return ServerPath.of("/" + bookingId);
+    }
+
+    static ServerPath findByBooker(BookingState state, Integer from, @Nullable String cursor, Integer size) {
+        return page("", state, from, cursor, size);
+    }
+
+    static ServerPath findByOwner(BookingState state, Integer from, @Nullable String cursor, Integer size) {
+        return page("/owner", state, from, cursor, size);
+    }
+
+    static ServerPath findBookerSummary() {
+        return ServerPath.of("/summary");
+    }
+
+    static ServerPath findOwnerSummary() {
+        return ServerPath.of("/owner/summary");
+    }
+
+    static ServerPath exportByOwner() {
+        return ServerPath.of("/owner/export");
+    }
+
+    static ServerPath updateStatus(Long bookingId, Boolean approved) {
+        return ServerPath.of("/" + bookingId + "?approved={approved}", Map.of("approved", approved));
+    }
+
+    static ServerPath updateStatuses() {
+        return ServerPath.of("/owner/batch");
+    }
+
+    //a cursor continues from the previous page, the offset is not sent with it
+    private static ServerPath page(String path, BookingState state, Integer from, @Nullable String cursor,
+                                   Integer size) {
+        if (cursor != null) {
+            return ServerPath.of(path + "?state={state}&cursor={cursor}&size={size}",
+                    Map.of("state", state.name(), "cursor", cursor, "size", size));
+        }
+        return ServerPath.of(path + "?state={state}&from={from}&size={size}",
+                Map.of("state", state.name(), "from", from, "size", size));
+    }
+}
@@ -0,0 +1,65 @@
+package ru.practicum.shareit.booking;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+
+import java.util.List;
+
+@Profile("reactive")
+@Service
+public class ReactiveBookingClient extends ReactiveBaseClient {
+    @Autowired
+    public ReactiveBookingClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + BookingPaths.API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<byte[]>> createBooking(Long userId, BookingDto bookingDto) {
+        return post(BookingPaths.create(), userId, bookingDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findBookingById(Long userId, Long bookingId) {
+        return get(BookingPaths.byId(bookingId), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findBookingByBooker(Long userId, BookingState state, Integer from,
+                                                            String cursor, Integer size) {
+        return get(BookingPaths.findByBooker(state, from, cursor, size), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findBookingByOwner(Long userId, BookingState state, Integer from, String cursor,
+                                                           Integer size) {
+        return get(BookingPaths.findByOwner(state, from, cursor, size), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findBookerSummary(Long userId) {
+        return get(BookingPaths.findBookerSummary(), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findOwnerSummary(Long userId) {
+        return get(BookingPaths.findOwnerSummary(), userId);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportBookingsByOwner(Long userId) {
+        return stream(BookingPaths.exportByOwner(), userId, MediaType.APPLICATION_NDJSON);
+    }
+
+    public Mono<ResponseEntity<byte[]>> updateBookingStatus(Long userId, Long bookingId, Boolean approved) {
+        return patch(BookingPaths.updateStatus(bookingId, approved), userId, null);
+    }
+
+    public Mono<ResponseEntity<byte[]>> updateBookingStatuses(Long userId, List<BookingDecisionDto> decisions) {
+        return patch(BookingPaths.updateStatuses(), userId, decisions);
+    }
+}
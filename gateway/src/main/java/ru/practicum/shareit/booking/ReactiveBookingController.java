@@ -0,0 +1,112 @@
+package ru.practicum.shareit.booking;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import javax.validation.Valid;
+import javax.validation.ValidationException;
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+import javax.validation.constraints.Size;
+import java.util.List;
+
+@Profile("reactive")
+@Controller
+@RequestMapping(path = "/bookings")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveBookingController {
+    private final ReactiveBookingClient bookingClient;
+
+    @PostMapping
+    Mono<ResponseEntity<byte[]>> createBooking(@Valid @RequestBody BookingDto bookingDto,
+                                               @RequestHeader("X-Sharer-User-Id") Long userId) {
+        if (bookingDto.getStart().isAfter(bookingDto.getEnd())) {
+            throw new ValidationException("Booking end date should be after start date");
+        }
+        log.info("Creating booking {}, userId={}", bookingDto, userId);
+        return bookingClient.createBooking(userId, bookingDto);
+    }
+
+    @GetMapping("/{bookingId}")
+    Mono<ResponseEntity<byte[]>> find(@PathVariable Long bookingId,
+                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Get booking {}, userId={}", bookingId, userId);
+        return bookingClient.findBookingById(userId, bookingId);
+    }
+
+    @GetMapping("/summary")
+    public Mono<ResponseEntity<byte[]>> findBookerSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get booking summary, userId={}", userId);
+        return bookingClient.findBookerSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    public Mono<ResponseEntity<byte[]>> findOwnerSummary(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Get owner booking summary, userId={}", userId);
+        return bookingClient.findOwnerSummary(userId);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> findBookingByBooker(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        BookingState state = BookingState.parse(stateParam);
+        log.info("Get booking with state {}, userId={}, from={}, cursor={}, size={}",
+                stateParam, userId, from, cursor, size);
+        return bookingClient.findBookingByBooker(userId, state, from, cursor, size);
+    }
+
+    @GetMapping("/owner")
+    public Mono<ResponseEntity<byte[]>> findBookingByOwner(
+            @RequestHeader("X-Sharer-User-Id") long userId,
+            @RequestParam(name = "state", defaultValue = "ALL") String stateParam,
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        BookingState state = BookingState.parse(stateParam);
+        log.info("Get booking with state {}, userId={}, from={}, cursor={}, size={}",
+                stateParam, userId, from, cursor, size);
+        return bookingClient.findBookingByOwner(userId, state, from, cursor, size);
+    }
+
+    @GetMapping("/owner/export")
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportBookingsByOwner(@RequestHeader("X-Sharer-User-Id") long userId) {
+        log.info("Export bookings, userId={}", userId);
+        return bookingClient.exportBookingsByOwner(userId);
+    }
+
+    @PatchMapping(path = "/{bookingId}")
+    public Mono<ResponseEntity<byte[]>> updateBookingState(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                           @PathVariable("bookingId") Long bookingId,
+                                                           @RequestParam("approved") Boolean approved) {
+        log.info("Updating booking approved status {} to {}, userId={}", bookingId, approved, userId);
+        return bookingClient.updateBookingStatus(userId, bookingId, approved);
+    }
+
+    @PatchMapping(path = "/owner/batch")
+    public Mono<ResponseEntity<byte[]>> updateBookingStates(
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestBody @NotEmpty @Size(max = 500) List<@Valid @NotNull BookingDecisionDto> decisions) {
+        log.info("Updating approved status of {} bookings, userId={}", decisions.size(), userId);
+        return bookingClient.updateBookingStatuses(userId, decisions);
+    }
+}
@@ -24,4 +24,8 @@ public enum BookingState {
 		}
 		return Optional.empty();
 	}
+
+	public static BookingState parse(String stringState) {
+		return from(stringState).orElseThrow(() -> new IllegalArgumentException("Unknown state: " + stringState));
+	}
 }
@@ -1,22 +1,47 @@
 package ru.practicum.shareit.client;
 
+import java.io.IOException;
+import java.net.URI;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.MediaType;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpResponse;
 import org.springframework.lang.Nullable;
 import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.util.StreamUtils;
+import org.springframework.web.client.ResourceAccessException;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncManager;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 public class BaseClient {
+    private static final Set<String> HOP_BY_HOP_HEADERS = Set.of("connection", "keep-alive", "proxy-authenticate",
+            "proxy-authorization", "te", "trailer", "transfer-encoding", "upgrade");
+
     protected final RestTemplate rest;
+    private final RequestCoalescer coalescer;
 
-    public BaseClient(RestTemplate rest) {
+    public BaseClient(RestTemplate rest, RequestCoalescer coalescer) {
         this.rest = rest;
+        this.coalescer = coalescer;
     }
 
     protected ResponseEntity<Object> get(String path) {
@@ -27,8 +52,13 @@ public class BaseClient {
         return get(path, userId, null);
     }
 
+    //Identical GETs in flight at the same time are sent once, the user is part of the key as responses depend on it
     protected ResponseEntity<Object> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+        URI uri = parameters != null
+                ? rest.getUriTemplateHandler().expand(path, parameters)
+                : rest.getUriTemplateHandler().expand(path);
+        return coalescer.execute(HttpMethod.GET + " " + uri + " " + userId,
+                () -> makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null));
     }
 
     protected <T> ResponseEntity<Object> post(String path, T body) {
@@ -40,7 +70,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+        return makeAndSendWrite(HttpMethod.POST, path, userId, parameters, body);
     }
 
     protected <T> ResponseEntity<Object> put(String path, long userId, T body) {
@@ -48,7 +78,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+        return makeAndSendWrite(HttpMethod.PUT, path, userId, parameters, body);
     }
 
     protected <T> ResponseEntity<Object> patch(String path, T body) {
@@ -64,7 +94,7 @@ public class BaseClient {
     }
 
     protected <T> ResponseEntity<Object> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
-        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+        return makeAndSendWrite(HttpMethod.PATCH, path, userId, parameters, body);
     }
 
     protected ResponseEntity<Object> delete(String path) {
@@ -76,26 +106,120 @@ public class BaseClient {
     }
 
     protected ResponseEntity<Object> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
-        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+        return makeAndSendWrite(HttpMethod.DELETE, path, userId, parameters, null);
+    }
+
+    protected ResponseEntity<Object> get(ServerPath path, Long userId) {
+        return get(path.getTemplate(), userId, path.getParameters());
+    }
+
+    protected <T> ResponseEntity<Object> post(ServerPath path, Long userId, T body) {
+        return post(path.getTemplate(), userId, path.getParameters(), body);
     }
 
+    protected <T> ResponseEntity<Object> patch(ServerPath path, Long userId, T body) {
+        return patch(path.getTemplate(), userId, path.getParameters(), body);
+    }
+
+    protected ResponseEntity<Object> delete(ServerPath path, Long userId) {
+        return delete(path.getTemplate(), userId, path.getParameters());
+    }
+
+    protected ResponseEntity<StreamingResponseBody> stream(String path, Long userId, MediaType mediaType) {
+        return stream(ServerPath.of(path), userId, mediaType);
+    }
+
+    //The server response body is copied to the client as it arrives, it is never held in memory as a whole
+    protected ResponseEntity<StreamingResponseBody> stream(ServerPath path, Long userId, MediaType mediaType) {
+        URI uri = rest.getUriTemplateHandler().expand(path.getTemplate(), path.getParameters());
+        ClientHttpResponse response;
+        HttpStatus status;
+        try {
+            ClientHttpRequest request = rest.getRequestFactory().createRequest(uri, HttpMethod.GET);
+            request.getHeaders().addAll(defaultHeaders(userId));
+            request.getHeaders().setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+            response = request.execute();
+            status = response.getStatusCode();
+        } catch (IOException e) {
+            throw new ResourceAccessException("I/O error on GET request for \"" + uri + "\": " + e.getMessage(), e);
+        }
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(status)
+                .headers(relayHeaders(response.getHeaders()));
+        if (!status.is2xxSuccessful()) {
+            try (response) {
+                byte[] body = StreamUtils.copyToByteArray(response.getBody());
+                return responseBuilder.body(out -> out.write(body));
+            } catch (IOException e) {
+                throw new ResourceAccessException("I/O error reading response of \"" + uri + "\": " + e.getMessage(), e);
+            }
+        }
+        AtomicBoolean claimed = new AtomicBoolean();
+        closeOnRequestCompletion(() -> {
+            if (claimed.compareAndSet(false, true)) {
+                response.close();
+            }
+        });
+        return responseBuilder.body(out -> {
+            if (!claimed.compareAndSet(false, true)) {
+                return; //the request already completed without the body, the response is closed
+            }
+            try (response) {
+                StreamUtils.copy(response.getBody(), out);
+            }
+        });
+    }
+
+    //The body may never run (client gone before the async dispatch, async timeout, a failure before async
+    //processing starts), the open server response must not wait for it to be released
+    private static void closeOnRequestCompletion(Runnable close) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes)) {
+            return;
+        }
+        WebAsyncManager asyncManager = WebAsyncUtils.getAsyncManager(
+                ((ServletRequestAttributes) attributes).getRequest());
+        asyncManager.registerCallableInterceptor(BaseClient.class.getName(), new CallableProcessingInterceptor() {
+            @Override
+            public <T> void afterCompletion(NativeWebRequest request, Callable<T> task) {
+                close.run();
+            }
+        });
+        attributes.registerDestructionCallback(BaseClient.class.getName(), () -> {
+            if (!asyncManager.isConcurrentHandlingStarted()) {
+                close.run();
+            }
+        }, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    //GETs sent from now on no longer attach to flights that may have read the data before this write
+    private <T> ResponseEntity<Object> makeAndSendWrite(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        try {
+            return makeAndSendRequest(method, path, userId, parameters, body);
+        } finally {
+            coalescer.writeCompleted();
+        }
+    }
+
+    //The server response body is relayed as raw bytes, the gateway never parses and serializes it again
     private <T> ResponseEntity<Object> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
         HttpEntity<T> requestEntity = new HttpEntity<>(body, defaultHeaders(userId));
 
-        ResponseEntity<Object> shareitServerResponse;
+        ResponseEntity<byte[]> shareitServerResponse;
         try {
             if (parameters != null) {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class, parameters);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class, parameters);
             } else {
-                shareitServerResponse = rest.exchange(path, method, requestEntity, Object.class);
+                shareitServerResponse = rest.exchange(path, method, requestEntity, byte[].class);
             }
         } catch (HttpStatusCodeException e) {
-            return ResponseEntity.status(e.getStatusCode()).body(e.getResponseBodyAsByteArray());
+            return ResponseEntity.status(e.getStatusCode())
+                    .headers(relayHeaders(e.getResponseHeaders()))
+                    .body(e.getResponseBodyAsByteArray());
         }
         return prepareGatewayResponse(shareitServerResponse);
     }
 
-    private HttpHeaders defaultHeaders(Long userId) {
+    static HttpHeaders defaultHeaders(Long userId) {
         HttpHeaders headers = new HttpHeaders();
         headers.setContentType(MediaType.APPLICATION_JSON);
         headers.setAccept(List.of(MediaType.APPLICATION_JSON));
@@ -105,12 +229,9 @@ public class BaseClient {
         return headers;
     }
 
-    private static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<Object> response) {
-        if (response.getStatusCode().is2xxSuccessful()) {
-            return response;
-        }
-
-        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode());
+    static ResponseEntity<Object> prepareGatewayResponse(ResponseEntity<byte[]> response) {
+        ResponseEntity.BodyBuilder responseBuilder = ResponseEntity.status(response.getStatusCode())
+                .headers(relayHeaders(response.getHeaders()));
 
         if (response.hasBody()) {
             return responseBuilder.body(response.getBody());
@@ -118,4 +239,20 @@ public class BaseClient {
 
         return responseBuilder.build();
     }
+
+    //Hop-by-hop headers describe the connection to the server, the gateway connection sets its own
+    static HttpHeaders relayHeaders(@Nullable HttpHeaders serverHeaders) {
+        HttpHeaders headers = new HttpHeaders();
+        if (serverHeaders == null) {
+            return headers;
+        }
+        Set<String> skipped = new HashSet<>(HOP_BY_HOP_HEADERS);
+        serverHeaders.getConnection().forEach(name -> skipped.add(name.toLowerCase(Locale.ROOT)));
+        serverHeaders.forEach((name, values) -> {
+            if (!skipped.contains(name.toLowerCase(Locale.ROOT))) {
+                headers.addAll(name, values);
+            }
+        });
+        return headers;
+    }
 }
@@ -0,0 +1,74 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
+import org.apache.http.impl.client.HttpClients;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+//One connection pool to the server shared by all clients
+@Profile("!reactive")
+@Configuration
+public class HttpClientConfig {
+    //also a MeterBinder, the actuator registry picks up the pool metrics from it;
+    //only virtual threads wait for a connection outside the pool, platform threads keep the pool's own wait
+    @Bean
+    public TimedConnectionManager connectionManager(
+            @Value("${shareit-gateway.http-client.max-total:200}") int maxTotal,
+            @Value("${shareit-gateway.http-client.max-per-route:100}") int maxPerRoute,
+            Environment environment) {
+        return new TimedConnectionManager("shareit-server", maxTotal, maxPerRoute,
+                environment.acceptsProfiles(Profiles.of("virtual-threads")));
+    }
+
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient httpClient(
+            TimedConnectionManager connectionManager,
+            @Value("${shareit-gateway.http-client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http-client.read-timeout:60s}") Duration readTimeout,
+            @Value("${shareit-gateway.http-client.lease-timeout:5s}") Duration leaseTimeout,
+            @Value("${shareit-gateway.http-client.keep-alive:15s}") Duration keepAlive,
+            @Value("${shareit-gateway.http-client.idle-timeout:30s}") Duration idleTimeout) {
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectTimeout((int) connectTimeout.toMillis())
+                        .setSocketTimeout((int) readTimeout.toMillis())
+                        .setConnectionRequestTimeout((int) leaseTimeout.toMillis())
+                        .build())
+                .setKeepAliveStrategy(keepAliveStrategy(keepAlive))
+                .evictExpiredConnections()
+                .evictIdleConnections(idleTimeout.toMillis(), TimeUnit.MILLISECONDS)
+                .build();
+    }
+
+    //a connection is not reused longer than the server would keep it open
+    static ConnectionKeepAliveStrategy keepAliveStrategy(Duration keepAlive) {
+        return (response, context) -> {
+            long serverKeepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return serverKeepAlive > 0 ? Math.min(serverKeepAlive, keepAlive.toMillis()) : keepAlive.toMillis();
+        };
+    }
+
+    //shared by all clients, also a MeterBinder like the connection manager
+    @Bean
+    public RequestCoalescer requestCoalescer() {
+        return new RequestCoalescer("shareit-server");
+    }
+
+    @Bean
+    public ClientHttpRequestFactory shareitServerRequestFactory(CloseableHttpClient httpClient) {
+        return new HttpComponentsClientHttpRequestFactory(httpClient);
+    }
+}
@@ -0,0 +1,132 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.lang.Nullable;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.Map;
+
+//Non-blocking counterpart of BaseClient, error statuses of the server are relayed instead of thrown
+public class ReactiveBaseClient {
+    protected final WebClient web;
+
+    public ReactiveBaseClient(WebClient web) {
+        this.web = web;
+    }
+
+    protected Mono<ResponseEntity<byte[]>> get(String path) {
+        return get(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> get(String path, long userId) {
+        return get(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> get(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.GET, path, userId, parameters, null);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, T body) {
+        return post(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, long userId, T body) {
+        return post(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> post(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.POST, path, userId, parameters, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> put(String path, long userId, T body) {
+        return put(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> put(String path, long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PUT, path, userId, parameters, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, T body) {
+        return patch(path, null, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, long userId) {
+        return patch(path, userId, null, null);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, long userId, T body) {
+        return patch(path, userId, null, body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> patch(String path, Long userId, @Nullable Map<String, Object> parameters, T body) {
+        return makeAndSendRequest(HttpMethod.PATCH, path, userId, parameters, body);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> delete(String path) {
+        return delete(path, null, null);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> delete(String path, long userId) {
+        return delete(path, userId, null);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> delete(String path, Long userId, @Nullable Map<String, Object> parameters) {
+        return makeAndSendRequest(HttpMethod.DELETE, path, userId, parameters, null);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> get(ServerPath path, Long userId) {
+        return get(path.getTemplate(), userId, path.getParameters());
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> post(ServerPath path, Long userId, T body) {
+        return post(path.getTemplate(), userId, path.getParameters(), body);
+    }
+
+    protected <T> Mono<ResponseEntity<byte[]>> patch(ServerPath path, Long userId, T body) {
+        return patch(path.getTemplate(), userId, path.getParameters(), body);
+    }
+
+    protected Mono<ResponseEntity<byte[]>> delete(ServerPath path, Long userId) {
+        return delete(path.getTemplate(), userId, path.getParameters());
+    }
+
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(String path, Long userId, MediaType mediaType) {
+        return stream(ServerPath.of(path), userId, mediaType);
+    }
+
+    //The server response body is relayed buffer by buffer as it arrives
+    protected Mono<ResponseEntity<Flux<DataBuffer>>> stream(ServerPath path, Long userId, MediaType mediaType) {
+        return web.get()
+                .uri(path.getTemplate(), path.getParameters())
+                .headers(headers -> {
+                    headers.addAll(BaseClient.defaultHeaders(userId));
+                    headers.setAccept(List.of(mediaType, MediaType.APPLICATION_JSON));
+                })
+                .retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(BaseClient.relayHeaders(response.getHeaders()))
+                        .body(response.getBody()));
+    }
+
+    private <T> Mono<ResponseEntity<byte[]>> makeAndSendRequest(HttpMethod method, String path, Long userId, @Nullable Map<String, Object> parameters, @Nullable T body) {
+        WebClient.RequestBodySpec request = web.method(method)
+                .uri(path, parameters == null ? Map.of() : parameters)
+                .headers(headers -> headers.addAll(BaseClient.defaultHeaders(userId)));
+        WebClient.RequestHeadersSpec<?> requestWithBody = body == null ? request : request.bodyValue(body);
+        return requestWithBody.retrieve()
+                .onStatus(HttpStatus::isError, response -> Mono.empty())
+                .toEntity(byte[].class)
+                .map(response -> ResponseEntity.status(response.getStatusCode())
+                        .headers(BaseClient.relayHeaders(response.getHeaders()))
+                        .body(response.getBody()));
+    }
+}
@@ -0,0 +1,119 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+//Identical requests arriving while one is in flight wait for its response instead of being sent again.
+//A request never attaches to a flight sent before a write through this gateway completed: one tab's GET may be
+//in flight while another tab PATCHes and then GETs, the second GET must not get the data read before the PATCH.
+//Writes sent to the server past this gateway instance are not seen, those are only as fresh as a plain GET
+public class RequestCoalescer implements MeterBinder {
+    private final String name;
+    private final Map<String, Flight> inFlight = new ConcurrentHashMap<>();
+    private final AtomicLong writes = new AtomicLong();
+    private volatile Counter sent;
+    private volatile Counter attached;
+
+    public RequestCoalescer(String name) {
+        this.name = name;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        sent = counter(registry, "sent");
+        attached = counter(registry, "attached");
+    }
+
+    public ResponseEntity<Object> execute(String key, Supplier<ResponseEntity<Object>> call) {
+        return execute(key, writes.get(), call);
+    }
+
+    //writesSeen is read before the key is looked up, a write may complete in between
+    ResponseEntity<Object> execute(String key, long writesSeen, Supplier<ResponseEntity<Object>> call) {
+        Flight flight = new Flight(writesSeen);
+        while (true) {
+            Flight existing = inFlight.putIfAbsent(key, flight);
+            if (existing == null) {
+                break;
+            }
+            //a flight sent after more writes is at least as fresh as this request needs
+            if (existing.writes >= flight.writes) {
+                increment(attached);
+                return join(existing.response);
+            }
+            //sent before the last write, later requests attach to this one instead
+            if (inFlight.replace(key, existing, flight)) {
+                break;
+            }
+        }
+        increment(sent);
+        try {
+            ResponseEntity<Object> response = call.get();
+            flight.response.complete(response);
+            return response;
+        } catch (RuntimeException | Error e) {
+            flight.response.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, flight);
+        }
+    }
+
+    //called once a write has completed, failed or not, as it may still have been applied
+    public void writeCompleted() {
+        writes.incrementAndGet();
+    }
+
+    //flights are removed once completed
+    int inFlight() {
+        return inFlight.size();
+    }
+
+    private Counter counter(MeterRegistry registry, String result) {
+        return Counter.builder("shareit.gateway.requests.coalesced")
+                .description("Requests sent to the server or attached to an identical one in flight")
+                .tag("httpclient", name)
+                .tag("result", result)
+                .register(registry);
+    }
+
+    private static final class Flight {
+        //writes completed before it was sent
+        private final long writes;
+        private final CompletableFuture<ResponseEntity<Object>> response = new CompletableFuture<>();
+
+        private Flight(long writes) {
+            this.writes = writes;
+        }
+    }
+
+    private static void increment(Counter counter) {
+        if (counter != null) {
+            counter.increment();
+        }
+    }
+
+    //the waiting request fails the same way the one it attached to did
+    private static ResponseEntity<Object> join(CompletableFuture<ResponseEntity<Object>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
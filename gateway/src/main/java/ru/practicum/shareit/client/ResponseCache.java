@@ -0,0 +1,73 @@
+package ru.practicum.shareit.client;
+
+import org.springframework.http.ResponseEntity;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+//Keeps successful responses for a short time, failed ones are never cached
+public class ResponseCache<T> {
+    private final long ttlNanos;
+    private final int maxSize;
+    private final Map<String, Entry<T>> entries = new ConcurrentHashMap<>();
+
+    public ResponseCache(Duration ttl, int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    public ResponseEntity<T> get(String key, Supplier<ResponseEntity<T>> loader) {
+        long now = System.nanoTime();
+        ResponseEntity<T> cached = find(key, now);
+        if (cached != null) {
+            return cached;
+        }
+        return store(key, loader.get(), now);
+    }
+
+    public Mono<ResponseEntity<T>> getAsync(String key, Supplier<Mono<ResponseEntity<T>>> loader) {
+        long now = System.nanoTime();
+        ResponseEntity<T> cached = find(key, now);
+        if (cached != null) {
+            return Mono.just(cached);
+        }
+        return loader.get().map(response -> store(key, response, now));
+    }
+
+    private ResponseEntity<T> find(String key, long now) {
+        Entry<T> entry = entries.get(key);
+        if (entry != null && now - entry.created < ttlNanos) {
+            return entry.response;
+        }
+        return null;
+    }
+
+    private ResponseEntity<T> store(String key, ResponseEntity<T> response, long now) {
+        if (response.getStatusCode().is2xxSuccessful()) {
+            if (entries.size() >= maxSize) {
+                evictExpired(now);
+            }
+            if (entries.size() < maxSize) {
+                entries.put(key, new Entry<>(response, now));
+            }
+        }
+        return response;
+    }
+
+    private void evictExpired(long now) {
+        entries.values().removeIf(entry -> now - entry.created >= ttlNanos);
+    }
+
+    private static final class Entry<T> {
+        final ResponseEntity<T> response;
+        final long created;
+
+        Entry(ResponseEntity<T> response, long created) {
+            this.response = response;
+            this.created = created;
+        }
+    }
+}
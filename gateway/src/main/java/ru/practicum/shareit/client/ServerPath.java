@@ -0,0 +1,23 @@
+package ru.practicum.shareit.client;
+
+import lombok.AccessLevel;
+import lombok.Value;
+import lombok.experimental.FieldDefaults;
+
+import java.util.Map;
+
+//Server endpoint template with the values of its variables, built in one place for the servlet and reactive clients
+@Value
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class ServerPath {
+    String template;
+    Map<String, Object> parameters;
+
+    public static ServerPath of(String template) {
+        return new ServerPath(template, Map.of());
+    }
+
+    public static ServerPath of(String template, Map<String, Object> parameters) {
+        return new ServerPath(template, parameters);
+    }
+}
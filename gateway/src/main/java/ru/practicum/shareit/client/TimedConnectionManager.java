@@ -0,0 +1,161 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+
+import java.lang.ref.Cleaner;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+//Connection pool exporting its leased and pending counts and how long each request waits to lease a connection
+@Slf4j
+public class TimedConnectionManager extends PoolingHttpClientConnectionManager implements MeterBinder {
+    private static final Cleaner CLEANER = Cleaner.create();
+
+    private final String name;
+    //with virtual threads requests wait for a permit instead of inside the pool, which parks them holding a monitor
+    //and so pins a virtual thread to its carrier; all requests go to one route, so its limit bounds the permits.
+    //Null on platform threads, they wait in the pool as before
+    private final Semaphore leases;
+    //weak keys, a connection dropped without being released must not be kept here forever
+    private final Map<HttpClientConnection, Permit> leased = Collections.synchronizedMap(new WeakHashMap<>());
+    private volatile Timer leaseTimer;
+
+    public TimedConnectionManager(String name, int maxTotal, int maxPerRoute, boolean waitOutsidePool) {
+        this.name = name;
+        setMaxTotal(maxTotal);
+        setDefaultMaxPerRoute(maxPerRoute);
+        leases = waitOutsidePool ? new Semaphore(Math.min(maxTotal, maxPerRoute), true) : null;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(this, name).bindTo(registry);
+        leaseTimer = Timer.builder("httpcomponents.httpclient.pool.lease")
+                .description("Time spent waiting for a pooled connection")
+                .tag("httpclient", name)
+                .register(registry);
+        if (leases != null) {
+            Gauge.builder("httpcomponents.httpclient.pool.lease.waiting", leases, Semaphore::getQueueLength)
+                    .description("Requests waiting for a connection permit")
+                    .tag("httpclient", name)
+                    .register(registry);
+        }
+    }
+
+    @Override
+    public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+        ConnectionRequest request = super.requestConnection(route, state);
+        return new ConnectionRequest() {
+            @Override
+            public HttpClientConnection get(long timeout, TimeUnit timeUnit)
+                    throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                long start = System.nanoTime();
+                try {
+                    return leases == null ? request.get(timeout, timeUnit) : leaseWithPermit(request, timeout, timeUnit);
+                } finally {
+                    Timer timer = leaseTimer;
+                    if (timer != null) {
+                        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+            }
+
+            @Override
+            public boolean cancel() {
+                return request.cancel();
+            }
+        };
+    }
+
+    private HttpClientConnection leaseWithPermit(ConnectionRequest request, long timeout, TimeUnit timeUnit)
+            throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+        //zero means no timeout
+        long poolTimeoutMillis = 0;
+        if (timeout <= 0) {
+            leases.acquire();
+        } else {
+            long deadline = System.nanoTime() + timeUnit.toNanos(timeout);
+            if (!leases.tryAcquire(timeout, timeUnit)) {
+                throw new ConnectionPoolTimeoutException("Timeout waiting for connection from pool");
+            }
+            //the pool only gets what is left of the timeout, less than a millisecond would read as no timeout there
+            poolTimeoutMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+            if (poolTimeoutMillis <= 0) {
+                leases.release();
+                throw new ConnectionPoolTimeoutException("Timeout waiting for connection from pool");
+            }
+        }
+        HttpClientConnection connection;
+        try {
+            connection = request.get(poolTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException | ExecutionException | ConnectionPoolTimeoutException | RuntimeException e) {
+            leases.release();
+            throw e;
+        }
+        Permit permit = new Permit(leases);
+        permit.cleanable = CLEANER.register(connection, permit::reclaim);
+        leased.put(connection, permit);
+        return connection;
+    }
+
+    @Override
+    public void releaseConnection(HttpClientConnection managedConn, Object state, long keepAlive, TimeUnit timeUnit) {
+        try {
+            super.releaseConnection(managedConn, state, keepAlive, timeUnit);
+        } finally {
+            //a connection may be released more than once
+            Permit permit = leased.remove(managedConn);
+            if (permit != null) {
+                permit.release();
+            }
+        }
+    }
+
+    //available permits, -1 when requests wait in the pool
+    int availablePermits() {
+        return leases == null ? -1 : leases.availablePermits();
+    }
+
+    //One leased connection's permit, returned once: on release, or when the connection was never released and
+    //its handle got garbage collected. The pool itself keeps such a connection leased, so a leak still shows
+    //as leased in the pool metrics and the warning below, but waiters are not stuck behind a permit nobody returns
+    private static final class Permit {
+        private final Semaphore leases;
+        private final AtomicBoolean held = new AtomicBoolean(true);
+        private Cleaner.Cleanable cleanable;
+
+        private Permit(Semaphore leases) {
+            this.leases = leases;
+        }
+
+        private void release() {
+            if (held.compareAndSet(true, false)) {
+                leases.release();
+            }
+            cleanable.clean();
+        }
+
+        //must not reference the connection, or it never becomes unreachable
+        private void reclaim() {
+            if (held.compareAndSet(true, false)) {
+                log.warn("A pooled connection was never released, its response was probably not closed");
+                leases.release();
+            }
+        }
+    }
+}
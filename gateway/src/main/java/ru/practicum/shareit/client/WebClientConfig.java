@@ -0,0 +1,43 @@
+package ru.practicum.shareit.client;
+
+import io.netty.channel.ChannelOption;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.client.reactive.ClientHttpConnector;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+//One connection pool to the server shared by all reactive clients, the WebClient.Builder of every client uses it
+@Profile("reactive")
+@Configuration
+public class WebClientConfig {
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider connectionProvider(
+            @Value("${shareit-gateway.http-client.max-total:200}") int maxTotal,
+            @Value("${shareit-gateway.http-client.lease-timeout:5s}") Duration leaseTimeout,
+            @Value("${shareit-gateway.http-client.keep-alive:15s}") Duration keepAlive,
+            @Value("${shareit-gateway.http-client.idle-timeout:30s}") Duration idleTimeout) {
+        return ConnectionProvider.builder("shareit-server")
+                .maxConnections(maxTotal)
+                .pendingAcquireTimeout(leaseTimeout)
+                .maxIdleTime(keepAlive)
+                .evictInBackground(idleTimeout)
+                .metrics(true)
+                .build();
+    }
+
+    @Bean
+    public ClientHttpConnector shareitServerConnector(
+            ConnectionProvider connectionProvider,
+            @Value("${shareit-gateway.http-client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${shareit-gateway.http-client.read-timeout:60s}") Duration readTimeout) {
+        return new ReactorClientHttpConnector(HttpClient.create(connectionProvider)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .responseTimeout(readTimeout));
+    }
+}
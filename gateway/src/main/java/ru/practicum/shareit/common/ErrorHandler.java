@@ -1,15 +1,19 @@
 package ru.practicum.shareit.common;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 
 import javax.servlet.http.HttpServletResponse;
 import javax.validation.ValidationException;
 import java.io.IOException;
 
+@Profile("!reactive")
 @Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
@@ -21,7 +25,10 @@ public class ErrorHandler {
                 .body(new ErrorMessage(exception.getMessage()));
     }
 
-    @ExceptionHandler(ValidationException.class)
+    //unreadable bodies and parameters of the wrong type are runtime exceptions, but the client's fault,
+    //the reactive mode answers them with 400 as well
+    @ExceptionHandler({ValidationException.class, HttpMessageNotReadableException.class,
+            MethodArgumentTypeMismatchException.class})
     public void handleBadRequest(HttpServletResponse response, Exception exception) throws IOException {
         log.debug(exception.getMessage());
         response.sendError(HttpStatus.BAD_REQUEST.value());
@@ -0,0 +1,45 @@
+package ru.practicum.shareit.common;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import javax.validation.ValidationException;
+
+//Same responses as ErrorHandler, statuses without a body are rendered by the default error handler
+@Profile("reactive")
+@Slf4j
+@RestControllerAdvice
+public class ReactiveErrorHandler {
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<ErrorMessage> handlerIllegalArgument(IllegalArgumentException exception) {
+        log.debug(exception.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorMessage(exception.getMessage()));
+    }
+
+    @ExceptionHandler(ValidationException.class)
+    public Mono<Void> handleBadRequest(Exception exception) {
+        log.debug(exception.getMessage());
+        return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST));
+    }
+
+    //binding errors (invalid body, missing header) keep their own status
+    @ExceptionHandler(ResponseStatusException.class)
+    public Mono<Void> handleResponseStatus(ResponseStatusException exception) {
+        log.debug(exception.getMessage());
+        return Mono.error(exception);
+    }
+
+    @ExceptionHandler(RuntimeException.class)
+    public Mono<Void> handleException(Exception exception) {
+        log.debug(exception.getMessage());
+        return Mono.error(new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR));
+    }
+}
@@ -0,0 +1,16 @@
+package ru.practicum.shareit.common;
+
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+//Tomcat is on the classpath for the blocking mode, the reactive mode runs on Netty event loops instead
+@Profile("reactive")
+@Configuration
+public class ReactiveServerConfig {
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory() {
+        return new NettyReactiveWebServerFactory();
+    }
+}
@@ -0,0 +1,28 @@
+package ru.practicum.shareit.common;
+
+import org.apache.coyote.ProtocolHandler;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.task.TaskExecutionAutoConfiguration;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+
+//Requests and streamed responses run on a virtual thread each instead of the bounded Tomcat and task pools
+@Profile("virtual-threads & !reactive")
+@Configuration
+public class VirtualThreadsConfig {
+    //replaces the task pool Spring MVC runs async requests on
+    @Bean(name = TaskExecutionAutoConfiguration.APPLICATION_TASK_EXECUTOR_BEAN_NAME)
+    public TaskExecutorAdapter applicationTaskExecutor(
+            @Value("${shareit-gateway.virtual-threads.max-concurrency:1000}") int maxConcurrency) {
+        return VirtualThreads.boundedExecutor(maxConcurrency);
+    }
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadsProtocolHandlerCustomizer(
+            TaskExecutorAdapter applicationTaskExecutor) {
+        return protocolHandler -> protocolHandler.setExecutor(applicationTaskExecutor);
+    }
+}
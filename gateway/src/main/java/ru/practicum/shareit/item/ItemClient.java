@@ -3,64 +3,80 @@ package ru.practicum.shareit.item;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
+import ru.practicum.shareit.client.ResponseCache;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchSort;
 
-import java.util.Map;
+import java.time.Duration;
+import java.time.LocalDateTime;
 
+@Profile("!reactive")
 @Service
 public class ItemClient extends BaseClient {
-    private static final String API_PREFIX = "/items";
+    private final ResponseCache<Object> suggestCache;
 
     @Autowired
-    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, RequestCoalescer coalescer,
+                      @Value("${shareit-gateway.suggest-cache.ttl:5s}") Duration suggestCacheTtl,
+                      @Value("${shareit-gateway.suggest-cache.max-size:10000}") int suggestCacheMaxSize) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + ItemPaths.API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                coalescer
         );
+        this.suggestCache = new ResponseCache<>(suggestCacheTtl, suggestCacheMaxSize);
     }
 
     public ResponseEntity<Object> createItem(Long userId, ItemDto itemDto) {
-        return post("", userId, itemDto);
+        return post(ItemPaths.create(), userId, itemDto);
     }
 
     public ResponseEntity<Object> updateItem(Long userId, Long itemId, ItemDto itemDto) {
-        return patch("/" + itemId, userId, itemDto);
+        return patch(ItemPaths.byId(itemId), userId, itemDto);
     }
 
     public ResponseEntity<Object> findItemById(Long userId, Long itemId) {
-        return get("/" + itemId, userId);
+        return get(ItemPaths.byId(itemId), userId);
     }
 
     public ResponseEntity<Object> findItemByOwner(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("?from={from}&size={size}", userId, parameters);
+        return get(ItemPaths.findByOwner(from, size), userId);
     }
 
-    public ResponseEntity<Object> findItemByText(Long userId, String text, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "text", text,
-                "from", from,
-                "size", size
-        );
-        return get("/search?text={text}&from={from}&size={size}", userId, parameters);
+    public ResponseEntity<Object> findItemByText(Long userId, String text, ItemSearchSort sort, Integer from,
+                                                 Integer size) {
+        return get(ItemPaths.search(text, sort, from, size), userId);
+    }
+
+    public ResponseEntity<Object> suggestItems(Long userId, String prefix, Integer size) {
+        return suggestCache.get(ItemPaths.suggestCacheKey(prefix, size),
+                () -> get(ItemPaths.suggest(prefix, size), userId));
+    }
+
+    public ResponseEntity<Object> findAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        return get(ItemPaths.availability(itemId, from, to), userId);
+    }
+
+    public ResponseEntity<Object> findNextFreeSlot(Long userId, Long itemId, Duration duration, LocalDateTime from) {
+        return get(ItemPaths.nextFreeSlot(itemId, duration, from), userId);
     }
 
     public ResponseEntity<Object> deleteItem(Long itemId) {
-        return delete("/" + itemId);
+        return delete(ItemPaths.byId(itemId), null);
     }
 
     public ResponseEntity<Object> addComment(Long userId, Long itemId, CommentDto commentDto) {
-        return post("/" + itemId + "/comment", userId, commentDto);
+        return post(ItemPaths.comment(itemId), userId, commentDto);
     }
 }
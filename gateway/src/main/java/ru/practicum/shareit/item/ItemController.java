@@ -2,17 +2,25 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchSort;
 
 import javax.validation.Valid;
+import javax.validation.ValidationException;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.Duration;
+import java.time.LocalDateTime;
 
+@Profile("!reactive")
 @Controller
 @RequestMapping(path = "/items")
 @RequiredArgsConstructor
@@ -54,10 +62,44 @@ public class ItemController {
     @GetMapping("/search")
     public ResponseEntity<Object> findItemByText(@RequestHeader("X-Sharer-User-Id") Long userId,
                                                  @RequestParam String text,
+                                                 @RequestParam(name = "sort", defaultValue = "id") String sortParam,
                                                  @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
                                                  @Positive @RequestParam(defaultValue = "20") Integer size) {
-        log.info("Get items by text '{}', userId={}, from={}, size{}", text, userId, from, size);
-        return itemClient.findItemByText(userId, text, from, size);
+        ItemSearchSort sort = ItemSearchSort.parse(sortParam);
+        log.info("Get items by text '{}', userId={}, sort={}, from={}, size{}", text, userId, sort, from, size);
+        return itemClient.findItemByText(userId, text, sort, from, size);
+    }
+
+    @GetMapping("/suggest")
+    public ResponseEntity<Object> suggestItems(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                               @RequestParam String prefix,
+                                               @Positive @Max(100) @RequestParam(defaultValue = "10") Integer size) {
+        log.info("Get item name suggestions for '{}', userId={}, size={}", prefix, userId, size);
+        return itemClient.suggestItems(userId, prefix, size);
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public ResponseEntity<Object> findAvailability(
+            @PathVariable Long itemId,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Availability end date should be after start date");
+        }
+        log.info("Get availability of item {}, userId={}, from={}, to={}", itemId, userId, from, to);
+        return itemClient.findAvailability(userId, itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/next-free")
+    public ResponseEntity<Object> findNextFreeSlot(
+            @PathVariable Long itemId,
+            @RequestHeader("X-Sharer-User-Id") Long userId,
+            @RequestParam Duration duration,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from) {
+        SlotDuration.check(duration);
+        log.info("Get next free slot of item {}, userId={}, duration={}, from={}", itemId, userId, duration, from);
+        return itemClient.findNextFreeSlot(userId, itemId, duration, from);
     }
 
     @DeleteMapping("/{itemId}")
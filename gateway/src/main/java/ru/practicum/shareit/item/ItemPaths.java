@@ -0,0 +1,60 @@
+package ru.practicum.shareit.item;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.client.ServerPath;
+import ru.practicum.shareit.item.dto.ItemSearchSort;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.Map;
+
+//Server endpoints of ItemClient and ReactiveItemClient
+@UtilityClass
+class ItemPaths {
+    static final String API_PREFIX = "/items";
+
+    static ServerPath create() {
+        return ServerPath.of("");
+    }
+
+    static ServerPath byId(Long itemId) {
+        return ServerPath.of("/" + itemId);
+    }
+
+    static ServerPath findByOwner(Integer from, Integer size) {
+        return ServerPath.of("?from={from}&size={size}", Map.of("from", from, "size", size));
+    }
+
+    static ServerPath search(String text, ItemSearchSort sort, Integer from, Integer size) {
+        return ServerPath.of("/search?text={text}&sort={sort}&from={from}&size={size}",
+                Map.of("text", text, "sort", sort.name(), "from", from, "size", size));
+    }
+
+    static ServerPath suggest(String prefix, Integer size) {
+        return ServerPath.of("/suggest?prefix={prefix}&size={size}", Map.of("prefix", prefix, "size", size));
+    }
+
+    //suggestions do not depend on the case of the prefix or on the user
+    static String suggestCacheKey(String prefix, Integer size) {
+        return prefix.toLowerCase(Locale.ROOT) + "|" + size;
+    }
+
+    static ServerPath availability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        return ServerPath.of("/" + itemId + "/availability?from={from}&to={to}", Map.of("from", from, "to", to));
+    }
+
+    //without a start the server looks for a slot from now on
+    static ServerPath nextFreeSlot(Long itemId, Duration duration, @Nullable LocalDateTime from) {
+        if (from == null) {
+            return ServerPath.of("/" + itemId + "/next-free?duration={duration}", Map.of("duration", duration));
+        }
+        return ServerPath.of("/" + itemId + "/next-free?duration={duration}&from={from}",
+                Map.of("duration", duration, "from", from));
+    }
+
+    static ServerPath comment(Long itemId) {
+        return ServerPath.of("/" + itemId + "/comment");
+    }
+}
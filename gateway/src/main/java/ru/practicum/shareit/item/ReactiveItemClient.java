@@ -0,0 +1,75 @@
+package ru.practicum.shareit.item;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.client.ResponseCache;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.ItemSearchSort;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+@Profile("reactive")
+@Service
+public class ReactiveItemClient extends ReactiveBaseClient {
+    private final ResponseCache<byte[]> suggestCache;
+
+    @Autowired
+    public ReactiveItemClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder,
+                              @Value("${shareit-gateway.suggest-cache.ttl:5s}") Duration suggestCacheTtl,
+                              @Value("${shareit-gateway.suggest-cache.max-size:10000}") int suggestCacheMaxSize) {
+        super(builder.baseUrl(serverUrl + ItemPaths.API_PREFIX).build());
+        this.suggestCache = new ResponseCache<>(suggestCacheTtl, suggestCacheMaxSize);
+    }
+
+    public Mono<ResponseEntity<byte[]>> createItem(Long userId, ItemDto itemDto) {
+        return post(ItemPaths.create(), userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> updateItem(Long userId, Long itemId, ItemDto itemDto) {
+        return patch(ItemPaths.byId(itemId), userId, itemDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findItemById(Long userId, Long itemId) {
+        return get(ItemPaths.byId(itemId), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findItemByOwner(Long userId, Integer from, Integer size) {
+        return get(ItemPaths.findByOwner(from, size), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findItemByText(Long userId, String text, ItemSearchSort sort, Integer from,
+                                                       Integer size) {
+        return get(ItemPaths.search(text, sort, from, size), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> suggestItems(Long userId, String prefix, Integer size) {
+        return suggestCache.getAsync(ItemPaths.suggestCacheKey(prefix, size),
+                () -> get(ItemPaths.suggest(prefix, size), userId));
+    }
+
+    public Mono<ResponseEntity<byte[]>> findAvailability(Long userId, Long itemId, LocalDateTime from,
+                                                         LocalDateTime to) {
+        return get(ItemPaths.availability(itemId, from, to), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findNextFreeSlot(Long userId, Long itemId, Duration duration,
+                                                         LocalDateTime from) {
+        return get(ItemPaths.nextFreeSlot(itemId, duration, from), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> deleteItem(Long itemId) {
+        return delete(ItemPaths.byId(itemId), null);
+    }
+
+    public Mono<ResponseEntity<byte[]>> addComment(Long userId, Long itemId, CommentDto commentDto) {
+        return post(ItemPaths.comment(itemId), userId, commentDto);
+    }
+}
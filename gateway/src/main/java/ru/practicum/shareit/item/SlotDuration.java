@@ -0,0 +1,22 @@
+package ru.practicum.shareit.item;
+
+import lombok.experimental.UtilityClass;
+
+import javax.validation.ValidationException;
+import java.time.Duration;
+
+//Duration of the free slot asked from ItemController and ReactiveItemController
+@UtilityClass
+class SlotDuration {
+    //no item is booked for longer, and a longer slot would only be found past any existing booking
+    static final Duration MAX = Duration.ofDays(366);
+
+    static void check(Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new ValidationException("Duration should be positive");
+        }
+        if (duration.compareTo(MAX) > 0) {
+            throw new ValidationException("Duration should be at most " + MAX.toDays() + " days");
+        }
+    }
+}
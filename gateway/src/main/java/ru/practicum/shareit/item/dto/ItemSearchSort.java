@@ -0,0 +1,21 @@
+package ru.practicum.shareit.item.dto;
+
+import java.util.Optional;
+
+public enum ItemSearchSort {
+    ID,
+    RELEVANCE;
+
+    public static Optional<ItemSearchSort> from(String stringSort) {
+        for (ItemSearchSort sort : values()) {
+            if (sort.name().equalsIgnoreCase(stringSort)) {
+                return Optional.of(sort);
+            }
+        }
+        return Optional.empty();
+    }
+
+    public static ItemSearchSort parse(String stringSort) {
+        return from(stringSort).orElseThrow(() -> new IllegalArgumentException("Unknown sort: " + stringSort));
+    }
+}
@@ -3,47 +3,45 @@ package ru.practicum.shareit.request;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
 
-import java.util.Map;
 
+@Profile("!reactive")
 @Service
 public class ItemRequestClient extends BaseClient {
 
-    private static final String API_PREFIX = "/requests";
-
     @Autowired
-    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public ItemRequestClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                             ClientHttpRequestFactory requestFactory, RequestCoalescer coalescer) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + ItemRequestPaths.API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                coalescer
         );
     }
 
     public ResponseEntity<Object> createRequest(Long userId, ItemRequestDto requestDto) {
-        return post("", userId, requestDto);
+        return post(ItemRequestPaths.create(), userId, requestDto);
     }
 
     public ResponseEntity<Object> findRequestByRequester(Long userId) {
-        return get("/", userId);
+        return get(ItemRequestPaths.findByRequester(), userId);
     }
 
     public ResponseEntity<Object> findRequestById(Long userId, Long requestId) {
-        return get("/" + requestId, userId);
+        return get(ItemRequestPaths.byId(requestId), userId);
     }
 
     public ResponseEntity<Object> findAllRequests(Long userId, Integer from, Integer size) {
-        Map<String, Object> parameters = Map.of(
-                "from", from,
-                "size", size
-        );
-        return get("/all?from={from}&size={size}", userId, parameters);
+        return get(ItemRequestPaths.findAll(from, size), userId);
     }
 }
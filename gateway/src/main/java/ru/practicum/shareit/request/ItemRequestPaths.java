@@ -0,0 +1,28 @@
+package ru.practicum.shareit.request;
+
+import lombok.experimental.UtilityClass;
+import ru.practicum.shareit.client.ServerPath;
+
+import java.util.Map;
+
+//Server endpoints of ItemRequestClient and ReactiveItemRequestClient
+@UtilityClass
+class ItemRequestPaths {
+    static final String API_PREFIX = "/requests";
+
+    static ServerPath create() {
+        return ServerPath.of("");
+    }
+
+    static ServerPath findByRequester() {
+        return ServerPath.of("/");
+    }
+
+    static ServerPath byId(Long requestId) {
+        return ServerPath.of("/" + requestId);
+    }
+
+    static ServerPath findAll(Integer from, Integer size) {
+        return ServerPath.of("/all?from={from}&size={size}", Map.of("from", from, "size", size));
+    }
+}
@@ -0,0 +1,38 @@
+package ru.practicum.shareit.request;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+
+@Profile("reactive")
+@Service
+public class ReactiveItemRequestClient extends ReactiveBaseClient {
+
+    @Autowired
+    public ReactiveItemRequestClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + ItemRequestPaths.API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<byte[]>> createRequest(Long userId, ItemRequestDto requestDto) {
+        return post(ItemRequestPaths.create(), userId, requestDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findRequestByRequester(Long userId) {
+        return get(ItemRequestPaths.findByRequester(), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findRequestById(Long userId, Long requestId) {
+        return get(ItemRequestPaths.byId(requestId), userId);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findAllRequests(Long userId, Integer from, Integer size) {
+        return get(ItemRequestPaths.findAll(from, size), userId);
+    }
+}
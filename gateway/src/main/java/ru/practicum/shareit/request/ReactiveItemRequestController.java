@@ -0,0 +1,54 @@
+package ru.practicum.shareit.request;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import javax.validation.Valid;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
+
+@Profile("reactive")
+@Controller
+@RequestMapping(path = "/requests")
+@RequiredArgsConstructor
+@Slf4j
+@Validated
+public class ReactiveItemRequestController {
+
+    private final ReactiveItemRequestClient requestClient;
+
+    @PostMapping
+    public Mono<ResponseEntity<byte[]>> createRequest(@Valid @RequestBody ItemRequestDto itemRequestDto,
+                                                      @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Creating request {}, userId={}", itemRequestDto, userId);
+        return requestClient.createRequest(userId, itemRequestDto);
+    }
+
+    @GetMapping
+    public Mono<ResponseEntity<byte[]>> findRequestByRequester(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Get requests for user {}", userId);
+        return requestClient.findRequestByRequester(userId);
+    }
+
+    @GetMapping("/{requestId}")
+    public Mono<ResponseEntity<byte[]>> findRequestById(@PathVariable Long requestId,
+                                                        @RequestHeader("X-Sharer-User-Id") Long userId) {
+        log.info("Get request {}, userId={}", requestId, userId);
+        return requestClient.findRequestById(userId, requestId);
+    }
+
+    @GetMapping("/all")
+    public Mono<ResponseEntity<byte[]>> findAllRequests(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                        @PositiveOrZero @RequestParam(defaultValue = "0") Integer from,
+                                                        @Positive @RequestParam(defaultValue = "20") Integer size) {
+        log.info("Get all requests, userId={}, from={}, size={}", userId, from, size);
+        return requestClient.findAllRequests(userId, from, size);
+    }
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.user;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.client.ReactiveBaseClient;
+import ru.practicum.shareit.user.dto.UserDto;
+
+
+@Profile("reactive")
+@Service
+public class ReactiveUserClient extends ReactiveBaseClient {
+    @Autowired
+    public ReactiveUserClient(@Value("${shareit-server.url}") String serverUrl, WebClient.Builder builder) {
+        super(builder.baseUrl(serverUrl + UserPaths.API_PREFIX).build());
+    }
+
+    public Mono<ResponseEntity<byte[]>> createUser(UserDto userDto) {
+        return post(UserPaths.create(), null, userDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> updateUser(Long userId, UserDto userDto) {
+        return patch(UserPaths.byId(userId), null, userDto);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findUserById(Long userId) {
+        return get(UserPaths.byId(userId), null);
+    }
+
+    public Mono<ResponseEntity<byte[]>> findAll(Integer from, String cursor, Integer size) {
+        return get(UserPaths.findAll(from, cursor, size), null);
+    }
+
+    public Mono<ResponseEntity<Flux<DataBuffer>>> exportAll() {
+        return stream(UserPaths.exportAll(), null, MediaType.APPLICATION_NDJSON);
+    }
+
+    public Mono<ResponseEntity<byte[]>> deleteUser(Long userId) {
+        return delete(UserPaths.byId(userId), null);
+    }
+}
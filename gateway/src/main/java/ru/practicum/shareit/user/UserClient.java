@@ -3,44 +3,54 @@ package ru.practicum.shareit.user;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpRequestFactory;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.util.DefaultUriBuilderFactory;
 import ru.practicum.shareit.client.BaseClient;
+import ru.practicum.shareit.client.RequestCoalescer;
 import ru.practicum.shareit.user.dto.UserDto;
 
+
+@Profile("!reactive")
 @Service
 public class UserClient extends BaseClient {
-    private static final String API_PREFIX = "/users";
-
     @Autowired
-    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder) {
+    public UserClient(@Value("${shareit-server.url}") String serverUrl, RestTemplateBuilder builder,
+                      ClientHttpRequestFactory requestFactory, RequestCoalescer coalescer) {
         super(
                 builder
-                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + API_PREFIX))
-                        .requestFactory(HttpComponentsClientHttpRequestFactory::new)
-                        .build()
+                        .uriTemplateHandler(new DefaultUriBuilderFactory(serverUrl + UserPaths.API_PREFIX))
+                        .requestFactory(() -> requestFactory)
+                        .build(),
+                coalescer
         );
     }
 
     public ResponseEntity<Object> createUser(UserDto userDto) {
-        return post("", userDto);
+        return post(UserPaths.create(), null, userDto);
     }
 
     public ResponseEntity<Object> updateUser(Long userId, UserDto userDto) {
-        return patch("/" + userId, userDto);
+        return patch(UserPaths.byId(userId), null, userDto);
     }
 
     public ResponseEntity<Object> findUserById(Long userId) {
-        return get("/" + userId);
+        return get(UserPaths.byId(userId), null);
+    }
+
+    public ResponseEntity<Object> findAll(Integer from, String cursor, Integer size) {
+        return get(UserPaths.findAll(from, cursor, size), null);
     }
 
-    public ResponseEntity<Object> findAll() {
-        return get("/");
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        return stream(UserPaths.exportAll(), null, MediaType.APPLICATION_NDJSON);
     }
 
     public ResponseEntity<Object> deleteUser(Long userId) {
-        return delete("/" + userId);
+        return delete(UserPaths.byId(userId), null);
     }
 }
@@ -2,14 +2,20 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
+import javax.validation.constraints.Positive;
+import javax.validation.constraints.PositiveOrZero;
 
+@Profile("!reactive")
 @Controller
 @RequestMapping(path = "/users")
 @RequiredArgsConstructor
@@ -38,9 +44,18 @@ public class UserController {
     }
 
     @GetMapping
-    public ResponseEntity<Object> findAll() {
-        log.info("Get all users");
-        return userClient.findAll();
+    public ResponseEntity<Object> findAll(
+            @PositiveOrZero @RequestParam(name = "from", defaultValue = "0") Integer from,
+            @Positive @Max(100) @RequestParam(name = "size", defaultValue = "20") Integer size,
+            @RequestParam(name = "cursor", required = false) String cursor) {
+        log.info("Get users, from={}, cursor={}, size={}", from, cursor, size);
+        return userClient.findAll(from, cursor, size);
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        log.info("Export all users");
+        return userClient.exportAll();
     }
 
     @DeleteMapping("/{userId}")
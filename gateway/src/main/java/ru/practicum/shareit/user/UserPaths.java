@@ -0,0 +1,33 @@
+package ru.practicum.shareit.user;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.lang.Nullable;
+import ru.practicum.shareit.client.ServerPath;
+
+import java.util.Map;
+
+//Server endpoints of UserClient and ReactiveUserClient
+@UtilityClass
+class UserPaths {
+    static final String API_PREFIX = "/users";
+
+    static ServerPath create() {
+        return ServerPath.of("");
+    }
+
+    static ServerPath byId(Long userId) {
+        return ServerPath.of("/" + userId);
+    }
+
+    //a cursor continues from the previous page, the offset is not sent with it
+    static ServerPath findAll(Integer from, @Nullable String cursor, Integer size) {
+        if (cursor != null) {
+            return ServerPath.of("?cursor={cursor}&size={size}", Map.of("cursor", cursor, "size", size));
+        }
+        return ServerPath.of("?from={from}&size={size}", Map.of("from", from, "size", size));
+    }
+
+    static ServerPath exportAll() {
+        return ServerPath.of("/export");
+    }
+}
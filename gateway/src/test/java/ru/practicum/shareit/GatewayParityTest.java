@@ -0,0 +1,111 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import ru.practicum.shareit.booking.dto.BookingState;
+
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+//The same requests are sent to the servlet and the reactive gateway, both have to reject them the same way
+abstract class GatewayParityTest {
+    private static final String BOOKING = "{\"itemId\":1,\"start\":\"2100-01-01T10:00:00\",\"end\":\"2100-01-02T10:00:00\"}";
+
+    abstract WebTestClient client();
+
+    abstract void verifyNoClientCalls();
+
+    abstract void verifyBookerPage(long userId, BookingState state, Integer from, String cursor, Integer size);
+
+    abstract void verifyUserPage(Integer from, String cursor, Integer size);
+
+    static Stream<Arguments> invalidRequests() {
+        String overLimitBatch = IntStream.rangeClosed(1, 501)
+                .mapToObj(id -> "{\"bookingId\":" + id + ",\"approved\":true}")
+                .collect(Collectors.joining(",", "[", "]"));
+        return Stream.of(
+                Arguments.of("booking without user", HttpMethod.POST, "/bookings", BOOKING, false, null),
+                Arguments.of("booking end before start", HttpMethod.POST, "/bookings",
+                        "{\"itemId\":1,\"start\":\"2100-01-02T10:00:00\",\"end\":\"2100-01-01T10:00:00\"}", true, null),
+                Arguments.of("booking start in the past", HttpMethod.POST, "/bookings",
+                        "{\"itemId\":1,\"start\":\"2000-01-01T10:00:00\",\"end\":\"2100-01-01T10:00:00\"}", true, null),
+                Arguments.of("booking without item", HttpMethod.POST, "/bookings",
+                        "{\"start\":\"2100-01-01T10:00:00\",\"end\":\"2100-01-02T10:00:00\"}", true, null),
+                Arguments.of("booking malformed", HttpMethod.POST, "/bookings", "{\"itemId\":", true, null),
+                Arguments.of("empty batch", HttpMethod.PATCH, "/bookings/owner/batch", "[]", true, null),
+                Arguments.of("batch over limit", HttpMethod.PATCH, "/bookings/owner/batch", overLimitBatch, true,
+                        null),
+                Arguments.of("batch null decision", HttpMethod.PATCH, "/bookings/owner/batch", "[null]", true, null),
+                Arguments.of("batch decision without approval", HttpMethod.PATCH, "/bookings/owner/batch",
+                        "[{\"bookingId\":1}]", true, null),
+                Arguments.of("bookings unknown state", HttpMethod.GET, "/bookings?state=UNKNOWN", null, true,
+                        "Unknown state: UNKNOWN"),
+                Arguments.of("owner bookings unknown state", HttpMethod.GET, "/bookings/owner?state=UNKNOWN", null,
+                        true, "Unknown state: UNKNOWN"),
+                Arguments.of("owner bookings negative from", HttpMethod.GET, "/bookings/owner?from=-1", null, true,
+                        null),
+                Arguments.of("bookings zero size", HttpMethod.GET, "/bookings?size=0", null, true, null),
+                Arguments.of("search unknown sort", HttpMethod.GET, "/items/search?text=drill&sort=price", null, true,
+                        "Unknown sort: price"),
+                Arguments.of("search without text", HttpMethod.GET, "/items/search", null, true, null),
+                Arguments.of("search negative from", HttpMethod.GET, "/items/search?text=drill&from=-1", null, true,
+                        null),
+                Arguments.of("search zero size", HttpMethod.GET, "/items/search?text=drill&size=0", null, true, null),
+                Arguments.of("suggest over limit", HttpMethod.GET, "/items/suggest?prefix=dr&size=101", null, true,
+                        null),
+                Arguments.of("suggest without prefix", HttpMethod.GET, "/items/suggest", null, true, null),
+                Arguments.of("suggest zero size", HttpMethod.GET, "/items/suggest?prefix=dr&size=0", null, true, null),
+                Arguments.of("next free zero duration", HttpMethod.GET, "/items/1/next-free?duration=PT0S", null,
+                        true, null),
+                Arguments.of("next free duration over limit", HttpMethod.GET, "/items/1/next-free?duration=P367D",
+                        null, true, null),
+                Arguments.of("next free duration of centuries", HttpMethod.GET,
+                        "/items/1/next-free?duration=P1000000D", null, true, null),
+                Arguments.of("users over limit", HttpMethod.GET, "/users?size=101", null, false, null),
+                Arguments.of("users negative from", HttpMethod.GET, "/users?from=-1", null, false, null),
+                Arguments.of("users zero size", HttpMethod.GET, "/users?size=0", null, false, null),
+                Arguments.of("users from not a number", HttpMethod.GET, "/users?from=abc", null, false, null)
+        );
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("invalidRequests")
+    void invalidRequestTest(String name, HttpMethod method, String uri, String body, boolean withUser,
+                            String error) {
+        WebTestClient.RequestBodySpec request = client().method(method).uri(uri);
+        if (withUser) {
+            request.header("X-Sharer-User-Id", "1");
+        }
+        if (body != null) {
+            request.contentType(MediaType.APPLICATION_JSON).bodyValue(body);
+        }
+        WebTestClient.ResponseSpec response = request.exchange().expectStatus().isBadRequest();
+        if (error != null) {
+            response.expectBody().jsonPath("$.error").isEqualTo(error);
+        }
+        verifyNoClientCalls();
+    }
+
+    @Test
+    void bookerPageByCursorTest() {
+        client().get().uri("/bookings?state=waiting&from=10&cursor=abc&size=5")
+                .header("X-Sharer-User-Id", "1")
+                .exchange()
+                .expectStatus().isOk();
+        verifyBookerPage(1L, BookingState.WAITING, 10, "abc", 5);
+    }
+
+    @Test
+    void userPageByOffsetTest() {
+        client().get().uri("/users?from=40")
+                .exchange()
+                .expectStatus().isOk();
+        verifyUserPage(40, null, 20);
+    }
+}
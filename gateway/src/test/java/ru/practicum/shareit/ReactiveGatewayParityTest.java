@@ -0,0 +1,59 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.reactive.WebFluxTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Mono;
+import ru.practicum.shareit.booking.ReactiveBookingClient;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.item.ReactiveItemClient;
+import ru.practicum.shareit.request.ReactiveItemRequestClient;
+import ru.practicum.shareit.user.ReactiveUserClient;
+
+@WebFluxTest
+@ActiveProfiles("reactive")
+class ReactiveGatewayParityTest extends GatewayParityTest {
+    @MockBean
+    private ReactiveBookingClient bookingClient;
+    @MockBean
+    private ReactiveItemClient itemClient;
+    @MockBean
+    private ReactiveUserClient userClient;
+    @MockBean
+    private ReactiveItemRequestClient itemRequestClient;
+    @Autowired
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(bookingClient.findBookingByBooker(Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(Mono.just(ResponseEntity.ok().build()));
+        Mockito.when(userClient.findAll(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(Mono.just(ResponseEntity.ok().build()));
+    }
+
+    @Override
+    WebTestClient client() {
+        return webTestClient;
+    }
+
+    @Override
+    void verifyNoClientCalls() {
+        Mockito.verifyNoInteractions(bookingClient, itemClient, userClient, itemRequestClient);
+    }
+
+    @Override
+    void verifyBookerPage(long userId, BookingState state, Integer from, String cursor, Integer size) {
+        Mockito.verify(bookingClient, Mockito.times(1)).findBookingByBooker(userId, state, from, cursor, size);
+    }
+
+    @Override
+    void verifyUserPage(Integer from, String cursor, Integer size) {
+        Mockito.verify(userClient, Mockito.times(1)).findAll(from, cursor, size);
+    }
+}
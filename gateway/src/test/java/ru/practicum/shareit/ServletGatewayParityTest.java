@@ -0,0 +1,58 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.client.MockMvcWebTestClient;
+import ru.practicum.shareit.booking.BookingClient;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.item.ItemClient;
+import ru.practicum.shareit.request.ItemRequestClient;
+import ru.practicum.shareit.user.UserClient;
+
+@WebMvcTest
+class ServletGatewayParityTest extends GatewayParityTest {
+    @MockBean
+    private BookingClient bookingClient;
+    @MockBean
+    private ItemClient itemClient;
+    @MockBean
+    private UserClient userClient;
+    @MockBean
+    private ItemRequestClient itemRequestClient;
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        Mockito.when(bookingClient.findBookingByBooker(Mockito.anyLong(), Mockito.any(), Mockito.any(),
+                Mockito.any(), Mockito.any())).thenReturn(ResponseEntity.ok().build());
+        Mockito.when(userClient.findAll(Mockito.any(), Mockito.any(), Mockito.any()))
+                .thenReturn(ResponseEntity.ok().build());
+    }
+
+    @Override
+    WebTestClient client() {
+        return MockMvcWebTestClient.bindTo(mockMvc).build();
+    }
+
+    @Override
+    void verifyNoClientCalls() {
+        Mockito.verifyNoInteractions(bookingClient, itemClient, userClient, itemRequestClient);
+    }
+
+    @Override
+    void verifyBookerPage(long userId, BookingState state, Integer from, String cursor, Integer size) {
+        Mockito.verify(bookingClient, Mockito.times(1)).findBookingByBooker(userId, state, from, cursor, size);
+    }
+
+    @Override
+    void verifyUserPage(Integer from, String cursor, Integer size) {
+        Mockito.verify(userClient, Mockito.times(1)).findAll(from, cursor, size);
+    }
+}
@@ -0,0 +1,107 @@
+package ru.practicum.shareit.bench;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+//Closed-loop load: every client sends a GET as soon as the previous one completes,
+//each run is measured for the given seconds after a warm-up of a third of that
+//clients run on virtual threads on JDK 21+, on platform threads before that
+//Usage: mvn -pl gateway test-compile, then
+//java -cp gateway/target/test-classes ru.practicum.shareit.bench.GatewayLoad http://localhost:8080/items/1 1 60 1000 2500
+public class GatewayLoad {
+    public static void main(String[] args) throws Exception {
+        URI uri = URI.create(args[0]);
+        String userId = args[1];
+        Duration duration = Duration.ofSeconds(Long.parseLong(args[2]));
+        System.out.printf("%8s %10s %10s %10s %10s %8s%n", "clients", "req/s", "p50 ms", "p99 ms", "max ms", "errors");
+        for (int i = 3; i < args.length; i++) {
+            run(uri, userId, duration, Integer.parseInt(args[i]));
+        }
+    }
+
+    private static void run(URI uri, String userId, Duration duration, int clients) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(30))
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(uri)
+                .header("X-Sharer-User-Id", userId)
+                .timeout(Duration.ofSeconds(60))
+                .build();
+        Map<String, LongAdder> errors = new ConcurrentHashMap<>();
+        List<long[]> samples = new CopyOnWriteArrayList<>();
+        long warmUpEnd = System.nanoTime() + duration.toNanos() / 3;
+        long end = warmUpEnd + duration.toNanos();
+        ExecutorService executor = newClientExecutor();
+        try {
+            for (int c = 0; c < clients; c++) {
+                executor.submit(() -> {
+                    long[] latencies = new long[64];
+                    int count = 0;
+                    while (System.nanoTime() < end) {
+                        long start = System.nanoTime();
+                        String error;
+                        try {
+                            int status = client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+                            error = status == 200 ? null : "HTTP " + status;
+                        } catch (Exception e) {
+                            error = e.getClass().getSimpleName();
+                        }
+                        long finish = System.nanoTime();
+                        if (finish < warmUpEnd || finish > end) {
+                            continue;
+                        }
+                        if (error != null) {
+                            errors.computeIfAbsent(error, k -> new LongAdder()).increment();
+                            continue;
+                        }
+                        if (count == latencies.length) {
+                            latencies = Arrays.copyOf(latencies, count * 2);
+                        }
+                        latencies[count++] = finish - start;
+                    }
+                    samples.add(Arrays.copyOf(latencies, count));
+                    return null;
+                });
+            }
+        } finally {
+            executor.shutdown();
+        }
+        //clients stop at the end of the run, a request still in flight gives up after its 60s timeout
+        executor.awaitTermination(duration.toNanos() + TimeUnit.SECONDS.toNanos(90), TimeUnit.NANOSECONDS);
+        long[] all = samples.stream().flatMapToLong(Arrays::stream).sorted().toArray();
+        double seconds = duration.toNanos() / 1e9;
+        System.out.printf("%8d %10.0f %10.1f %10.1f %10.1f %8d%n", clients, all.length / seconds,
+                percentile(all, 0.50), percentile(all, 0.99), percentile(all, 1.0),
+                errors.values().stream().mapToLong(LongAdder::sum).sum());
+        errors.forEach((error, count) -> System.out.printf("%8s %s x%d%n", "", error, count.sum()));
+    }
+
+    //the code is compiled for Java 11, the executor factory only exists on 21+
+    private static ExecutorService newClientExecutor() throws ReflectiveOperationException {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (NoSuchMethodException e) {
+            return Executors.newCachedThreadPool();
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return Double.NaN;
+        }
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(sorted.length * p) - 1)] / 1e6;
+    }
+}
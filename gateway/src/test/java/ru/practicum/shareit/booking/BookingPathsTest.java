@@ -0,0 +1,31 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.dto.BookingState;
+import ru.practicum.shareit.client.ServerPath;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingPathsTest {
+    @Test
+    void findByBookerOffsetTest() {
+        assertEquals(ServerPath.of("?state={state}&from={from}&size={size}",
+                        Map.of("state", "ALL", "from", 20, "size", 10)),
+                BookingPaths.findByBooker(BookingState.ALL, 20, null, 10));
+    }
+
+    @Test
+    void findByOwnerCursorTest() {
+        assertEquals(ServerPath.of("/owner?state={state}&cursor={cursor}&size={size}",
+                        Map.of("state", "WAITING", "cursor", "abc", "size", 10)),
+                BookingPaths.findByOwner(BookingState.WAITING, 20, "abc", 10));
+    }
+
+    @Test
+    void parseStateTest() {
+        assertEquals(BookingState.CURRENT, BookingState.parse("current"));
+        assertThrows(IllegalArgumentException.class, () -> BookingState.parse("UNSUPPORTED_STATUS"));
+    }
+}
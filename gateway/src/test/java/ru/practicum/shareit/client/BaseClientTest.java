@@ -0,0 +1,170 @@
+package ru.practicum.shareit.client;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.ClientHttpRequest;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.test.web.client.match.MockRestRequestMatchers;
+import org.springframework.test.web.client.response.MockRestResponseCreators;
+import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BaseClientTest {
+    private ClientHttpResponse mockResponse;
+    private ServletRequestAttributes attributes;
+    private BaseClient client;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        mockResponse = Mockito.mock(ClientHttpResponse.class);
+        Mockito.when(mockResponse.getStatusCode()).thenReturn(HttpStatus.OK);
+        Mockito.when(mockResponse.getHeaders()).thenReturn(new HttpHeaders());
+        Mockito.when(mockResponse.getBody())
+                .thenReturn(new ByteArrayInputStream("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8)));
+        ClientHttpRequest mockRequest = Mockito.mock(ClientHttpRequest.class);
+        Mockito.when(mockRequest.getHeaders()).thenReturn(new HttpHeaders());
+        Mockito.when(mockRequest.execute()).thenReturn(mockResponse);
+        ClientHttpRequestFactory mockFactory = Mockito.mock(ClientHttpRequestFactory.class);
+        Mockito.when(mockFactory.createRequest(URI.create("http://server/export"), HttpMethod.GET))
+                .thenReturn(mockRequest);
+        RestTemplate rest = restTemplate();
+        rest.setRequestFactory(mockFactory);
+        client = new BaseClient(rest, new RequestCoalescer("test"));
+        attributes = new ServletRequestAttributes(new MockHttpServletRequest());
+        RequestContextHolder.setRequestAttributes(attributes);
+    }
+
+    @Test
+    void relayHeadersHopByHopTest() {
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.setContentType(MediaType.APPLICATION_JSON);
+        serverHeaders.set(HttpHeaders.CONNECTION, "keep-alive, X-Trace");
+        serverHeaders.set("Keep-Alive", "timeout=60");
+        serverHeaders.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        serverHeaders.set("x-trace", "abc");
+        serverHeaders.set("X-Total-Count", "3");
+        HttpHeaders headers = BaseClient.relayHeaders(serverHeaders);
+        assertEquals(MediaType.APPLICATION_JSON, headers.getContentType());
+        assertEquals("3", headers.getFirst("X-Total-Count"));
+        assertEquals(2, headers.size());
+    }
+
+    @Test
+    void relayHeadersNullTest() {
+        assertTrue(BaseClient.relayHeaders(null).isEmpty());
+    }
+
+    @Test
+    void prepareGatewayResponseTest() {
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.setContentType(MediaType.APPLICATION_JSON);
+        serverHeaders.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        byte[] body = "[]".getBytes(StandardCharsets.UTF_8);
+        ResponseEntity<Object> response = BaseClient.prepareGatewayResponse(
+                new ResponseEntity<>(body, serverHeaders, HttpStatus.OK));
+        assertEquals(HttpStatus.OK, response.getStatusCode());
+        assertSame(body, response.getBody());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertNull(response.getHeaders().get(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    void errorKeepsContentTypeTest() {
+        HttpHeaders serverHeaders = new HttpHeaders();
+        serverHeaders.setConnection("close");
+        RestTemplate rest = restTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        server.expect(MockRestRequestMatchers.requestTo("http://server/items/1"))
+                .andExpect(MockRestRequestMatchers.header("X-Sharer-User-Id", "2"))
+                .andRespond(MockRestResponseCreators.withStatus(HttpStatus.NOT_FOUND)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .headers(serverHeaders)
+                        .body("{\"error\":\"Item id: 1 not found\"}"));
+        ResponseEntity<Object> response = new BaseClient(rest, new RequestCoalescer("test")).get("/items/1", 2L);
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertEquals(MediaType.APPLICATION_JSON, response.getHeaders().getContentType());
+        assertNull(response.getHeaders().get(HttpHeaders.CONNECTION));
+        assertEquals("{\"error\":\"Item id: 1 not found\"}",
+                new String((byte[]) response.getBody(), StandardCharsets.UTF_8));
+        server.verify();
+    }
+
+    @Test
+    void noContentTest() {
+        RestTemplate rest = restTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        server.expect(MockRestRequestMatchers.requestTo("http://server/users/1"))
+                .andExpect(MockRestRequestMatchers.method(HttpMethod.DELETE))
+                .andRespond(MockRestResponseCreators.withNoContent());
+        ResponseEntity<Object> response = new BaseClient(rest, new RequestCoalescer("test")).delete("/users/1");
+        assertEquals(HttpStatus.NO_CONTENT, response.getStatusCode());
+        assertFalse(response.hasBody());
+        server.verify();
+    }
+
+    @Test
+    void writeCompletedOnFailedWriteTest() {
+        RestTemplate rest = restTemplate();
+        MockRestServiceServer server = MockRestServiceServer.bindTo(rest).build();
+        server.expect(MockRestRequestMatchers.requestTo("http://server/items/1"))
+                .andExpect(MockRestRequestMatchers.method(HttpMethod.PATCH))
+                .andRespond(MockRestResponseCreators.withServerError());
+        RequestCoalescer coalescer = Mockito.spy(new RequestCoalescer("test"));
+        new BaseClient(rest, coalescer).patch("/items/1", 2L, "{}");
+        Mockito.verify(coalescer).writeCompleted();
+        server.verify();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void streamTest() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = client.stream("/export", 1L, MediaType.APPLICATION_NDJSON);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        attributes.requestCompleted();
+        assertEquals("{\"id\":1}\n", out.toString(StandardCharsets.UTF_8));
+        Mockito.verify(mockResponse, Mockito.times(1)).close();
+    }
+
+    @Test
+    void streamBodyNeverRunTest() throws Exception {
+        ResponseEntity<StreamingResponseBody> response = client.stream("/export", 1L, MediaType.APPLICATION_NDJSON);
+        Mockito.verify(mockResponse, Mockito.never()).close();
+        attributes.requestCompleted();
+        Mockito.verify(mockResponse, Mockito.times(1)).close();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        assertEquals(0, out.size());
+        Mockito.verify(mockResponse, Mockito.times(1)).close();
+    }
+
+    private static RestTemplate restTemplate() {
+        RestTemplate rest = new RestTemplate();
+        rest.setUriTemplateHandler(new DefaultUriBuilderFactory("http://server"));
+        return rest;
+    }
+}
@@ -0,0 +1,40 @@
+package ru.practicum.shareit.client;
+
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.HttpVersion;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.protocol.BasicHttpContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpClientConfigTest {
+    private final ConnectionKeepAliveStrategy strategy = HttpClientConfig.keepAliveStrategy(Duration.ofSeconds(15));
+
+    @Test
+    void keepAliveServerShorterTest() {
+        assertEquals(5_000L, strategy.getKeepAliveDuration(response("timeout=5"), new BasicHttpContext()));
+    }
+
+    @Test
+    void keepAliveServerLongerTest() {
+        assertEquals(15_000L, strategy.getKeepAliveDuration(response("timeout=60"), new BasicHttpContext()));
+    }
+
+    @Test
+    void keepAliveNotSentTest() {
+        assertEquals(15_000L, strategy.getKeepAliveDuration(response(null), new BasicHttpContext()));
+    }
+
+    private static HttpResponse response(String keepAlive) {
+        HttpResponse response = new BasicHttpResponse(HttpVersion.HTTP_1_1, HttpStatus.SC_OK, "OK");
+        if (keepAlive != null) {
+            response.setHeader("Keep-Alive", keepAlive);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,196 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+    private static final String KEY = "GET /items/1 2";
+    private static final int WAITERS = 5;
+
+    private SimpleMeterRegistry registry;
+    private RequestCoalescer coalescer;
+    private ExecutorService executor;
+    private CountDownLatch started;
+    private CountDownLatch release;
+    private AtomicInteger calls;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        coalescer = new RequestCoalescer("shareit-server");
+        coalescer.bindTo(registry);
+        executor = Executors.newCachedThreadPool();
+        started = new CountDownLatch(1);
+        release = new CountDownLatch(1);
+        calls = new AtomicInteger();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void waitersShareLeaderResponseTest() throws Exception {
+        ResponseEntity<Object> response = ResponseEntity.ok("item");
+        CompletableFuture<ResponseEntity<Object>> leader = execute(blockedCall(() -> response));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        List<CompletableFuture<ResponseEntity<Object>>> waiters = attachWaiters();
+        release.countDown();
+
+        assertSame(response, leader.get(1, TimeUnit.SECONDS));
+        for (CompletableFuture<ResponseEntity<Object>> waiter : waiters) {
+            assertSame(response, waiter.get(1, TimeUnit.SECONDS));
+        }
+        assertEquals(1, calls.get());
+        assertEquals(1.0, count("sent"));
+        assertEquals(WAITERS, count("attached"));
+    }
+
+    @Test
+    void waitersGetLeaderExceptionTest() throws Exception {
+        IllegalStateException failure = new IllegalStateException("server unavailable");
+        CompletableFuture<ResponseEntity<Object>> leader = execute(blockedCall(() -> {
+            throw failure;
+        }));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        List<CompletableFuture<ResponseEntity<Object>>> waiters = attachWaiters();
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(1, TimeUnit.SECONDS)).getCause());
+        for (CompletableFuture<ResponseEntity<Object>> waiter : waiters) {
+            assertSame(failure,
+                    assertThrows(ExecutionException.class, () -> waiter.get(1, TimeUnit.SECONDS)).getCause());
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void keyRemovedAfterSuccessTest() {
+        coalescer.execute(KEY, () -> ResponseEntity.ok("first"));
+        assertEquals(0, coalescer.inFlight());
+        assertEquals("second", coalescer.execute(KEY, () -> ResponseEntity.ok("second")).getBody());
+        assertEquals(2.0, count("sent"));
+        assertEquals(0.0, count("attached"));
+    }
+
+    @Test
+    void keyRemovedAfterFailureTest() {
+        assertThrows(IllegalStateException.class, () -> coalescer.execute(KEY, () -> {
+            throw new IllegalStateException("server unavailable");
+        }));
+        assertEquals(0, coalescer.inFlight());
+        assertEquals("second", coalescer.execute(KEY, () -> ResponseEntity.ok("second")).getBody());
+    }
+
+    @Test
+    void requestAfterWriteNotAttachedToEarlierFlightTest() throws Exception {
+        CompletableFuture<ResponseEntity<Object>> leader = execute(blockedCall(() -> ResponseEntity.ok("before")));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+        coalescer.writeCompleted();
+
+        //sent on its own although the earlier flight is still running, and later requests attach to it
+        CountDownLatch afterStarted = new CountDownLatch(1);
+        CountDownLatch afterRelease = new CountDownLatch(1);
+        CompletableFuture<ResponseEntity<Object>> after = execute(() -> {
+            afterStarted.countDown();
+            await(afterRelease);
+            return ResponseEntity.ok("after");
+        });
+        assertTrue(afterStarted.await(1, TimeUnit.SECONDS));
+        CompletableFuture<ResponseEntity<Object>> attached = execute(() -> ResponseEntity.ok("unexpected"));
+        awaitAttached(1);
+        release.countDown();
+        afterRelease.countDown();
+
+        assertEquals("before", leader.get(1, TimeUnit.SECONDS).getBody());
+        assertEquals("after", after.get(1, TimeUnit.SECONDS).getBody());
+        assertEquals("after", attached.get(1, TimeUnit.SECONDS).getBody());
+        assertEquals(2.0, count("sent"));
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    @Test
+    void requestBeforeWriteAttachedToLaterFlightTest() throws Exception {
+        coalescer.writeCompleted();
+        ResponseEntity<Object> response = ResponseEntity.ok("after");
+        CompletableFuture<ResponseEntity<Object>> leader = execute(blockedCall(() -> response));
+        assertTrue(started.await(1, TimeUnit.SECONDS));
+
+        //read the write count before the write, found the flight sent after it
+        CompletableFuture<ResponseEntity<Object>> older = CompletableFuture.supplyAsync(
+                () -> coalescer.execute(KEY, 0, () -> ResponseEntity.ok("unexpected")), executor);
+        awaitAttached(1);
+        CompletableFuture<ResponseEntity<Object>> later = execute(() -> ResponseEntity.ok("unexpected"));
+        awaitAttached(2);
+        release.countDown();
+
+        assertSame(response, leader.get(1, TimeUnit.SECONDS));
+        assertSame(response, older.get(1, TimeUnit.SECONDS));
+        assertSame(response, later.get(1, TimeUnit.SECONDS));
+        assertEquals(1, calls.get());
+        assertEquals(1.0, count("sent"));
+        assertEquals(0, coalescer.inFlight());
+    }
+
+    private List<CompletableFuture<ResponseEntity<Object>>> attachWaiters() throws InterruptedException {
+        List<CompletableFuture<ResponseEntity<Object>>> waiters = new ArrayList<>();
+        for (int i = 0; i < WAITERS; i++) {
+            waiters.add(execute(() -> ResponseEntity.ok("unexpected")));
+        }
+        awaitAttached(WAITERS);
+        return waiters;
+    }
+
+    //the counter is incremented right before a request waits for the flight it attached to
+    private void awaitAttached(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (count("attached") < expected && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertEquals(expected, count("attached"));
+    }
+
+    private Supplier<ResponseEntity<Object>> blockedCall(Supplier<ResponseEntity<Object>> result) {
+        return () -> {
+            calls.incrementAndGet();
+            started.countDown();
+            await(release);
+            return result.get();
+        };
+    }
+
+    private CompletableFuture<ResponseEntity<Object>> execute(Supplier<ResponseEntity<Object>> call) {
+        return CompletableFuture.supplyAsync(() -> coalescer.execute(KEY, call), executor);
+    }
+
+    private double count(String result) {
+        return registry.get("shareit.gateway.requests.coalesced")
+                .tag("httpclient", "shareit-server").tag("result", result).counter().count();
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertTrue(latch.await(1, TimeUnit.SECONDS));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.client;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpHost;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TimedConnectionManagerTest {
+    private static final HttpRoute ROUTE = new HttpRoute(new HttpHost("localhost", 9090));
+
+    private SimpleMeterRegistry registry;
+    private TimedConnectionManager connectionManager;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        connectionManager = new TimedConnectionManager("shareit-server", 2, 1, true);
+        connectionManager.bindTo(registry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        connectionManager.close();
+    }
+
+    @Test
+    void leaseTimerTest() throws Exception {
+        HttpClientConnection connection = connectionManager.requestConnection(ROUTE, null).get(1, TimeUnit.SECONDS);
+        assertEquals(1L, leaseTimer().count());
+        connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+        connectionManager.requestConnection(ROUTE, null).get(1, TimeUnit.SECONDS);
+        assertEquals(2L, leaseTimer().count());
+    }
+
+    @Test
+    void leaseTimerTimeoutTest() throws Exception {
+        connectionManager.requestConnection(ROUTE, null).get(1, TimeUnit.SECONDS);
+        assertThrows(ConnectionPoolTimeoutException.class,
+                () -> connectionManager.requestConnection(ROUTE, null).get(50, TimeUnit.MILLISECONDS));
+        assertEquals(2L, leaseTimer().count());
+        assertTrue(leaseTimer().max(TimeUnit.MILLISECONDS) >= 50);
+    }
+
+    @Test
+    void poolMetricsTest() throws Exception {
+        connectionManager.requestConnection(ROUTE, null).get(1, TimeUnit.SECONDS);
+        assertEquals(1.0, registry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "shareit-server").tag("state", "leased").gauge().value());
+    }
+
+    @Test
+    void doubleReleaseReturnsOnePermitTest() throws Exception {
+        HttpClientConnection connection = connectionManager.requestConnection(ROUTE, null).get(1, TimeUnit.SECONDS);
+        assertEquals(0, connectionManager.availablePermits());
+        connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+        connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+        assertEquals(1, connectionManager.availablePermits());
+    }
+
+    @Test
+    void failedGetReturnsPermitTest() {
+        ConnectionRequest request = connectionManager.requestConnection(ROUTE, null);
+        request.cancel();
+        assertThrows(ExecutionException.class, () -> request.get(1, TimeUnit.SECONDS));
+        assertEquals(1, connectionManager.availablePermits());
+    }
+
+    @Test
+    void timeoutKeepsPermitsTest() throws Exception {
+        HttpClientConnection connection = connectionManager.requestConnection(ROUTE, null).get(1, TimeUnit.SECONDS);
+        assertThrows(ConnectionPoolTimeoutException.class,
+                () -> connectionManager.requestConnection(ROUTE, null).get(50, TimeUnit.MILLISECONDS));
+        assertEquals(0, connectionManager.availablePermits());
+        connectionManager.releaseConnection(connection, null, 0, TimeUnit.MILLISECONDS);
+        assertEquals(1, connectionManager.availablePermits());
+    }
+
+    @Test
+    void timeoutCoversPermitAndPoolWaitTest() throws Exception {
+        //two permits but one connection, so the second request gets a permit and waits in the pool
+        TimedConnectionManager manager = new TimedConnectionManager("shareit-server", 2, 2, true);
+        manager.setMaxPerRoute(ROUTE, 1);
+        try {
+            manager.requestConnection(ROUTE, null).get(1, TimeUnit.SECONDS);
+            CompletableFuture<Void> inPool = CompletableFuture.runAsync(() -> assertThrows(
+                    ConnectionPoolTimeoutException.class,
+                    () -> manager.requestConnection(ROUTE, null).get(300, TimeUnit.MILLISECONDS)));
+            Thread.sleep(50);
+            long start = System.nanoTime();
+            assertThrows(ConnectionPoolTimeoutException.class,
+                    () -> manager.requestConnection(ROUTE, null).get(300, TimeUnit.MILLISECONDS));
+            long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            inPool.get(1, TimeUnit.SECONDS);
+            //the permit came free after about 250ms, only the rest of the timeout is left for the pool
+            assertTrue(waitedMillis < 450, "waited " + waitedMillis + "ms");
+            assertEquals(1, manager.availablePermits());
+        } finally {
+            manager.close();
+        }
+    }
+
+    @Test
+    void leakedConnectionPermitReclaimedTest() throws Exception {
+        leaseAndDrop();
+        assertEquals(0, connectionManager.availablePermits());
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (connectionManager.availablePermits() == 0 && System.nanoTime() < deadline) {
+            System.gc();
+            Thread.sleep(20);
+        }
+        assertEquals(1, connectionManager.availablePermits());
+    }
+
+    @Test
+    void platformThreadsWaitInPoolTest() throws Exception {
+        TimedConnectionManager manager = new TimedConnectionManager("shareit-server", 2, 1, false);
+        SimpleMeterRegistry plainRegistry = new SimpleMeterRegistry();
+        manager.bindTo(plainRegistry);
+        try {
+            manager.requestConnection(ROUTE, null).get(1, TimeUnit.SECONDS);
+            assertThrows(ConnectionPoolTimeoutException.class,
+                    () -> manager.requestConnection(ROUTE, null).get(50, TimeUnit.MILLISECONDS));
+            assertEquals(-1, manager.availablePermits());
+            assertNull(plainRegistry.find("httpcomponents.httpclient.pool.lease.waiting").gauge());
+            assertEquals(2L, plainRegistry.get("httpcomponents.httpclient.pool.lease").timer().count());
+        } finally {
+            manager.close();
+        }
+    }
+
+    private void leaseAndDrop() throws Exception {
+        connectionManager.requestConnection(ROUTE, null).get(1, TimeUnit.SECONDS);
+    }
+
+    private Timer leaseTimer() {
+        return registry.get("httpcomponents.httpclient.pool.lease").tag("httpclient", "shareit-server").timer();
+    }
+}
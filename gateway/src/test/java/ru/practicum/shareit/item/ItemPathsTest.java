@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.client.ServerPath;
+import ru.practicum.shareit.item.dto.ItemSearchSort;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemPathsTest {
+    @Test
+    void searchTest() {
+        assertEquals(ServerPath.of("/search?text={text}&sort={sort}&from={from}&size={size}",
+                        Map.of("text", "drill", "sort", "RELEVANCE", "from", 0, "size", 20)),
+                ItemPaths.search("drill", ItemSearchSort.parse("relevance"), 0, 20));
+    }
+
+    @Test
+    void suggestCacheKeyTest() {
+        assertEquals(ItemPaths.suggestCacheKey("dri", 10), ItemPaths.suggestCacheKey("DRI", 10));
+        assertNotEquals(ItemPaths.suggestCacheKey("dri", 10), ItemPaths.suggestCacheKey("dri", 5));
+    }
+
+    @Test
+    void nextFreeSlotTest() {
+        LocalDateTime from = LocalDateTime.of(2100, 1, 1, 10, 0);
+        assertEquals(ServerPath.of("/1/next-free?duration={duration}", Map.of("duration", Duration.ofHours(2))),
+                ItemPaths.nextFreeSlot(1L, Duration.ofHours(2), null));
+        assertEquals(ServerPath.of("/1/next-free?duration={duration}&from={from}",
+                        Map.of("duration", Duration.ofHours(2), "from", from)),
+                ItemPaths.nextFreeSlot(1L, Duration.ofHours(2), from));
+    }
+
+    @Test
+    void parseSortTest() {
+        assertThrows(IllegalArgumentException.class, () -> ItemSearchSort.parse("price"));
+    }
+}
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.client.ServerPath;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserPathsTest {
+    @Test
+    void findAllOffsetTest() {
+        assertEquals(ServerPath.of("?from={from}&size={size}", Map.of("from", 0, "size", 20)),
+                UserPaths.findAll(0, null, 20));
+    }
+
+    @Test
+    void findAllCursorTest() {
+        assertEquals(ServerPath.of("?cursor={cursor}&size={size}", Map.of("cursor", "abc", "size", 20)),
+                UserPaths.findAll(40, "abc", 20));
+    }
+}
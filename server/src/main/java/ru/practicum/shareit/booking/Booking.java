@@ -28,14 +28,18 @@ public class Booking {
     @Column(name = "end_date")
     LocalDateTime end;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", referencedColumnName = "id")
     Item item;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "booker_id", referencedColumnName = "id")
     User booker;
 
+    //copy of the item owner, kept in sync by the foreign key on (item_id, owner_id)
+    @Column(name = "owner_id")
+    Long ownerId;
+
     @Column(name = "status")
     @Enumerated(EnumType.STRING)
     BookingStatus status;
@@ -1,9 +1,17 @@
 package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoCreate;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.common.PageCursor;
 
 
 import java.util.List;
@@ -23,6 +31,16 @@ public class BookingController {
         return BookingMapper.toBookingDto(bookingService.create(booking, userId));
     }
 
+    @GetMapping("/summary")
+    BookingSummaryDto findBookerSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.findBookerSummary(userId);
+    }
+
+    @GetMapping("/owner/summary")
+    BookingSummaryDto findOwnerSummary(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return bookingService.findOwnerSummary(userId);
+    }
+
     @GetMapping("/{bookingId}")
     BookingDto find(@PathVariable Long bookingId,
                     @RequestHeader("X-Sharer-User-Id") Long userId) {
@@ -30,33 +48,62 @@ public class BookingController {
     }
 
     @GetMapping
-    public List<BookingDto> findByBooker(
+    public ResponseEntity<List<BookingDto>> findByBooker(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String status,
             @RequestParam Optional<Integer> from,
-            @RequestParam Optional<Integer> size) {
+            @RequestParam Optional<Integer> size,
+            @RequestParam Optional<String> cursor) {
 
-        return bookingService.findByBooker(userId, status, from.orElse(0), size.orElse(20)).stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        int pageSize = size.orElse(20);
+        List<BookingView> bookings = cursor.isPresent()
+                ? bookingService.findByBooker(userId, status, BookingCursor.decode(cursor.get()), pageSize)
+                : bookingService.findByBooker(userId, status, from.orElse(0), pageSize);
+        return toPageResponse(bookings, pageSize);
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> findByOwner(
+    public ResponseEntity<List<BookingDto>> findByOwner(
             @RequestHeader("X-Sharer-User-Id") Long userId,
             @RequestParam(value = "state", required = false, defaultValue = "ALL") String status,
             @RequestParam Optional<Integer> from,
-            @RequestParam Optional<Integer> size) {
+            @RequestParam Optional<Integer> size,
+            @RequestParam Optional<String> cursor) {
 
-        return bookingService.findByOwner(userId, status, from.orElse(0), size.orElse(20)).stream()
-                .map(BookingMapper::toBookingDto)
-                .collect(Collectors.toList());
+        int pageSize = size.orElse(20);
+        List<BookingView> bookings = cursor.isPresent()
+                ? bookingService.findByOwner(userId, status, BookingCursor.decode(cursor.get()), pageSize)
+                : bookingService.findByOwner(userId, status, from.orElse(0), pageSize);
+        return toPageResponse(bookings, pageSize);
+    }
+
+    @GetMapping("/owner/export")
+    public ResponseEntity<StreamingResponseBody> exportByOwner(@RequestHeader("X-Sharer-User-Id") Long userId) {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(bookingService.exportByOwner(userId));
     }
 
     @PatchMapping(path = "/{bookingId}")
     public BookingDto updateState(@RequestHeader("X-Sharer-User-Id") Long userId,
                                   @PathVariable("bookingId") Long bookingId,
                                   @RequestParam("approved") Boolean approved) {
-        return BookingMapper.toBookingDto(bookingService.updateStatus(bookingId, userId, approved));
+        return bookingService.updateStatus(bookingId, userId, approved);
+    }
+
+    @PatchMapping(path = "/owner/batch")
+    public List<BookingDecisionResultDto> updateStates(@RequestHeader("X-Sharer-User-Id") Long userId,
+                                                       @RequestBody List<BookingDecisionDto> decisions) {
+        return bookingService.updateStatuses(userId, decisions);
+    }
+
+    private static ResponseEntity<List<BookingDto>> toPageResponse(List<BookingView> bookings, int size) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!bookings.isEmpty() && bookings.size() == size) {
+            response.header(PageCursor.HEADER, BookingCursor.of(bookings.get(bookings.size() - 1)).encode());
+        }
+        return response.body(bookings.stream()
+                .map(BookingMapper::toBookingDto)
+                .collect(Collectors.toList()));
     }
 }
@@ -0,0 +1,34 @@
+package ru.practicum.shareit.booking;
+
+import lombok.AccessLevel;
+import lombok.Value;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.common.PageCursor;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+
+@Value
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class BookingCursor {
+    LocalDateTime start;
+    Long id;
+
+    public static BookingCursor of(BookingView booking) {
+        return new BookingCursor(booking.getStartDate(), booking.getId());
+    }
+
+    public static BookingCursor decode(String cursor) {
+        String[] parts = PageCursor.decode(cursor, 2);
+        try {
+            return new BookingCursor(LocalDateTime.parse(parts[0]), Long.valueOf(parts[1]));
+        } catch (DateTimeParseException | NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return PageCursor.encode(start.toString(), id.toString());
+    }
+}
@@ -0,0 +1,33 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.NdjsonWriter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+//Writes bookings as newline-delimited JSON while the rows are read from a database cursor. Rows are projections,
+//so nothing is kept in the persistence context and memory does not grow with the number of bookings.
+@Component
+public class BookingExporter {
+    private final BookingRepository bookingRepository;
+    private final NdjsonWriter<BookingDto> writer;
+
+    public BookingExporter(BookingRepository bookingRepository, ObjectMapper objectMapper) {
+        this.bookingRepository = bookingRepository;
+        this.writer = new NdjsonWriter<>(objectMapper, BookingDto.class);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportByOwner(Long ownerId, OutputStream out) throws IOException {
+        try (Stream<BookingView> bookings = bookingRepository.streamViewsByOwnerId(ownerId)) {
+            return writer.write(bookings.map(BookingMapper::toBookingDto).iterator(), out);
+        }
+    }
+}
@@ -4,10 +4,18 @@ import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoCreate;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingPeriodCountView;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.UserMapper;
 
+import java.util.Map;
+
 @UtilityClass
 public class BookingMapper {
     public static BookingDto toBookingDto(Booking booking) {
@@ -21,6 +29,24 @@ public class BookingMapper {
                 .build();
     }
 
+    public static BookingDto toBookingDto(BookingView booking) {
+        return BookingDto.builder()
+                .id(booking.getId())
+                .start(booking.getStartDate())
+                .end(booking.getEndDate())
+                .item(ItemDtoShort.builder()
+                        .id(booking.getItemId())
+                        .name(booking.getItemName())
+                        .build())
+                .booker(UserDto.builder()
+                        .id(booking.getBookerId())
+                        .name(booking.getBookerName())
+                        .email(booking.getBookerEmail())
+                        .build())
+                .status(booking.getStatus())
+                .build();
+    }
+
     public static Booking toBooking(BookingDtoCreate bookingDtoCreate) {
         return Booking.builder()
                 .item(Item.builder().id(bookingDtoCreate.getItemId()).build())
@@ -35,4 +61,32 @@ public class BookingMapper {
                 .bookerId(booking.getBooker().getId())
                 .build();
     }
+
+    public static BookingDtoShort toBookingDtoShort(BookingShortView booking) {
+        return BookingDtoShort.builder()
+                .id(booking.getId())
+                .bookerId(booking.getBookerId())
+                .build();
+    }
+
+    public static BookingSummaryDto toBookingSummaryDto(Map<BookingStatus, Long> statuses,
+                                                        BookingPeriodCountView periods) {
+        long waiting = statuses.getOrDefault(BookingStatus.WAITING, 0L);
+        long approved = statuses.getOrDefault(BookingStatus.APPROVED, 0L);
+        long rejected = statuses.getOrDefault(BookingStatus.REJECTED, 0L);
+        return BookingSummaryDto.builder()
+                .all(waiting + approved + rejected)
+                .current(orZero(periods.getCurrent()))
+                .past(orZero(periods.getPast()))
+                .future(orZero(periods.getFuture()))
+                .waiting(waiting)
+                .approved(approved)
+                .rejected(rejected)
+                .build();
+    }
+
+    //sums over no rows are null
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
 }
@@ -2,19 +2,36 @@ package ru.practicum.shareit.booking;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingIntervalIndex;
+import ru.practicum.shareit.booking.schedule.BookingLocks;
+import ru.practicum.shareit.booking.summary.BookingCounters;
 import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.exceptions.BookingConflictException;
 import ru.practicum.shareit.common.exceptions.BookingNotFoundException;
-import ru.practicum.shareit.common.exceptions.UserIsNotOwnerException;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.user.UserService;
 
 import javax.validation.ValidationException;
 import java.time.LocalDateTime;
-import java.util.List;
+import java.util.*;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,13 +40,33 @@ public class BookingService {
     private final BookingRepository bookingRepository;
     private final UserService userService;
     private final ItemService itemService;
+    private final BookingIntervalIndex intervalIndex;
+    private final BookingLocks bookingLocks;
+    private final BookingCounters bookingCounters;
+    private final BookingExporter bookingExporter;
 
     public Booking create(Booking booking, Long userId) {
         if (booking.getStart() != null && booking.getStart().isBefore(booking.getEnd())) {
+            if (booking.getEnd().isAfter(BookingIntervalIndex.LATEST_DATE)) {
+                throw new ValidationException("Booking end date is after " + BookingIntervalIndex.LATEST_DATE);
+            }
+            Long itemId = booking.getItem().getId();
             booking.setBooker(userService.findById(userId));
-            booking.setItem(itemService.findForBookingById(booking.getItem().getId(), userId));
+            booking.setItem(itemService.findForBookingById(itemId, userId));
+            checkOverlap(itemId, booking); //a taken period is rejected before waiting for the lock
+            booking.setOwnerId(booking.getItem().getOwner().getId());
             booking.setStatus(BookingStatus.WAITING);
-            booking = bookingRepository.save(booking);
+            long change = bookingCounters.beginChange();
+            Lock lock = bookingLocks.forItem(itemId);
+            lock.lock();
+            try {
+                checkOverlap(itemId, booking); //recheck, a concurrent create may have taken the period
+                booking = bookingRepository.save(booking);
+                intervalIndex.index(booking);
+            } finally {
+                lock.unlock();
+            }
+            bookingCounters.created(change, userId, booking.getOwnerId());
             log.info("Create item id: {}", booking.getId());
             return booking;
         } else {
@@ -37,15 +74,21 @@ public class BookingService {
         }
     }
 
-    public Booking findById(Long id, Long userId) {
+    private void checkOverlap(Long itemId, Booking booking) {
+        if (intervalIndex.overlaps(itemId, booking.getStart(), booking.getEnd())) {
+            throw new BookingConflictException(itemId);
+        }
+    }
+
+    public BookingView findById(Long id, Long userId) {
         userService.findById(userId); //throws exception if user does not exist
-        return bookingRepository.findByIdAndOwnerOrBooker(id, userId)
+        return bookingRepository.findViewByIdAndOwnerOrBooker(id, userId)
                 .orElseThrow(() -> new BookingNotFoundException(id));
     }
 
-    public List<Booking> findByBooker(Long userId, String status, int from, int size) {
+    public List<BookingView> findByBooker(Long userId, String status, int from, int size) {
         userService.findById(userId); //throws exception if user does not exist
-        Pageable pageable = OffsetPageRequest.of(from, size, Sort.by("start").descending());
+        Pageable pageable = OffsetPageRequest.of(from, size, Sort.by("start", "id").descending());
         try {
             BookingStatus bookingStatus = BookingStatus.valueOf(status.toUpperCase());
             switch (bookingStatus) {
@@ -74,29 +117,29 @@ public class BookingService {
         }
     }
 
-    public List<Booking> findByOwner(Long userId, String status, int from, int size) {
+    public List<BookingView> findByOwner(Long userId, String status, int from, int size) {
         userService.findById(userId); //throws exception if user does not exist
-        Pageable pageable = OffsetPageRequest.of(from, size, Sort.by("start").descending());
+        Pageable pageable = OffsetPageRequest.of(from, size, Sort.by("start", "id").descending());
         try {
             BookingStatus bookingStatus = BookingStatus.valueOf(status.toUpperCase());
             switch (bookingStatus) {
                 case ALL:
-                    return bookingRepository.findByItemOwnerId(userId, pageable);
+                    return bookingRepository.findByOwnerId(userId, pageable);
                 case WAITING:
-                    return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.WAITING, pageable);
+                    return bookingRepository.findByOwnerIdAndStatus(userId, BookingStatus.WAITING, pageable);
                 case REJECTED:
-                    return bookingRepository.findByItemOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
+                    return bookingRepository.findByOwnerIdAndStatus(userId, BookingStatus.REJECTED, pageable);
                 case CURRENT:
-                    return bookingRepository.findByItemOwnerIdAndStartBeforeAndEndAfter(
+                    return bookingRepository.findByOwnerIdAndStartBeforeAndEndAfter(
                             userId,
                             LocalDateTime.now(),
                             LocalDateTime.now(),
                             pageable
                     );
                 case PAST:
-                    return bookingRepository.findByItemOwnerIdAndEndBefore(userId, LocalDateTime.now(), pageable);
+                    return bookingRepository.findByOwnerIdAndEndBefore(userId, LocalDateTime.now(), pageable);
                 case FUTURE:
-                    return bookingRepository.findByItemOwnerIdAndStartAfter(userId, LocalDateTime.now(), pageable);
+                    return bookingRepository.findByOwnerIdAndStartAfter(userId, LocalDateTime.now(), pageable);
                 default:
                     throw new IllegalArgumentException("Unknown state: " + status);
             }
@@ -105,17 +148,187 @@ public class BookingService {
         }
     }
 
-    public Booking updateStatus(Long id, Long ownerId, Boolean isApproved) {
-        Booking booking = bookingRepository.findByIdAndItemOwnerId(id, ownerId)
-                .orElseThrow(() -> new BookingNotFoundException(id));
-        if (booking.getStatus().equals(BookingStatus.APPROVED)) {
-            throw new IllegalArgumentException("Booking id: " + id + " is already approved");
+    public List<BookingView> findByBooker(Long userId, String status, BookingCursor cursor, int size) {
+        userService.findById(userId); //throws exception if user does not exist
+        Pageable pageable = PageRequest.of(0, size);
+        try {
+            BookingStatus bookingStatus = BookingStatus.valueOf(status.toUpperCase());
+            switch (bookingStatus) {
+                case ALL:
+                    return bookingRepository.findPageByBookerId(userId, cursor.getStart(), cursor.getId(), pageable);
+                case WAITING:
+                case REJECTED:
+                    return bookingRepository.findPageByBookerIdAndStatus(
+                            userId, bookingStatus, cursor.getStart(), cursor.getId(), pageable);
+                case CURRENT:
+                    return bookingRepository.findPageByBookerIdAndStartBeforeAndEndAfter(
+                            userId,
+                            LocalDateTime.now(),
+                            LocalDateTime.now(),
+                            cursor.getStart(),
+                            cursor.getId(),
+                            pageable
+                    );
+                case PAST:
+                    return bookingRepository.findPageByBookerIdAndEndBefore(
+                            userId, LocalDateTime.now(), cursor.getStart(), cursor.getId(), pageable);
+                case FUTURE:
+                    return bookingRepository.findPageByBookerIdAndStartAfter(
+                            userId, LocalDateTime.now(), cursor.getStart(), cursor.getId(), pageable);
+                default:
+                    throw new IllegalArgumentException("Unknown state: " + status);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown state: " + status);
+        }
+    }
+
+    public List<BookingView> findByOwner(Long userId, String status, BookingCursor cursor, int size) {
+        userService.findById(userId); //throws exception if user does not exist
+        Pageable pageable = PageRequest.of(0, size);
+        try {
+            BookingStatus bookingStatus = BookingStatus.valueOf(status.toUpperCase());
+            switch (bookingStatus) {
+                case ALL:
+                    return bookingRepository.findPageByOwnerId(userId, cursor.getStart(), cursor.getId(), pageable);
+                case WAITING:
+                case REJECTED:
+                    return bookingRepository.findPageByOwnerIdAndStatus(
+                            userId, bookingStatus, cursor.getStart(), cursor.getId(), pageable);
+                case CURRENT:
+                    return bookingRepository.findPageByOwnerIdAndStartBeforeAndEndAfter(
+                            userId,
+                            LocalDateTime.now(),
+                            LocalDateTime.now(),
+                            cursor.getStart(),
+                            cursor.getId(),
+                            pageable
+                    );
+                case PAST:
+                    return bookingRepository.findPageByOwnerIdAndEndBefore(
+                            userId, LocalDateTime.now(), cursor.getStart(), cursor.getId(), pageable);
+                case FUTURE:
+                    return bookingRepository.findPageByOwnerIdAndStartAfter(
+                            userId, LocalDateTime.now(), cursor.getStart(), cursor.getId(), pageable);
+                default:
+                    throw new IllegalArgumentException("Unknown state: " + status);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown state: " + status);
+        }
+    }
+
+    public BookingSummaryDto findBookerSummary(Long userId) {
+        userService.findById(userId); //throws exception if user does not exist
+        return BookingMapper.toBookingSummaryDto(bookingCounters.findByBooker(userId),
+                bookingRepository.countPeriodsByBookerId(userId, LocalDateTime.now()));
+    }
+
+    public BookingSummaryDto findOwnerSummary(Long userId) {
+        userService.findById(userId); //throws exception if user does not exist
+        return BookingMapper.toBookingSummaryDto(bookingCounters.findByOwner(userId),
+                bookingRepository.countPeriodsByOwnerId(userId, LocalDateTime.now()));
+    }
+
+    //the owner is checked before the response starts, rows are read while the body is written
+    public StreamingResponseBody exportByOwner(Long userId) {
+        userService.findById(userId); //throws exception if user does not exist
+        return out -> {
+            long count = bookingExporter.exportByOwner(userId, out);
+            log.info("Export {} bookings, owner id: {}", count, userId);
+        };
+    }
+
+    public BookingDto updateStatus(Long id, Long ownerId, Boolean isApproved) {
+        BookingStatus status = (isApproved) ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+        long change = bookingCounters.beginChange();
+        if (bookingRepository.updateStatus(id, ownerId, status, BookingStatus.WAITING) == 0) {
+            BookingStatus current = bookingRepository.findStatusByIdAndOwnerId(id, ownerId)
+                    .orElseThrow(() -> new BookingNotFoundException(id));
+            throw new IllegalArgumentException("Booking id: " + id + " is already " + current.name().toLowerCase());
         }
-        if (!booking.getItem().getOwner().getId().equals(ownerId)) {
-            throw new UserIsNotOwnerException(ownerId, booking.getItem().getId());
+        BookingView booking = bookingRepository.findViewById(id).orElseThrow(() -> new BookingNotFoundException(id));
+        bookingCounters.statusChanged(change, booking.getBookerId(), ownerId, BookingStatus.WAITING, status);
+        if (status == BookingStatus.REJECTED) {
+            removeFromIndex(booking.getItemId(), id);
         }
-        booking.setStatus((isApproved) ? BookingStatus.APPROVED : BookingStatus.REJECTED);
         log.info("Update status booking id: {}", id);
-        return bookingRepository.save(booking);
+        return BookingMapper.toBookingDto(booking);
+    }
+
+    //Decisions on bookings that are missing, not the owner's or not waiting are reported and skipped
+    @Transactional
+    public List<BookingDecisionResultDto> updateStatuses(Long ownerId, List<BookingDecisionDto> decisions) {
+        Map<Long, Boolean> approvedById = new LinkedHashMap<>();
+        decisions.forEach(decision -> approvedById.put(decision.getBookingId(), decision.getApproved()));
+        if (approvedById.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, BookingStatusView> bookings = bookingRepository
+                .findStatusesForUpdate(approvedById.keySet(), ownerId).stream()
+                .collect(Collectors.toMap(BookingStatusView::getId, Function.identity()));
+        List<Long> waitingIds = new ArrayList<>();
+        List<Long> approvedIds = new ArrayList<>();
+        List<Long> rejectedIds = new ArrayList<>();
+        List<BookingDecisionResultDto> results = new ArrayList<>();
+        approvedById.forEach((id, approved) -> {
+            BookingStatusView booking = bookings.get(id);
+            if (booking == null) {
+                results.add(new BookingDecisionResultDto(id, BookingDecisionResultDto.Result.NOT_FOUND, null));
+            } else if (booking.getStatus() != BookingStatus.WAITING) {
+                results.add(new BookingDecisionResultDto(id, BookingDecisionResultDto.Result.NOT_WAITING,
+                        booking.getStatus()));
+            } else {
+                BookingStatus status = Boolean.TRUE.equals(approved) ? BookingStatus.APPROVED : BookingStatus.REJECTED;
+                waitingIds.add(id);
+                (status == BookingStatus.APPROVED ? approvedIds : rejectedIds).add(id);
+                results.add(new BookingDecisionResultDto(id, BookingDecisionResultDto.Result.UPDATED, status));
+            }
+        });
+        long change = bookingCounters.beginChange();
+        if (rejectedIds.isEmpty()) {
+            if (!approvedIds.isEmpty()) {
+                bookingRepository.updateStatuses(approvedIds, ownerId, BookingStatus.APPROVED);
+            }
+        } else if (approvedIds.isEmpty()) {
+            bookingRepository.updateStatuses(rejectedIds, ownerId, BookingStatus.REJECTED);
+        } else {
+            bookingRepository.updateStatuses(waitingIds, ownerId, approvedIds,
+                    BookingStatus.APPROVED, BookingStatus.REJECTED);
+        }
+        //the index is the overlap check, a rolled back rejection must keep blocking its period,
+        //and a rolled back batch must not move the counters either
+        afterCommit(() -> {
+            approvedIds.forEach(id -> bookingCounters.statusChanged(change,
+                    bookings.get(id).getBookerId(), ownerId, BookingStatus.WAITING, BookingStatus.APPROVED));
+            rejectedIds.forEach(id -> bookingCounters.statusChanged(change,
+                    bookings.get(id).getBookerId(), ownerId, BookingStatus.WAITING, BookingStatus.REJECTED));
+            rejectedIds.forEach(id -> removeFromIndex(bookings.get(id).getItemId(), id));
+        });
+        log.info("Update status of {} bookings, owner id: {}", waitingIds.size(), ownerId);
+        return results;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private void removeFromIndex(Long itemId, Long bookingId) {
+        Lock lock = bookingLocks.forItem(itemId);
+        lock.lock(); //waits for a create still indexing this booking
+        try {
+            intervalIndex.remove(itemId, bookingId);
+        } finally {
+            lock.unlock();
+        }
     }
 }
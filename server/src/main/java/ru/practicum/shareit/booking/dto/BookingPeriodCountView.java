@@ -0,0 +1,9 @@
+package ru.practicum.shareit.booking.dto;
+
+public interface BookingPeriodCountView {
+    Long getCurrent();
+
+    Long getPast();
+
+    Long getFuture();
+}
@@ -0,0 +1,13 @@
+package ru.practicum.shareit.booking.dto;
+
+import ru.practicum.shareit.booking.BookingStatus;
+
+public interface BookingStatusView {
+    Long getId();
+
+    Long getItemId();
+
+    Long getBookerId();
+
+    BookingStatus getStatus();
+}
@@ -2,50 +2,253 @@ package ru.practicum.shareit.booking.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingPeriodCountView;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingStatusCountView;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
+import ru.practicum.shareit.booking.dto.BookingView;
 
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("select b from Booking b join b.item i " +
-            "where b.id = ?1 and (i.owner.id = ?2 or b.booker.id = ?2)")
-    Optional<Booking> findByIdAndOwnerOrBooker(Long id, Long userId);
+    String VIEW_SELECT = "select b.id as id, b.start as startDate, b.end as endDate, " +
+            "i.id as itemId, i.name as itemName, u.id as bookerId, u.name as bookerName, u.email as bookerEmail, " +
+            "b.status as status " +
+            "from Booking b join b.item i join b.booker u ";
 
-    Optional<Booking> findByIdAndItemOwnerId(Long is, Long ownerId);
+    @Query(VIEW_SELECT + "where b.id = ?1 and (b.ownerId = ?2 or b.booker.id = ?2)")
+    Optional<BookingView> findViewByIdAndOwnerOrBooker(Long id, Long userId);
 
-    List<Booking> findByItemIdAndStatus(Long itemId,BookingStatus status);
+    @Transactional
+    @Modifying
+    @Query("update Booking b set b.status = ?3 " +
+            "where b.id = ?1 and b.status = ?4 " +
+            "and b.ownerId = ?2")
+    int updateStatus(Long id, Long ownerId, BookingStatus status, BookingStatus expectedStatus);
 
-    List<Booking> findByBookerId(Long bookerId, Pageable pageable);
+    @Transactional
+    @Modifying
+    @Query("update Booking b set b.status = case when b.id in ?3 then ?4 else ?5 end " +
+            "where b.id in ?1 and b.status = ru.practicum.shareit.booking.BookingStatus.WAITING " +
+            "and b.ownerId = ?2")
+    int updateStatuses(Collection<Long> ids, Long ownerId, Collection<Long> matchingIds,
+                       BookingStatus matchingStatus, BookingStatus otherStatus);
 
-    List<Booking> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+    @Transactional
+    @Modifying
+    @Query("update Booking b set b.status = ?3 " +
+            "where b.id in ?1 and b.status = ru.practicum.shareit.booking.BookingStatus.WAITING " +
+            "and b.ownerId = ?2")
+    int updateStatuses(Collection<Long> ids, Long ownerId, BookingStatus status);
 
-    List<Booking> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime startAfter, Pageable pageable);
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select b.id as id, b.item.id as itemId, b.booker.id as bookerId, b.status as status from Booking b " +
+            "where b.id in ?1 and b.ownerId = ?2")
+    List<BookingStatusView> findStatusesForUpdate(Collection<Long> ids, Long ownerId);
 
-    List<Booking> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime endBefore, Pageable pageable);
+    @Query("select b.status as status, count(b) as total from Booking b " +
+            "where b.booker.id = ?1 group by b.status")
+    List<BookingStatusCountView> countStatusesByBookerId(Long bookerId);
 
-    List<Booking> findByBookerIdAndStartBeforeAndEndAfter(
+    @Query("select b.status as status, count(b) as total from Booking b " +
+            "where b.ownerId = ?1 group by b.status")
+    List<BookingStatusCountView> countStatusesByOwnerId(Long ownerId);
+
+    @Query("select sum(case when b.start < ?2 and b.end > ?2 then 1 else 0 end) as current, " +
+            "sum(case when b.end < ?2 then 1 else 0 end) as past, " +
+            "sum(case when b.start > ?2 then 1 else 0 end) as future " +
+            "from Booking b where b.booker.id = ?1")
+    BookingPeriodCountView countPeriodsByBookerId(Long bookerId, LocalDateTime now);
+
+    @Query("select sum(case when b.start < ?2 and b.end > ?2 then 1 else 0 end) as current, " +
+            "sum(case when b.end < ?2 then 1 else 0 end) as past, " +
+            "sum(case when b.start > ?2 then 1 else 0 end) as future " +
+            "from Booking b where b.ownerId = ?1")
+    BookingPeriodCountView countPeriodsByOwnerId(Long ownerId, LocalDateTime now);
+
+    @Query("select b.status from Booking b where b.id = ?1 and b.ownerId = ?2")
+    Optional<BookingStatus> findStatusByIdAndOwnerId(Long id, Long ownerId);
+
+    @Query(VIEW_SELECT + "where b.id = ?1")
+    Optional<BookingView> findViewById(Long id);
+
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query(VIEW_SELECT + "where b.ownerId = ?1 " +
+            "order by b.start desc, b.id desc")
+    Stream<BookingView> streamViewsByOwnerId(Long ownerId);
+
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = ?1 and b.booker.id = ?2 and b.status = ?3 and b.start < ?4")
+    boolean existsByItemIdAndBookerIdAndStatusAndStartBefore(Long itemId, Long bookerId, BookingStatus status,
+                                                             LocalDateTime now);
+
+    @Query("select count(b) > 0 from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.start < ?3 and b.end > ?4")
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(Long itemId, Collection<BookingStatus> statuses,
+                                                               LocalDateTime startBefore, LocalDateTime endAfter);
+
+    @Query("select b.id as id, b.item.id as itemId, b.booker.id as bookerId, b.ownerId as ownerId, " +
+            "b.start as startDate, b.end as endDate from Booking b " +
+            "where b.status in ?1 and b.end > ?2 and b.id > ?3 " +
+            "order by b.id")
+    List<BookingIntervalView> findIntervals(Collection<BookingStatus> statuses, LocalDateTime endAfter, Long afterId,
+                                            Pageable pageable);
+
+    @Query("select b.id as id, b.item.id as itemId, b.booker.id as bookerId, b.ownerId as ownerId, " +
+            "b.start as startDate, b.end as endDate from Booking b " +
+            "where b.item.id = ?1 and b.status in ?2 and b.end > ?3")
+    List<BookingIntervalView> findIntervalsByItemId(Long itemId, Collection<BookingStatus> statuses,
+                                                    LocalDateTime endAfter);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDtoShort(b.id, b.booker.id) from Booking b " +
+            "where b.item.id = ?1 and b.status = ?2 and b.end < ?3 " +
+            "order by b.end desc, b.id desc")
+    List<BookingDtoShort> findLastByItemId(Long itemId, BookingStatus status, LocalDateTime now, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.dto.BookingDtoShort(b.id, b.booker.id) from Booking b " +
+            "where b.item.id = ?1 and b.status = ?2 and b.start > ?3 " +
+            "order by b.start, b.id")
+    List<BookingDtoShort> findNextByItemId(Long itemId, BookingStatus status, LocalDateTime now, Pageable pageable);
+
+    @Query(value = "select b.id as id, b.booker_id as bookerId, b.item_id as itemId " +
+            "from (select bk.id, bk.booker_id, bk.item_id, " +
+            "row_number() over (partition by bk.item_id order by bk.end_date desc, bk.id desc) as rn " +
+            "from bookings bk " +
+            "where bk.item_id in (?1) and bk.status = ?2 and bk.end_date < ?3) b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<BookingShortView> findLastByItemIds(Collection<Long> itemIds, String status, LocalDateTime now);
+
+    @Query(value = "select b.id as id, b.booker_id as bookerId, b.item_id as itemId " +
+            "from (select bk.id, bk.booker_id, bk.item_id, " +
+            "row_number() over (partition by bk.item_id order by bk.start_date, bk.id) as rn " +
+            "from bookings bk " +
+            "where bk.item_id in (?1) and bk.status = ?2 and bk.start_date > ?3) b " +
+            "where b.rn = 1", nativeQuery = true)
+    List<BookingShortView> findNextByItemIds(Collection<Long> itemIds, String status, LocalDateTime now);
+
+    @Query(VIEW_SELECT + "where b.booker.id = ?1")
+    List<BookingView> findByBookerId(Long bookerId, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.booker.id = ?1 and b.status = ?2")
+    List<BookingView> findByBookerIdAndStatus(Long bookerId, BookingStatus status, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.booker.id = ?1 and b.start > ?2")
+    List<BookingView> findByBookerIdAndStartAfter(Long bookerId, LocalDateTime startAfter, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.booker.id = ?1 and b.end < ?2")
+    List<BookingView> findByBookerIdAndEndBefore(Long bookerId, LocalDateTime endBefore, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.booker.id = ?1 and b.start < ?2 and b.end > ?3")
+    List<BookingView> findByBookerIdAndStartBeforeAndEndAfter(
+            Long bookerId,
+            LocalDateTime startBefore,
+            LocalDateTime endAfter,
+            Pageable pageable
+    );
+
+    @Query(VIEW_SELECT + "where b.ownerId = ?1")
+    List<BookingView> findByOwnerId(Long ownerId, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.ownerId = ?1 and b.status = ?2")
+    List<BookingView> findByOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.ownerId = ?1 and b.start > ?2")
+    List<BookingView> findByOwnerIdAndStartAfter(Long ownerId, LocalDateTime startAfter, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.ownerId = ?1 and b.end < ?2")
+    List<BookingView> findByOwnerIdAndEndBefore(Long ownerId, LocalDateTime endBefore, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.ownerId = ?1 and b.start < ?2 and b.end > ?3")
+    List<BookingView> findByOwnerIdAndStartBeforeAndEndAfter(
+            Long ownerId,
+            LocalDateTime startBefore,
+            LocalDateTime endAfter,
+            Pageable pageable
+    );
+
+    @Query(VIEW_SELECT + "where b.booker.id = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPageByBookerId(Long bookerId, LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.booker.id = ?1 and b.status = ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPageByBookerIdAndStatus(Long bookerId, BookingStatus status,
+                                                  LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.booker.id = ?1 and b.start > ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPageByBookerIdAndStartAfter(Long bookerId, LocalDateTime startAfter,
+                                                      LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.booker.id = ?1 and b.end < ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPageByBookerIdAndEndBefore(Long bookerId, LocalDateTime endBefore,
+                                                     LocalDateTime start, Long id, Pageable pageable);
+
+    @Query(VIEW_SELECT + "where b.booker.id = ?1 and b.start < ?2 and b.end > ?3 " +
+            "and (b.start < ?4 or (b.start = ?4 and b.id < ?5)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPageByBookerIdAndStartBeforeAndEndAfter(
             Long bookerId,
             LocalDateTime startBefore,
             LocalDateTime endAfter,
+            LocalDateTime start,
+            Long id,
             Pageable pageable
     );
 
-    List<Booking> findByItemOwnerId(Long ownerId, Pageable pageable);
+    @Query(VIEW_SELECT + "where b.ownerId = ?1 " +
+            "and (b.start < ?2 or (b.start = ?2 and b.id < ?3)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPageByOwnerId(Long ownerId, LocalDateTime start, Long id, Pageable pageable);
 
-    List<Booking> findByItemOwnerIdAndStatus(Long ownerId, BookingStatus status, Pageable pageable);
+    @Query(VIEW_SELECT + "where b.ownerId = ?1 and b.status = ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPageByOwnerIdAndStatus(Long ownerId, BookingStatus status,
+                                                 LocalDateTime start, Long id, Pageable pageable);
 
-    List<Booking> findByItemOwnerIdAndStartAfter(Long ownerId, LocalDateTime startAfter, Pageable pageable);
+    @Query(VIEW_SELECT + "where b.ownerId = ?1 and b.start > ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPageByOwnerIdAndStartAfter(Long ownerId, LocalDateTime startAfter,
+                                                     LocalDateTime start, Long id, Pageable pageable);
 
-    List<Booking> findByItemOwnerIdAndEndBefore(Long ownerId, LocalDateTime endBefore, Pageable pageable);
+    @Query(VIEW_SELECT + "where b.ownerId = ?1 and b.end < ?2 " +
+            "and (b.start < ?3 or (b.start = ?3 and b.id < ?4)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPageByOwnerIdAndEndBefore(Long ownerId, LocalDateTime endBefore,
+                                                    LocalDateTime start, Long id, Pageable pageable);
 
-    List<Booking> findByItemOwnerIdAndStartBeforeAndEndAfter(
+    @Query(VIEW_SELECT + "where b.ownerId = ?1 and b.start < ?2 and b.end > ?3 " +
+            "and (b.start < ?4 or (b.start = ?4 and b.id < ?5)) " +
+            "order by b.start desc, b.id desc")
+    List<BookingView> findPageByOwnerIdAndStartBeforeAndEndAfter(
             Long ownerId,
             LocalDateTime startBefore,
             LocalDateTime endAfter,
+            LocalDateTime start,
+            Long id,
             Pageable pageable
     );
 }
@@ -0,0 +1,338 @@
+package ru.practicum.shareit.booking.schedule;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Keeps WAITING and APPROVED bookings of every item as immutable arrays sorted by start, with a running maximum
+//of end dates. An overlap check is one binary search; writers replace the arrays of one item atomically.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class BookingIntervalIndex {
+    static final int WARM_BATCH_SIZE = 1000;
+    static final List<BookingStatus> ACTIVE_STATUSES = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+    //bookings end no later than this, far inside the range of the keys
+    public static final LocalDateTime LATEST_DATE = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+
+    private final BookingRepository bookingRepository;
+    private final Map<Long, Intervals> items = new ConcurrentHashMap<>();
+    //writers share the read lock, warming takes the write lock so no update is lost while the index is rebuilt
+    private final ReadWriteLock warmLock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        warmLock.writeLock().lock();
+        try {
+            items.clear();
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, List<BookingIntervalView>> bookings = new HashMap<>();
+            long lastId = 0;
+            List<BookingIntervalView> batch;
+            do {
+                batch = bookingRepository.findIntervals(ACTIVE_STATUSES, now, lastId,
+                        PageRequest.of(0, WARM_BATCH_SIZE));
+                for (BookingIntervalView booking : batch) {
+                    bookings.computeIfAbsent(booking.getItemId(), id -> new ArrayList<>()).add(booking);
+                    lastId = booking.getId();
+                }
+            } while (batch.size() == WARM_BATCH_SIZE);
+            bookings.forEach((itemId, list) -> items.put(itemId, Intervals.of(list)));
+            ready = true;
+            log.info("Booking interval index built: {} items", items.size());
+        } finally {
+            warmLock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    //Half-open intervals: a booking ending exactly when another starts does not overlap it
+    public boolean overlaps(Long itemId, LocalDateTime start, LocalDateTime end) {
+        if (!ready) {
+            return bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                    itemId, ACTIVE_STATUSES, end, start);
+        }
+        Intervals intervals = items.get(itemId);
+        return intervals != null && intervals.overlaps(toLong(start), toLong(end));
+    }
+
+    //Gaps between the bookings of the item within [from, to)
+    public List<TimeSlotDto> findFreeSlots(Long itemId, LocalDateTime from, LocalDateTime to) {
+        long end = toLong(to);
+        List<TimeSlotDto> slots = new ArrayList<>();
+        Intervals intervals = intervals(itemId, from);
+        long cursor = toLong(from);
+        for (int i = intervals.firstEndAfter(cursor); i < intervals.size() && intervals.starts[i] < end; i++) {
+            if (intervals.starts[i] > cursor) {
+                slots.add(new TimeSlotDto(toDateTime(cursor), toDateTime(intervals.starts[i])));
+            }
+            cursor = Math.max(cursor, intervals.ends[i]);
+        }
+        if (cursor < end) {
+            slots.add(new TimeSlotDto(toDateTime(cursor), to));
+        }
+        return slots;
+    }
+
+    //Earliest gap of the given length starting no earlier than from,
+    //ArithmeticException when the length or the end of the gap does not fit a key
+    public TimeSlotDto findNextFreeSlot(Long itemId, LocalDateTime from, Duration duration) {
+        long length = toLong(duration);
+        Intervals intervals = intervals(itemId, from);
+        long cursor = toLong(from);
+        for (int i = intervals.firstEndAfter(cursor); i < intervals.size(); i++) {
+            if (intervals.starts[i] - cursor >= length) {
+                break;
+            }
+            cursor = Math.max(cursor, intervals.ends[i]);
+        }
+        return new TimeSlotDto(toDateTime(cursor), toDateTime(Math.addExact(cursor, length)));
+    }
+
+    public void index(Booking booking) {
+        boolean active = ACTIVE_STATUSES.contains(booking.getStatus());
+        long id = booking.getId();
+        warmLock.readLock().lock();
+        try {
+            items.compute(booking.getItem().getId(), (itemId, intervals) -> {
+                Intervals current = intervals == null ? Intervals.empty(booking.getOwnerId()) : intervals.without(id);
+                if (active) {
+                    current = current.with(id, toLong(booking.getStart()), toLong(booking.getEnd()),
+                            booking.getBooker().getId());
+                }
+                return current.size() == 0 ? null : current;
+            });
+        } finally {
+            warmLock.readLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId, Long bookingId) {
+        warmLock.readLock().lock();
+        try {
+            items.computeIfPresent(itemId, (id, intervals) -> {
+                Intervals current = intervals.without(bookingId);
+                return current.size() == 0 ? null : current;
+            });
+        } finally {
+            warmLock.readLock().unlock();
+        }
+    }
+
+    public void removeItem(Long itemId) {
+        warmLock.readLock().lock();
+        try {
+            items.remove(itemId);
+        } finally {
+            warmLock.readLock().unlock();
+        }
+    }
+
+    public void removeByBooker(Long bookerId) {
+        warmLock.readLock().lock();
+        try {
+            for (Long itemId : items.keySet()) {
+                items.computeIfPresent(itemId, (id, intervals) -> {
+                    Intervals current = intervals.withoutBooker(bookerId);
+                    return current.size() == 0 ? null : current;
+                });
+            }
+        } finally {
+            warmLock.readLock().unlock();
+        }
+    }
+
+    //the bookings of the owner's items are removed by cascade with the items
+    public void removeByOwner(Long ownerId) {
+        warmLock.readLock().lock();
+        try {
+            items.values().removeIf(intervals -> ownerId.equals(intervals.owner));
+        } finally {
+            warmLock.readLock().unlock();
+        }
+    }
+
+    private Intervals intervals(Long itemId, LocalDateTime endAfter) {
+        if (!ready) {
+            return Intervals.of(bookingRepository.findIntervalsByItemId(itemId, ACTIVE_STATUSES, endAfter));
+        }
+        return items.getOrDefault(itemId, Intervals.EMPTY);
+    }
+
+    //epoch microseconds, the precision the database keeps; a long holds them for dates up to year 294247
+    static long toLong(LocalDateTime dateTime) {
+        return Math.addExact(Math.multiplyExact(dateTime.toEpochSecond(ZoneOffset.UTC), 1_000_000L),
+                dateTime.getNano() / 1000);
+    }
+
+    static long toLong(Duration duration) {
+        return Math.addExact(Math.multiplyExact(duration.getSeconds(), 1_000_000L), duration.getNano() / 1000);
+    }
+
+    static LocalDateTime toDateTime(long value) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(value, 1_000_000L),
+                (int) Math.floorMod(value, 1_000_000L) * 1000, ZoneOffset.UTC);
+    }
+
+    static final class Intervals {
+        static final Intervals EMPTY = empty(null);
+
+        final long[] ids;
+        final long[] starts;
+        final long[] ends;
+        final long[] bookers;
+        //all bookings of an item share its owner
+        final Long owner;
+        //maxEnds[i] is the latest end among the first i + 1 intervals
+        final long[] maxEnds;
+
+        private Intervals(long[] ids, long[] starts, long[] ends, long[] bookers, Long owner) {
+            this.ids = ids;
+            this.starts = starts;
+            this.ends = ends;
+            this.bookers = bookers;
+            this.owner = owner;
+            this.maxEnds = new long[ends.length];
+            for (int i = 0; i < ends.length; i++) {
+                maxEnds[i] = i == 0 ? ends[i] : Math.max(maxEnds[i - 1], ends[i]);
+            }
+        }
+
+        static Intervals empty(Long owner) {
+            return new Intervals(new long[0], new long[0], new long[0], new long[0], owner);
+        }
+
+        static Intervals of(List<BookingIntervalView> views) {
+            List<BookingIntervalView> bookings = new ArrayList<>(views);
+            bookings.sort(Comparator.comparing(BookingIntervalView::getStartDate));
+            int size = bookings.size();
+            long[] ids = new long[size];
+            long[] starts = new long[size];
+            long[] ends = new long[size];
+            long[] bookers = new long[size];
+            for (int i = 0; i < size; i++) {
+                BookingIntervalView booking = bookings.get(i);
+                ids[i] = booking.getId();
+                starts[i] = toLong(booking.getStartDate());
+                ends[i] = toLong(booking.getEndDate());
+                bookers[i] = booking.getBookerId();
+            }
+            return new Intervals(ids, starts, ends, bookers, size == 0 ? null : bookings.get(0).getOwnerId());
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        boolean overlaps(long start, long end) {
+            int candidates = firstStartNotBefore(end);
+            return candidates > 0 && maxEnds[candidates - 1] > start;
+        }
+
+        //number of intervals starting before the given moment
+        int firstStartNotBefore(long moment) {
+            int low = 0;
+            int high = starts.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (starts[middle] < moment) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        //maxEnds never decreases, so the intervals before this position all end by the given moment
+        int firstEndAfter(long moment) {
+            int low = 0;
+            int high = maxEnds.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                if (maxEnds[middle] <= moment) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        Intervals with(long id, long start, long end, long booker) {
+            int position = firstStartNotBefore(start);
+            return new Intervals(insert(ids, position, id), insert(starts, position, start),
+                    insert(ends, position, end), insert(bookers, position, booker), owner);
+        }
+
+        Intervals without(long id) {
+            for (int i = 0; i < ids.length; i++) {
+                if (ids[i] == id) {
+                    return new Intervals(delete(ids, i), delete(starts, i), delete(ends, i), delete(bookers, i),
+                            owner);
+                }
+            }
+            return this;
+        }
+
+        Intervals withoutBooker(long booker) {
+            int kept = 0;
+            for (long value : bookers) {
+                if (value != booker) {
+                    kept++;
+                }
+            }
+            if (kept == bookers.length) {
+                return this;
+            }
+            long[] newIds = new long[kept];
+            long[] newStarts = new long[kept];
+            long[] newEnds = new long[kept];
+            long[] newBookers = new long[kept];
+            for (int i = 0, j = 0; i < bookers.length; i++) {
+                if (bookers[i] != booker) {
+                    newIds[j] = ids[i];
+                    newStarts[j] = starts[i];
+                    newEnds[j] = ends[i];
+                    newBookers[j++] = bookers[i];
+                }
+            }
+            return new Intervals(newIds, newStarts, newEnds, newBookers, owner);
+        }
+
+        private static long[] insert(long[] values, int position, long value) {
+            long[] result = new long[values.length + 1];
+            System.arraycopy(values, 0, result, 0, position);
+            result[position] = value;
+            System.arraycopy(values, position, result, position + 1, values.length - position);
+            return result;
+        }
+
+        private static long[] delete(long[] values, int position) {
+            long[] result = new long[values.length - 1];
+            System.arraycopy(values, 0, result, 0, position);
+            System.arraycopy(values, position + 1, result, position, values.length - position - 1);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.booking.schedule;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+//Serializes booking writes and item edits per item within one node: items hashed to different stripes never wait for each other.
+//Across nodes the exclusion constraint on bookings (PostgreSQL) is the final guard for bookings.
+@Component
+public class BookingLocks {
+    private final Lock[] stripes;
+
+    public BookingLocks(@Value("${shareit.booking.lock-stripes:1024}") int stripeCount) {
+        if (stripeCount <= 0) {
+            throw new IllegalArgumentException("Lock stripe count must be positive: " + stripeCount);
+        }
+        stripes = new Lock[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public Lock forItem(Long itemId) {
+        long hash = itemId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) Math.floorMod(hash ^ (hash >>> 32), (long) stripes.length)];
+    }
+}
@@ -0,0 +1,138 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingStatusCountView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+//Booking counts by status for every booker and owner that asked for them. A user's counts are loaded with one
+//grouped query on first read and then adjusted on every create and status change. Entries are reloaded after the
+//ttl, so an adjustment that was missed (a cascade delete) does not stay forever, and evicted once they expire.
+//A write takes a change number before it starts; after commit its adjustment is applied only to counts whose query
+//returned before that, counts loaded later may already include the write and are dropped to be reloaded instead.
+@Component
+public class BookingCounters {
+    static final List<BookingStatus> COUNTED_STATUSES =
+            List.of(BookingStatus.WAITING, BookingStatus.APPROVED, BookingStatus.REJECTED);
+
+    private final BookingRepository bookingRepository;
+    private final long ttlNanos;
+    private final Map<Long, Counts> bookers = new ConcurrentHashMap<>();
+    private final Map<Long, Counts> owners = new ConcurrentHashMap<>();
+    private final AtomicLong nextSweep;
+    private final AtomicLong changes = new AtomicLong();
+
+    public BookingCounters(BookingRepository bookingRepository,
+                           @Value("${shareit.booking.counters-ttl:PT5M}") Duration ttl) {
+        if (ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Booking counters ttl must be positive: " + ttl);
+        }
+        this.bookingRepository = bookingRepository;
+        this.ttlNanos = ttl.toNanos();
+        this.nextSweep = new AtomicLong(System.nanoTime() + ttlNanos);
+    }
+
+    public Map<BookingStatus, Long> findByBooker(Long bookerId) {
+        return counts(bookers, bookerId, bookingRepository::countStatusesByBookerId);
+    }
+
+    public Map<BookingStatus, Long> findByOwner(Long ownerId) {
+        return counts(owners, ownerId, bookingRepository::countStatusesByOwnerId);
+    }
+
+    //called before the booking is written, the result is passed to created or statusChanged after commit
+    public long beginChange() {
+        return changes.incrementAndGet();
+    }
+
+    public void created(long change, Long bookerId, Long ownerId) {
+        statusChanged(change, bookerId, ownerId, null, BookingStatus.WAITING);
+    }
+
+    public void statusChanged(long change, Long bookerId, Long ownerId, BookingStatus from, BookingStatus to) {
+        adjust(bookers, bookerId, change, from, to);
+        adjust(owners, ownerId, change, from, to);
+    }
+
+    //cascade deletes remove bookings of other users too, everything is reloaded on the next read
+    public void invalidate() {
+        bookers.clear();
+        owners.clear();
+    }
+
+    int tracked() {
+        return bookers.size() + owners.size();
+    }
+
+    //the load runs inside compute, so concurrent first reads of a user wait for one query instead of each sending
+    //their own, and an adjustment waits for a load in progress before deciding whether it applies to its counts
+    private Map<BookingStatus, Long> counts(Map<Long, Counts> counters, Long userId,
+                                            Function<Long, List<BookingStatusCountView>> loader) {
+        long now = System.nanoTime();
+        evictExpired(now);
+        Counts counts = counters.compute(userId, (id, current) -> {
+            if (current != null && !current.isExpired(now, ttlNanos)) {
+                return current;
+            }
+            long loadedAt = System.nanoTime();
+            List<BookingStatusCountView> loaded = loader.apply(id);
+            return new Counts(loadedAt, loaded, changes.get()); //read once the query has returned
+        });
+        Map<BookingStatus, Long> result = new EnumMap<>(BookingStatus.class);
+        counts.values.forEach((status, value) -> result.put(status, value.sum()));
+        return result;
+    }
+
+    //expired entries are reloaded on read anyway, users that stopped asking are dropped once per ttl
+    private void evictExpired(long now) {
+        long sweepAt = nextSweep.get();
+        if (now - sweepAt < 0 || !nextSweep.compareAndSet(sweepAt, now + ttlNanos)) {
+            return;
+        }
+        bookers.values().removeIf(counts -> counts.isExpired(now, ttlNanos));
+        owners.values().removeIf(counts -> counts.isExpired(now, ttlNanos));
+    }
+
+    //users that were never read are not tracked, their counts are loaded when first asked for
+    private static void adjust(Map<Long, Counts> counters, Long userId, long change, BookingStatus from,
+                               BookingStatus to) {
+        counters.computeIfPresent(userId, (id, counts) -> {
+            if (counts.changesBeforeLoad >= change) {
+                return null; //the query may have run after the write, it is reloaded on the next read
+            }
+            if (from != null) {
+                counts.values.get(from).decrement();
+            }
+            counts.values.get(to).increment();
+            return counts;
+        });
+    }
+
+    private static final class Counts {
+        final long loadedAt;
+        //changes begun by the time the query returned, writes numbered higher started after it
+        final long changesBeforeLoad;
+        final Map<BookingStatus, LongAdder> values = new EnumMap<>(BookingStatus.class);
+
+        Counts(long loadedAt, List<BookingStatusCountView> loaded, long changesBeforeLoad) {
+            this.loadedAt = loadedAt;
+            this.changesBeforeLoad = changesBeforeLoad;
+            COUNTED_STATUSES.forEach(status -> values.put(status, new LongAdder()));
+            loaded.forEach(count -> values.get(count.getStatus()).add(count.getTotal()));
+        }
+
+        boolean isExpired(long now, long ttlNanos) {
+            return now - loadedAt > ttlNanos;
+        }
+    }
+}
@@ -16,7 +16,7 @@ import java.io.IOException;
 @Slf4j
 @RestControllerAdvice
 public class ErrorHandler {
-    @ExceptionHandler(DataIntegrityViolationException.class)
+    @ExceptionHandler({DataIntegrityViolationException.class, BookingConflictException.class})
     public void handleConflict(HttpServletResponse response, Exception exception) throws IOException {
         log.debug(exception.getMessage());
         response.sendError(HttpStatus.CONFLICT.value());
@@ -0,0 +1,7 @@
+package ru.practicum.shareit.common.exceptions;
+
+public class BookingConflictException extends RuntimeException {
+    public BookingConflictException(Long itemId) {
+        super("Item id: " + itemId + " is already booked for this period");
+    }
+}
@@ -1,11 +1,15 @@
 package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.*;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.item.dto.CommentDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -47,13 +51,36 @@ public class ItemController {
 
     @GetMapping("/search")
     public List<ItemDto> find(@RequestParam String text,
+                              @RequestParam Optional<String> sort,
                               @RequestParam Optional<Integer> from,
                               @RequestParam Optional<Integer> size) {
-        return itemService.findByText(text, from.orElse(0), size.orElse(20)).stream()
+        return itemService.findByText(text, sort.orElse("id"), from.orElse(0), size.orElse(20)).stream()
                 .map(ItemMapper::toItemDto)
                 .collect(Collectors.toList());
     }
 
+    @GetMapping("/suggest")
+    public List<String> suggest(@RequestParam String prefix,
+                                @RequestParam Optional<Integer> size) {
+        return itemService.suggest(prefix, size.orElse(10));
+    }
+
+    @GetMapping("/{itemId}/availability")
+    public List<TimeSlotDto> findAvailability(
+            @PathVariable Long itemId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemService.findAvailability(itemId, from, to);
+    }
+
+    @GetMapping("/{itemId}/next-free")
+    public TimeSlotDto findNextFreeSlot(
+            @PathVariable Long itemId,
+            @RequestParam Duration duration,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Optional<LocalDateTime> from) {
+        return itemService.findNextFreeSlot(itemId, from.orElse(null), duration);
+    }
+
     @DeleteMapping("/{itemId}")
     public void delete(@PathVariable Long itemId) {
         itemService.deleteById(itemId);
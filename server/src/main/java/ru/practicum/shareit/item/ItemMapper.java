@@ -5,6 +5,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.item.dto.ItemDtoShort;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.request.ItemRequest;
 
 @UtilityClass
@@ -44,19 +45,19 @@ public class ItemMapper {
                 .name(item.getName())
                 .description(item.getDescription())
                 .available(item.getAvailable())
-                .owner(item.getOwner())
-                .request(item.getRequest())
+                .ownerId(item.getOwner().getId())
+                .requestId(item.getRequest() == null ? null : item.getRequest().getId())
                 .build();
     }
 
-    public static Item toItem(ItemDtoOut itemDtoOut) {
-        return Item.builder()
-                .id(itemDtoOut.getId())
-                .name(itemDtoOut.getName())
-                .description(itemDtoOut.getDescription())
-                .available(itemDtoOut.getAvailable())
-                .owner(itemDtoOut.getOwner())
-                .request(itemDtoOut.getRequest())
+    public static ItemDtoOut toItemDtoOut(ItemView item) {
+        return ItemDtoOut.builder()
+                .id(item.getId())
+                .name(item.getName())
+                .description(item.getDescription())
+                .available(item.getAvailable())
+                .ownerId(item.getOwnerId())
+                .requestId(item.getRequestId())
                 .build();
     }
 
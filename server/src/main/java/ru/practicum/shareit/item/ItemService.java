@@ -2,27 +2,41 @@ package ru.practicum.shareit.item;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingMapper;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingIntervalIndex;
+import ru.practicum.shareit.booking.schedule.BookingLocks;
+import ru.practicum.shareit.booking.summary.BookingCounters;
 import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.common.exceptions.ItemNeverBookedByUserException;
 import ru.practicum.shareit.common.exceptions.ItemNotAvailableException;
 import ru.practicum.shareit.common.exceptions.ItemNotFoundException;
 import ru.practicum.shareit.common.exceptions.UserIsNotOwnerException;
+import ru.practicum.shareit.item.dto.CommentDto;
+import ru.practicum.shareit.item.dto.CommentView;
 import ru.practicum.shareit.item.dto.ItemDtoOut;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSearchSort;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
+import javax.validation.ValidationException;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.Comparator;
 import java.util.List;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.locks.Lock;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,35 +47,61 @@ public class ItemService {
     private final CommentRepository commentRepository;
     private final BookingRepository bookingRepository;
     private final UserService userService;
+    private final ItemSearch itemSearch;
+    private final ItemSuggestIndex suggestIndex;
+    private final BookingIntervalIndex intervalIndex;
+    private final BookingCounters bookingCounters;
+    private final BookingLocks bookingLocks;
 
     public Item create(Item item, Long userId) {
         User owner = userService.findById(userId); //throws exception if user does not exist
         item.setOwner(owner);
         item.setAvailable(true);
         item = itemRepository.save(item);
+        Lock lock = bookingLocks.forItem(item.getId());
+        lock.lock();
+        try {
+            //a patch may have landed between the save and the lock, index the row as it is now
+            itemRepository.findById(item.getId()).ifPresent(this::index);
+        } finally {
+            lock.unlock();
+        }
         log.info("Create item id: {}", item.getId());
         return item;
     }
 
     public Item update(Item item, Long userId) {
         userService.findById(userId); //throws exception if user does not exist
-        Item existingItem = itemRepository.findById(item.getId())
-                .orElseThrow(() -> new ItemNotFoundException(item.getId()));
-        if (!existingItem.getOwner().getId().equals(userId)) {
-            throw new UserIsNotOwnerException(userId, item.getId());
-        }
-        if (item.getName() != null) {
-            existingItem.setName(item.getName());
-        }
-        if (item.getDescription() != null) {
-            existingItem.setDescription(item.getDescription());
-        }
-        if (item.getAvailable() != null) {
-            existingItem.setAvailable(item.getAvailable());
+        Lock lock = bookingLocks.forItem(item.getId());
+        lock.lock();
+        try { //saves and index updates of one item are applied in the same order
+            Item existingItem = itemRepository.findById(item.getId())
+                    .orElseThrow(() -> new ItemNotFoundException(item.getId()));
+            if (!existingItem.getOwner().getId().equals(userId)) {
+                throw new UserIsNotOwnerException(userId, item.getId());
+            }
+            if (item.getName() != null) {
+                existingItem.setName(item.getName());
+            }
+            if (item.getDescription() != null) {
+                existingItem.setDescription(item.getDescription());
+            }
+            if (item.getAvailable() != null) {
+                existingItem.setAvailable(item.getAvailable());
+            }
+
+            existingItem = itemRepository.save(existingItem);
+            index(existingItem);
+            log.info("Update item id: {}", item.getId());
+            return existingItem;
+        } finally {
+            lock.unlock();
         }
+    }
 
-        log.info("Update item id: {}", item.getId());
-        return itemRepository.save(existingItem);
+    private void index(Item item) {
+        itemSearch.index(item);
+        suggestIndex.index(item);
     }
 
     public ItemDtoOut findById(Long id, Long userId) {
@@ -74,16 +114,15 @@ public class ItemService {
     }
 
     private ItemDtoOut fillBookings(ItemDtoOut item, Long userId) {
-        if (item.getOwner().getId().equals(userId)) {
-            List<Booking> itemBookings = bookingRepository.findByItemIdAndStatus(item.getId(), BookingStatus.APPROVED);
-            Optional<Booking> nextBooking = itemBookings.stream()
-                    .filter(i -> i.getStart().isAfter(LocalDateTime.now()))
-                    .min(Comparator.comparing(Booking::getStart));
-            Optional<Booking> lastBooking = itemBookings.stream()
-                    .filter(i -> i.getEnd().isBefore(LocalDateTime.now()))
-                    .max(Comparator.comparing(Booking::getEnd));
-            nextBooking.ifPresent(booking -> item.setNextBooking(BookingMapper.toBookingDtoShort(booking)));
-            lastBooking.ifPresent(booking -> item.setLastBooking(BookingMapper.toBookingDtoShort(booking)));
+        if (item.getOwnerId().equals(userId)) {
+            LocalDateTime now = LocalDateTime.now();
+            Pageable first = PageRequest.of(0, 1);
+            bookingRepository.findLastByItemId(item.getId(), BookingStatus.APPROVED, now, first).stream()
+                    .findFirst()
+                    .ifPresent(item::setLastBooking);
+            bookingRepository.findNextByItemId(item.getId(), BookingStatus.APPROVED, now, first).stream()
+                    .findFirst()
+                    .ifPresent(item::setNextBooking);
         }
         return item;
     }
@@ -100,32 +139,114 @@ public class ItemService {
     }
 
     public List<ItemDtoOut> findByOwner(Long userId, int from, int size) {
-        return itemRepository.findByOwnerId(userId, OffsetPageRequest.of(from, size, Sort.by("id"))).stream()
+        List<ItemDtoOut> items = itemRepository.findViewsByOwnerId(userId, OffsetPageRequest.of(from, size, Sort.by("id")))
+                .stream()
                 .map(ItemMapper::toItemDtoOut)
-                .map(i -> fillBookings(i, userId))
-                .map(i -> fillComments(i))
                 .collect(Collectors.toList());
+        if (!items.isEmpty()) {
+            fillBookings(items);
+            fillComments(items);
+        }
+        return items;
+    }
+
+    private void fillBookings(List<ItemDtoOut> items) {
+        List<Long> itemIds = items.stream().map(ItemDtoOut::getId).collect(Collectors.toList());
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, BookingDtoShort> lastBookings = bookingRepository
+                .findLastByItemIds(itemIds, BookingStatus.APPROVED.name(), now).stream()
+                .collect(Collectors.toMap(BookingShortView::getItemId, BookingMapper::toBookingDtoShort));
+        Map<Long, BookingDtoShort> nextBookings = bookingRepository
+                .findNextByItemIds(itemIds, BookingStatus.APPROVED.name(), now).stream()
+                .collect(Collectors.toMap(BookingShortView::getItemId, BookingMapper::toBookingDtoShort));
+        items.forEach(item -> {
+            item.setLastBooking(lastBookings.get(item.getId()));
+            item.setNextBooking(nextBookings.get(item.getId()));
+        });
     }
 
-    public List<Item> findByText(String text, int from, int size) {
+    private void fillComments(List<ItemDtoOut> items) {
+        Map<Long, List<CommentDto>> comments = commentRepository
+                .findViewsByItemIdIn(items.stream().map(ItemDtoOut::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId,
+                        Collectors.mapping(CommentMapper::toCommentDto, Collectors.toList())));
+        items.forEach(item -> item.setComments(comments.getOrDefault(item.getId(), List.of())));
+    }
+
+    public List<Item> findByText(String text, String sort, int from, int size) {
+        ItemSearchSort searchSort;
+        try {
+            searchSort = ItemSearchSort.valueOf(sort.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown sort: " + sort);
+        }
         if (text == null || text.isBlank()) {
             return List.of();
         }
-        return itemRepository.findByText(text, OffsetPageRequest.of(from, size, Sort.by("id")));
+        if (searchSort == ItemSearchSort.RELEVANCE) {
+            return itemSearch.findByTextOrderByRelevance(text, from, size);
+        }
+        return itemSearch.findByText(text, from, size);
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        return suggestIndex.suggest(prefix, size);
+    }
+
+    public List<TimeSlotDto> findAvailability(Long itemId, LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            throw new ValidationException("Availability start date is after end date");
+        }
+        if (to.isAfter(BookingIntervalIndex.LATEST_DATE)) {
+            throw new ValidationException("Availability end date is after " + BookingIntervalIndex.LATEST_DATE);
+        }
+        checkExists(itemId);
+        LocalDateTime now = LocalDateTime.now();
+        if (!now.isBefore(to)) {
+            return List.of();
+        }
+        return intervalIndex.findFreeSlots(itemId, from.isBefore(now) ? now : from, to);
+    }
+
+    public TimeSlotDto findNextFreeSlot(Long itemId, LocalDateTime from, Duration duration) {
+        if (duration.isNegative() || duration.isZero()) {
+            throw new ValidationException("Duration must be positive");
+        }
+        if (from != null && from.isAfter(BookingIntervalIndex.LATEST_DATE)) {
+            throw new ValidationException("Start date is after " + BookingIntervalIndex.LATEST_DATE);
+        }
+        checkExists(itemId);
+        LocalDateTime now = LocalDateTime.now();
+        TimeSlotDto slot;
+        try {
+            slot = intervalIndex.findNextFreeSlot(itemId, from == null || from.isBefore(now) ? now : from, duration);
+        } catch (ArithmeticException e) {
+            throw new ValidationException("Duration is too long: " + duration, e);
+        }
+        //such a slot could not be booked
+        if (slot.getEnd().isAfter(BookingIntervalIndex.LATEST_DATE)) {
+            throw new ValidationException("No free slot of " + duration + " ends by " + BookingIntervalIndex.LATEST_DATE);
+        }
+        return slot;
     }
 
     public Comment addComment(Long itemId, Long userId, Comment comment) {
-        Item item = ItemMapper.toItem(findById(itemId, userId));
-        User user = userService.findById(userId);
-        if (bookingRepository.findByItemIdAndStatus(itemId, BookingStatus.APPROVED).stream()
-                .filter(i -> i.getStart().isBefore(LocalDateTime.now()))
-                .noneMatch(i -> i.getBooker().getId().equals(userId))) {
+        User user = userService.findById(userId); //throws exception if user does not exist
+        LocalDateTime now = LocalDateTime.now();
+        if (!bookingRepository.existsByItemIdAndBookerIdAndStatusAndStartBefore(
+                itemId, userId, BookingStatus.APPROVED, now)) {
+            if (!itemRepository.existsById(itemId)) {
+                throw new ItemNotFoundException(itemId);
+            }
             throw new ItemNeverBookedByUserException(userId, itemId);
         }
 
-        comment.setCreated(LocalDateTime.now().withNano(0));
+        comment.setCreated(now.withNano(0));
         comment.setAuthor(user);
-        comment.setItem(item);
+        comment.setItem(itemRepository.getReferenceById(itemId));
         comment = commentRepository.save(comment);
 
         log.info("Create comment id: {} by user id: {}", comment.getId(), userId);
@@ -139,8 +260,24 @@ public class ItemService {
         return item;
     }
 
+    private void checkExists(Long itemId) {
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemNotFoundException(itemId);
+        }
+    }
+
     public void deleteById(Long id) {
-        itemRepository.deleteById(id);
+        Lock lock = bookingLocks.forItem(id);
+        lock.lock();
+        try {
+            itemRepository.deleteById(id);
+            itemSearch.remove(id);
+            suggestIndex.remove(id);
+        } finally {
+            lock.unlock();
+        }
+        intervalIndex.removeItem(id);
+        bookingCounters.invalidate();
         log.info("Delete item id: {}", id);
     }
 }
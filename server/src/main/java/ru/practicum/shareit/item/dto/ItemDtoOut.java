@@ -6,8 +6,6 @@ import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.experimental.FieldDefaults;
 import ru.practicum.shareit.booking.dto.BookingDtoShort;
-import ru.practicum.shareit.request.ItemRequest;
-import ru.practicum.shareit.user.User;
 
 import java.util.List;
 
@@ -20,8 +18,8 @@ public class ItemDtoOut {
     String name;
     String description;
     Boolean available;
-    User owner;
-    ItemRequest request;
+    Long ownerId;
+    Long requestId;
     BookingDtoShort lastBooking;
     BookingDtoShort nextBooking;
     List<CommentDto> comments;
@@ -1,11 +1,20 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.dto.CommentView;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
+    @Query("select c from Comment c join fetch c.author where c.item.id = ?1")
     List<Comment> findByItemId(Long itemId);
+
+    @Query("select c.id as id, c.item.id as itemId, c.text as text, a.name as authorName, c.created as created " +
+            "from Comment c join c.author a " +
+            "where c.item.id in ?1")
+    List<CommentView> findViewsByItemIdIn(Collection<Long> itemIds);
 }
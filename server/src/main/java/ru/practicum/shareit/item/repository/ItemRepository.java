@@ -1,15 +1,24 @@
 package ru.practicum.shareit.item.repository;
 
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.dto.ItemView;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
 
-    List<Item> findByOwnerId(Long userId, Pageable pageable);
+    @Query("select i.id as id, i.name as name, i.description as description, i.available as available, " +
+            "i.owner.id as ownerId, i.request.id as requestId " +
+            "from Item i " +
+            "where i.owner.id = ?1")
+    List<ItemView> findViewsByOwnerId(Long userId, Pageable pageable);
 
     @Query("select i from Item i " +
             "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
@@ -17,4 +26,48 @@ public interface ItemRepository extends JpaRepository<Item, Long> {
             "and i.available is true ")
     List<Item> findByText(String text, Pageable pageable);
 
+    @Query("select i from Item i " +
+            "where (upper(i.name) like upper(concat('%', ?1, '%')) " +
+            "or upper(i.description) like upper(concat('%', ?1, '%'))) " +
+            "and i.available is true " +
+            "order by case when upper(i.name) like upper(concat('%', ?1, '%')) then 0 else 1 end, i.id")
+    List<Item> findByTextOrderByRelevance(String text, Pageable pageable);
+
+    @Query(value = "select i.id as id, i.name as name, i.description as description, i.owner_id as ownerId " +
+            "from items i " +
+            "where i.is_available and (i.name ilike ?1 or i.description ilike ?1) " +
+            "order by i.id", nativeQuery = true)
+    List<ItemSearchView> findByPattern(String pattern, Pageable pageable);
+
+    @Query(value = "select i.id as id, i.name as name, i.description as description, i.owner_id as ownerId " +
+            "from items i " +
+            "where i.is_available " +
+            "and (i.name ilike ?1 or i.description ilike ?1 or ?2 <% i.name or ?2 <% i.description " +
+            "or i.search_vector @@ plainto_tsquery('simple', ?2)) " +
+            "order by case when i.name ilike ?1 then 4 when ?2 <% i.name then 3 " +
+            "when i.description ilike ?1 then 2 else 1 end desc, " +
+            "ts_rank(i.search_vector, plainto_tsquery('simple', ?2)) desc, " +
+            "word_similarity(?2, i.name) desc, i.id", nativeQuery = true)
+    List<ItemSearchView> findByPatternOrderByRelevance(String pattern, String text, Pageable pageable);
+
+    @Query("select i.id as id, i.name as name, i.description as description, i.owner.id as ownerId " +
+            "from Item i " +
+            "where i.available is true and i.id > ?1 " +
+            "order by i.id")
+    List<ItemSearchView> findAvailableForSearch(Long afterId, Pageable pageable);
+
+    @Query("select min(i.name) from Item i " +
+            "where i.available is true and upper(i.name) like ?1 " +
+            "group by upper(i.name) " +
+            "order by upper(i.name)")
+    List<String> findNamesByPattern(String pattern, Pageable pageable);
+
+    List<Item> findByIdIn(Collection<Long> ids, Sort sort);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemDtoRequest(i.id, i.name, i.description, i.available, " +
+            "i.request.id) from Item i " +
+            "where i.request.id in ?1 " +
+            "order by i.id")
+    List<ItemDtoRequest> findByRequestIdIn(Collection<Long> requestIds);
+
 }
@@ -0,0 +1,84 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.jdbc.support.MetaDataAccessException;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.List;
+import java.util.stream.Collectors;
+
+//On PostgreSQL the ILIKE query is served by the pg_trgm indexes from schema-postgresql.sql, elsewhere plain LIKE is used.
+//Relevance order on PostgreSQL also accepts one-typo matches through word similarity (<%) and all the words in any order
+//through the search_vector GIN index.
+@Component
+@ConditionalOnProperty(name = ItemSearch.BACKEND_PROPERTY, havingValue = "database")
+@Slf4j
+public class DatabaseItemSearch implements ItemSearch {
+    private final ItemRepository itemRepository;
+    private final boolean postgres;
+
+    public DatabaseItemSearch(ItemRepository itemRepository, DataSource dataSource) {
+        this.itemRepository = itemRepository;
+        this.postgres = "PostgreSQL".equals(databaseName(dataSource));
+        log.info("Database item search uses {}", postgres ? "trigram indexes" : "LIKE queries");
+    }
+
+    @Override
+    public List<Item> findByText(String text, int from, int size) {
+        if (!postgres) {
+            return itemRepository.findByText(text, OffsetPageRequest.of(from, size, Sort.by("id")));
+        }
+        return SearchResults.fetch(itemRepository, ids(
+                itemRepository.findByPattern(likePattern(text), OffsetPageRequest.of(from, size))));
+    }
+
+    @Override
+    public List<Item> findByTextOrderByRelevance(String text, int from, int size) {
+        if (!postgres) {
+            return itemRepository.findByTextOrderByRelevance(text, OffsetPageRequest.of(from, size));
+        }
+        return SearchResults.fetch(itemRepository, ids(itemRepository.findByPatternOrderByRelevance(
+                likePattern(text), text, OffsetPageRequest.of(from, size))));
+    }
+
+    private static List<Long> ids(List<ItemSearchView> items) {
+        return items.stream()
+                .map(ItemSearchView::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public void index(Item item) {
+    }
+
+    @Override
+    public void remove(Long itemId) {
+    }
+
+    @Override
+    public void removeByOwner(Long ownerId) {
+    }
+
+    static String likePattern(String text) {
+        return "%" + text.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+    }
+
+    private static String databaseName(DataSource dataSource) {
+        try {
+            return JdbcUtils.commonDatabaseName(
+                    JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName));
+        } catch (MetaDataAccessException e) {
+            log.warn("Could not detect database, falling back to LIKE search", e);
+            return null;
+        }
+    }
+}
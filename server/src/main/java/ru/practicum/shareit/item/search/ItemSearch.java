@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.search;
+
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+
+public interface ItemSearch {
+    String BACKEND_PROPERTY = "shareit.search.backend";
+
+    List<Item> findByText(String text, int from, int size);
+
+    List<Item> findByTextOrderByRelevance(String text, int from, int size);
+
+    void index(Item item);
+
+    void remove(Long itemId);
+
+    void removeByOwner(Long ownerId);
+}
@@ -0,0 +1,426 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Keeps 1-, 2- and 3-gram postings of upper-cased names and descriptions of available items.
+//Queries of up to three characters are answered by a single posting list, longer ones by intersecting
+//the postings of their trigrams and checking the candidates against the stored text.
+//Relevance search also accepts matches with one typo: candidates sharing enough grams with the query
+//are checked with an edit distance, scored and kept in a heap bounded by from + size.
+@Component
+@ConditionalOnProperty(name = ItemSearch.BACKEND_PROPERTY, havingValue = "memory", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSearchIndex implements ItemSearch {
+    static final int MAX_GRAM = 3;
+    static final int WARM_BATCH_SIZE = 1000;
+    static final int FUZZY_MIN_LENGTH = MAX_GRAM + 1;
+    static final int NAME_MATCH = 4;
+    static final int NAME_TYPO_MATCH = 3;
+    static final int DESCRIPTION_MATCH = 2;
+    static final int DESCRIPTION_TYPO_MATCH = 1;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final Map<Long, Document> documents = new HashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documents.clear();
+            long lastId = 0;
+            List<ItemSearchView> batch;
+            do {
+                batch = itemRepository.findAvailableForSearch(lastId, PageRequest.of(0, WARM_BATCH_SIZE));
+                for (ItemSearchView item : batch) {
+                    add(item.getId(), new Document(item.getName(), item.getDescription(), item.getOwnerId()));
+                    lastId = item.getId();
+                }
+            } while (batch.size() == WARM_BATCH_SIZE);
+            ready = true;
+            log.info("Item search index built: {} items, {} grams", documents.size(), postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @Override
+    public List<Item> findByText(String text, int from, int size) {
+        if (!ready) {
+            return itemRepository.findByText(text, OffsetPageRequest.of(from, size, Sort.by("id")));
+        }
+        return SearchResults.fetch(itemRepository, search(text, from, size));
+    }
+
+    @Override
+    public List<Item> findByTextOrderByRelevance(String text, int from, int size) {
+        if (!ready) {
+            return itemRepository.findByTextOrderByRelevance(text, OffsetPageRequest.of(from, size));
+        }
+        return SearchResults.fetch(itemRepository, searchByRelevance(text, from, size));
+    }
+
+    @Override
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId(), documents.get(item.getId()));
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                add(item.getId(), new Document(item.getName(), item.getDescription(),
+                        item.getOwner() == null ? null : item.getOwner().getId()));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId, documents.get(itemId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void removeByOwner(Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> itemIds = new ArrayList<>();
+            documents.forEach((id, document) -> {
+                if (ownerId.equals(document.ownerId)) {
+                    itemIds.add(id);
+                }
+            });
+            itemIds.forEach(id -> remove(id, documents.get(id)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<Long> search(String text, int from, int size) {
+        String query = text.toUpperCase(Locale.ROOT);
+        lock.readLock().lock();
+        try {
+            if (query.length() <= MAX_GRAM) {
+                Postings exact = postings.get(key(query, 0, query.length()));
+                return exact == null ? List.of() : exact.slice(from, size);
+            }
+            Postings[] lists = new Postings[query.length() - MAX_GRAM + 1];
+            for (int i = 0; i < lists.length; i++) {
+                lists[i] = postings.get(key(query, i, MAX_GRAM));
+                if (lists[i] == null) {
+                    return List.of();
+                }
+            }
+            Arrays.sort(lists, Comparator.comparingInt(p -> p.size));
+            List<Long> result = new ArrayList<>();
+            int skipped = 0;
+            Postings shortest = lists[0];
+            for (int i = 0; i < shortest.size && result.size() < size; i++) {
+                long id = shortest.ids[i];
+                if (containsInAll(lists, id) && documents.get(id).contains(query)) {
+                    if (skipped < from) {
+                        skipped++;
+                    } else {
+                        result.add(id);
+                    }
+                }
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public List<Long> searchByRelevance(String text, int from, int size) {
+        String query = text.toUpperCase(Locale.ROOT);
+        int limit = (int) Math.min((long) from + size, Integer.MAX_VALUE);
+        PriorityQueue<Hit> top = new PriorityQueue<>(Hit.WORST_FIRST);
+        lock.readLock().lock();
+        try {
+            if (query.length() < FUZZY_MIN_LENGTH) {
+                Postings exact = postings.get(key(query, 0, query.length()));
+                for (int i = 0; exact != null && i < exact.size; i++) {
+                    long id = exact.ids[i];
+                    offer(top, new Hit(id, documents.get(id).name.contains(query) ? NAME_MATCH : DESCRIPTION_MATCH),
+                            limit);
+                }
+            } else {
+                for (long id : candidates(query)) {
+                    int score = documents.get(id).score(query);
+                    if (score > 0) {
+                        offer(top, new Hit(id, score), limit);
+                    }
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        LinkedList<Long> result = new LinkedList<>();
+        while (!top.isEmpty()) {
+            result.addFirst(top.poll().id);
+        }
+        return from >= result.size() ? List.of() : new ArrayList<>(result.subList(from, result.size()));
+    }
+
+    private static void offer(PriorityQueue<Hit> top, Hit hit, int limit) {
+        if (top.size() < limit) {
+            top.add(hit);
+        } else if (limit > 0 && Hit.WORST_FIRST.compare(hit, top.peek()) > 0) {
+            top.poll();
+            top.add(hit);
+        }
+    }
+
+    //An edit changes at most gram length grams of the query, so a document matching with one typo
+    //shares all but that many of the query grams. Bigrams are used for short queries to keep the bound useful.
+    //A document sharing the required number of k grams is in one of the k - required + 1 shortest lists,
+    //so only those are merged, the longer lists (the common grams) are probed for the merged ids.
+    long[] candidates(String query) {
+        int gram = query.length() >= 2 * MAX_GRAM ? MAX_GRAM : MAX_GRAM - 1;
+        Set<Long> keys = new HashSet<>();
+        for (int i = 0; i + gram <= query.length(); i++) {
+            keys.add(key(query, i, gram));
+        }
+        int required = Math.max(1, keys.size() - gram);
+        Postings[] lists = new Postings[keys.size()];
+        int count = 0;
+        for (long key : keys) {
+            Postings list = postings.get(key);
+            if (list != null) {
+                lists[count++] = list;
+            }
+        }
+        if (count < required) {
+            return new long[0];
+        }
+        Arrays.sort(lists, 0, count, Comparator.comparingInt(p -> p.size));
+        int merged = count - required + 1;
+        int[] positions = new int[merged];
+        long[] candidates = new long[16];
+        int found = 0;
+        while (true) {
+            long id = Long.MAX_VALUE;
+            for (int i = 0; i < merged; i++) {
+                if (positions[i] < lists[i].size) {
+                    id = Math.min(id, lists[i].ids[positions[i]]);
+                }
+            }
+            if (id == Long.MAX_VALUE) {
+                break;
+            }
+            int shared = 0;
+            for (int i = 0; i < merged; i++) {
+                if (positions[i] < lists[i].size && lists[i].ids[positions[i]] == id) {
+                    positions[i]++;
+                    shared++;
+                }
+            }
+            for (int i = merged; i < count && shared < required; i++) {
+                if (lists[i].indexOf(id) >= 0) {
+                    shared++;
+                }
+            }
+            if (shared >= required) {
+                if (found == candidates.length) {
+                    candidates = Arrays.copyOf(candidates, found * 2);
+                }
+                candidates[found++] = id;
+            }
+        }
+        return Arrays.copyOf(candidates, found);
+    }
+
+    //Whether the text has a substring within one edit of the query
+    static boolean containsWithTypo(String text, String query) {
+        int[] previous = new int[query.length() + 1];
+        int[] current = new int[query.length() + 1];
+        for (int i = 0; i <= query.length(); i++) {
+            previous[i] = i;
+        }
+        for (int j = 0; j < text.length(); j++) {
+            current[0] = 0;
+            for (int i = 1; i <= query.length(); i++) {
+                int substitution = previous[i - 1] + (query.charAt(i - 1) == text.charAt(j) ? 0 : 1);
+                current[i] = Math.min(substitution, Math.min(previous[i], current[i - 1]) + 1);
+            }
+            if (current[query.length()] <= 1) {
+                return true;
+            }
+            int[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+        return previous[query.length()] <= 1;
+    }
+
+    private static boolean containsInAll(Postings[] lists, long id) {
+        for (int i = 1; i < lists.length; i++) {
+            if (lists[i].indexOf(id) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void add(Long id, Document document) {
+        documents.put(id, document);
+        for (long key : document.keys()) {
+            postings.computeIfAbsent(key, k -> new Postings()).add(id);
+        }
+    }
+
+    private void remove(Long id, Document document) {
+        if (document == null) {
+            return;
+        }
+        documents.remove(id);
+        for (long key : document.keys()) {
+            Postings list = postings.get(key);
+            if (list != null && list.remove(id) && list.size == 0) {
+                postings.remove(key);
+            }
+        }
+    }
+
+    static long key(String text, int start, int length) {
+        long key = length;
+        for (int i = 0; i < MAX_GRAM; i++) {
+            key = (key << 16) | (i < length ? text.charAt(start + i) : 0);
+        }
+        return key;
+    }
+
+    private static final class Document {
+        final String name;
+        final String description;
+        final Long ownerId;
+
+        Document(String name, String description, Long ownerId) {
+            this.name = name == null ? "" : name.toUpperCase(Locale.ROOT);
+            this.description = description == null ? "" : description.toUpperCase(Locale.ROOT);
+            this.ownerId = ownerId;
+        }
+
+        boolean contains(String query) {
+            return name.contains(query) || description.contains(query);
+        }
+
+        int score(String query) {
+            if (name.contains(query)) {
+                return NAME_MATCH;
+            } else if (containsWithTypo(name, query)) {
+                return NAME_TYPO_MATCH;
+            } else if (description.contains(query)) {
+                return DESCRIPTION_MATCH;
+            } else if (containsWithTypo(description, query)) {
+                return DESCRIPTION_TYPO_MATCH;
+            }
+            return 0;
+        }
+
+        //distinct gram keys, sorted
+        long[] keys() {
+            long[] keys = new long[MAX_GRAM * (name.length() + description.length())];
+            int count = addKeys(description, keys, addKeys(name, keys, 0));
+            Arrays.sort(keys, 0, count);
+            int distinct = 0;
+            for (int i = 0; i < count; i++) {
+                if (distinct == 0 || keys[distinct - 1] != keys[i]) {
+                    keys[distinct++] = keys[i];
+                }
+            }
+            return Arrays.copyOf(keys, distinct);
+        }
+
+        private static int addKeys(String text, long[] keys, int count) {
+            for (int start = 0; start < text.length(); start++) {
+                for (int length = 1; length <= MAX_GRAM && start + length <= text.length(); length++) {
+                    keys[count++] = key(text, start, length);
+                }
+            }
+            return count;
+        }
+    }
+
+    private static final class Hit {
+        static final Comparator<Hit> WORST_FIRST = Comparator.<Hit>comparingInt(hit -> hit.score)
+                .thenComparing(hit -> hit.id, Comparator.reverseOrder());
+
+        final long id;
+        final int score;
+
+        Hit(long id, int score) {
+            this.id = id;
+            this.score = score;
+        }
+    }
+
+    //Sorted item ids sharing one gram
+    private static final class Postings {
+        long[] ids = new long[4];
+        int size;
+
+        int indexOf(long id) {
+            return Arrays.binarySearch(ids, 0, size, id);
+        }
+
+        void add(long id) {
+            int index = indexOf(id);
+            if (index >= 0) {
+                return;
+            }
+            index = -index - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+            }
+            System.arraycopy(ids, index, ids, index + 1, size - index);
+            ids[index] = id;
+            size++;
+        }
+
+        boolean remove(long id) {
+            int index = indexOf(id);
+            if (index < 0) {
+                return false;
+            }
+            System.arraycopy(ids, index + 1, ids, index, size - index - 1);
+            size--;
+            return true;
+        }
+
+        List<Long> slice(int from, int size) {
+            List<Long> result = new ArrayList<>();
+            for (int i = from; i < this.size && result.size() < size; i++) {
+                result.add(ids[i]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,151 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+//Distinct names of available items sorted case-insensitively, so completions of a prefix are a range of the map
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ItemSuggestIndex {
+    static final int WARM_BATCH_SIZE = 1000;
+
+    private final ItemRepository itemRepository;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final NavigableMap<String, Name> names = new TreeMap<>();
+    private final Map<Long, Entry> items = new HashMap<>();
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warm() {
+        lock.writeLock().lock();
+        try {
+            names.clear();
+            items.clear();
+            long lastId = 0;
+            List<ItemSearchView> batch;
+            do {
+                batch = itemRepository.findAvailableForSearch(lastId, PageRequest.of(0, WARM_BATCH_SIZE));
+                for (ItemSearchView item : batch) {
+                    add(item.getId(), item.getName(), item.getOwnerId());
+                    lastId = item.getId();
+                }
+            } while (batch.size() == WARM_BATCH_SIZE);
+            ready = true;
+            log.info("Item suggest index built: {} items, {} names", items.size(), names.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<String> suggest(String prefix, int size) {
+        String key = prefix.toUpperCase(Locale.ROOT);
+        if (!ready) {
+            String pattern = key.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%";
+            return itemRepository.findNamesByPattern(pattern, PageRequest.of(0, size));
+        }
+        List<String> result = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            for (Map.Entry<String, Name> name : names.tailMap(key, true).entrySet()) {
+                if (result.size() >= size || !name.getKey().startsWith(key)) {
+                    break;
+                }
+                result.add(name.getValue().display);
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return result;
+    }
+
+    public void index(Item item) {
+        lock.writeLock().lock();
+        try {
+            remove(item.getId(), items.get(item.getId()));
+            if (Boolean.TRUE.equals(item.getAvailable())) {
+                add(item.getId(), item.getName(), item.getOwner() == null ? null : item.getOwner().getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long itemId) {
+        lock.writeLock().lock();
+        try {
+            remove(itemId, items.get(itemId));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void removeByOwner(Long ownerId) {
+        lock.writeLock().lock();
+        try {
+            List<Long> itemIds = new ArrayList<>();
+            items.forEach((id, entry) -> {
+                if (ownerId.equals(entry.ownerId)) {
+                    itemIds.add(id);
+                }
+            });
+            itemIds.forEach(id -> remove(id, items.get(id)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void add(Long id, String name, Long ownerId) {
+        if (name == null || name.isBlank()) {
+            return;
+        }
+        String key = name.toUpperCase(Locale.ROOT);
+        items.put(id, new Entry(key, ownerId));
+        names.computeIfAbsent(key, k -> new Name(name)).count++;
+    }
+
+    private void remove(Long id, Entry entry) {
+        if (entry == null) {
+            return;
+        }
+        items.remove(id);
+        Name name = names.get(entry.key);
+        if (name != null && --name.count == 0) {
+            names.remove(entry.key);
+        }
+    }
+
+    private static final class Name {
+        final String display;
+        int count;
+
+        Name(String display) {
+            this.display = display;
+        }
+    }
+
+    private static final class Entry {
+        final String key;
+        final Long ownerId;
+
+        Entry(String key, Long ownerId) {
+            this.key = key;
+            this.ownerId = ownerId;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+@UtilityClass
+class SearchResults {
+    //loads the items of one result page keeping the order of the ids
+    static List<Item> fetch(ItemRepository itemRepository, List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        return itemRepository.findByIdIn(ids, Sort.by("id")).stream()
+                .sorted(Comparator.comparing(item -> positions.get(item.getId())))
+                .collect(Collectors.toList());
+    }
+}
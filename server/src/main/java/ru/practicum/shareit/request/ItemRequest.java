@@ -27,7 +27,7 @@ public class ItemRequest {
     @Column(nullable = false)
     String description;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "requester_id", referencedColumnName = "id")
     User requester;
 
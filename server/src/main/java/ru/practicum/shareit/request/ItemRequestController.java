@@ -6,7 +6,6 @@ import ru.practicum.shareit.request.dto.ItemRequestDto;
 
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 @RestController
@@ -23,23 +22,19 @@ public class ItemRequestController {
 
     @GetMapping
     public List<ItemRequestDto> findByRequester(@RequestHeader("X-Sharer-User-Id") Long userId) {
-        return requestService.findByUser(userId).stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return requestService.findByUser(userId);
     }
 
     @GetMapping("/{requestId}")
     public ItemRequestDto findById(@PathVariable Long requestId,
                                    @RequestHeader("X-Sharer-User-Id") Long userId) {
-        return ItemRequestMapper.toItemRequestDto(requestService.findById(requestId, userId));
+        return requestService.findById(requestId, userId);
     }
 
     @GetMapping("/all")
     public List<ItemRequestDto> findAll(@RequestHeader("X-Sharer-User-Id") Long userId,
                                         @RequestParam Optional<Integer> from,
                                         @RequestParam Optional<Integer> size) {
-        return requestService.findAll(userId, from.orElse(0), size.orElse(20)).stream()
-                .map(ItemRequestMapper::toItemRequestDto)
-                .collect(Collectors.toList());
+        return requestService.findAll(userId, from.orElse(0), size.orElse(20));
     }
 }
@@ -2,8 +2,11 @@ package ru.practicum.shareit.request;
 
 import lombok.experimental.UtilityClass;
 import ru.practicum.shareit.item.ItemMapper;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
 import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 
+import java.util.List;
 import java.util.stream.Collectors;
 
 @UtilityClass
@@ -12,7 +15,7 @@ public class ItemRequestMapper {
         return ItemRequestDto.builder()
                 .id(request.getId())
                 .description(request.getDescription())
-                .requester(request.getRequester())
+                .requesterId(request.getRequester().getId())
                 .created(request.getCreated())
                 .items(request.getItems().stream()
                         .map(ItemMapper::toItemDtoRequest)
@@ -20,11 +23,30 @@ public class ItemRequestMapper {
                 .build();
     }
 
+    public static ItemRequestDto toItemRequestDto(ItemRequest request, List<ItemDtoRequest> items) {
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .requesterId(request.getRequester().getId())
+                .created(request.getCreated())
+                .items(items)
+                .build();
+    }
+
+    public static ItemRequestDto toItemRequestDto(ItemRequestView request, List<ItemDtoRequest> items) {
+        return ItemRequestDto.builder()
+                .id(request.getId())
+                .description(request.getDescription())
+                .requesterId(request.getRequesterId())
+                .created(request.getCreated())
+                .items(items)
+                .build();
+    }
+
     public static ItemRequest toItemRequest(ItemRequestDto requestDto) {
         return ItemRequest.builder()
                 .id(requestDto.getId())
                 .description(requestDto.getDescription())
-                .requester(requestDto.getRequester())
                 .created(requestDto.getCreated())
                 .build();
     }
@@ -6,18 +6,25 @@ import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.common.exceptions.ItemRequestNotFound;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ItemRequestService {
     private final ItemRequestRepository requestRepository;
+    private final ItemRepository itemRepository;
     private final UserService userService;
 
     public ItemRequest create(ItemRequest request, Long userId) {
@@ -29,19 +36,33 @@ public class ItemRequestService {
         return request;
     }
 
-    public List<ItemRequest> findByUser(Long userId) {
+    public List<ItemRequestDto> findByUser(Long userId) {
         userService.findById(userId); //throws exception if user does not exist
-        return requestRepository.findByRequesterIdOrderByCreatedDesc(userId);
+        return withItems(requestRepository.findViewsByRequesterId(userId));
     }
 
-    public ItemRequest findById(Long id, Long userId) {
+    public ItemRequestDto findById(Long id, Long userId) {
         userService.findById(userId); //throws exception if user does not exist
-        return requestRepository.findById(id).orElseThrow(() -> new ItemRequestNotFound(id));
+        ItemRequest request = requestRepository.findById(id).orElseThrow(() -> new ItemRequestNotFound(id));
+        return ItemRequestMapper.toItemRequestDto(request, itemRepository.findByRequestIdIn(List.of(id)));
     }
 
-    public List<ItemRequest> findAll(Long userId, int from, int size) {
+    public List<ItemRequestDto> findAll(Long userId, int from, int size) {
         userService.findById(userId); //throws exception if user does not exist
-        return requestRepository.findByRequesterIdNot(userId,
-                OffsetPageRequest.of(from, size, Sort.by("created")));
+        return withItems(requestRepository.findViewsByRequesterIdNot(userId,
+                OffsetPageRequest.of(from, size, Sort.by("created"))));
+    }
+
+    private List<ItemRequestDto> withItems(List<ItemRequestView> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, List<ItemDtoRequest>> items = itemRepository
+                .findByRequestIdIn(requests.stream().map(ItemRequestView::getId).collect(Collectors.toList())).stream()
+                .collect(Collectors.groupingBy(ItemDtoRequest::getRequestId));
+        return requests.stream()
+                .map(request -> ItemRequestMapper.toItemRequestDto(request,
+                        items.getOrDefault(request.getId(), List.of())))
+                .collect(Collectors.toList());
     }
 }
@@ -5,7 +5,6 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.experimental.FieldDefaults;
 import ru.practicum.shareit.item.dto.ItemDtoRequest;
-import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -16,7 +15,7 @@ import java.util.List;
 public class ItemRequestDto {
     Long id;
     String description;
-    User requester;
+    Long requesterId;
     LocalDateTime created;
     List<ItemDtoRequest> items;
 }
@@ -2,12 +2,20 @@ package ru.practicum.shareit.request.repository;
 
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.request.ItemRequest;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 
 import java.util.List;
 
 public interface ItemRequestRepository extends JpaRepository<ItemRequest, Long> {
-    List<ItemRequest> findByRequesterIdOrderByCreatedDesc(Long userId);
+    String VIEW_SELECT = "select r.id as id, r.description as description, r.requester.id as requesterId, " +
+            "r.created as created " +
+            "from ItemRequest r ";
 
-    List<ItemRequest> findByRequesterIdNot(Long userId, Pageable pageable);
+    @Query(VIEW_SELECT + "where r.requester.id = ?1 order by r.created desc")
+    List<ItemRequestView> findViewsByRequesterId(Long userId);
+
+    @Query(VIEW_SELECT + "where r.requester.id <> ?1")
+    List<ItemRequestView> findViewsByRequesterIdNot(Long userId, Pageable pageable);
 }
@@ -1,10 +1,15 @@
 package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
@@ -33,10 +38,27 @@ public class UserController {
     }
 
     @GetMapping
-    public List<UserDto> findAll() {
-        return userService.findAll().stream()
+    public ResponseEntity<List<UserDto>> findAll(@RequestParam Optional<Integer> from,
+                                                 @RequestParam Optional<Integer> size,
+                                                 @RequestParam Optional<String> cursor) {
+        int pageSize = Math.min(size.orElse(20), UserService.MAX_PAGE_SIZE);
+        List<User> users = cursor.isPresent()
+                ? userService.findAll(UserCursor.decode(cursor.get()), pageSize)
+                : userService.findAll(from.orElse(0), pageSize);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (!users.isEmpty() && users.size() == pageSize) {
+            response.header(PageCursor.HEADER, UserCursor.of(users.get(users.size() - 1)).encode());
+        }
+        return response.body(users.stream()
                 .map(UserMapper::toUserDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAll() {
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(userService.exportAll());
     }
 
     @DeleteMapping("/{userId}")
@@ -0,0 +1,29 @@
+package ru.practicum.shareit.user;
+
+import lombok.AccessLevel;
+import lombok.Value;
+import lombok.experimental.FieldDefaults;
+import ru.practicum.shareit.common.PageCursor;
+
+@Value
+@FieldDefaults(level = AccessLevel.PRIVATE)
+public class UserCursor {
+    Long id;
+
+    public static UserCursor of(User user) {
+        return new UserCursor(user.getId());
+    }
+
+    public static UserCursor decode(String cursor) {
+        String[] parts = PageCursor.decode(cursor, 1);
+        try {
+            return new UserCursor(Long.valueOf(parts[0]));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+
+    public String encode() {
+        return PageCursor.encode(id.toString());
+    }
+}
@@ -0,0 +1,31 @@
+package ru.practicum.shareit.user;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.NdjsonWriter;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.stream.Stream;
+
+//Writes all users as newline-delimited JSON from a database cursor, rows are read as DTOs and never managed
+@Component
+public class UserExporter {
+    private final UserRepository userRepository;
+    private final NdjsonWriter<UserDto> writer;
+
+    public UserExporter(UserRepository userRepository, ObjectMapper objectMapper) {
+        this.userRepository = userRepository;
+        this.writer = new NdjsonWriter<>(objectMapper, UserDto.class);
+    }
+
+    @Transactional(readOnly = true)
+    public long exportAll(OutputStream out) throws IOException {
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            return writer.write(users.iterator(), out);
+        }
+    }
+}
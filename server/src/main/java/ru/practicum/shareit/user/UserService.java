@@ -2,8 +2,16 @@ package ru.practicum.shareit.user;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.booking.schedule.BookingIntervalIndex;
+import ru.practicum.shareit.booking.summary.BookingCounters;
+import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.common.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 import java.util.List;
@@ -12,7 +20,14 @@ import java.util.List;
 @RequiredArgsConstructor
 @Slf4j
 public class UserService {
+    static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
+    private final ItemSearch itemSearch;
+    private final ItemSuggestIndex suggestIndex;
+    private final BookingIntervalIndex intervalIndex;
+    private final BookingCounters bookingCounters;
+    private final UserExporter userExporter;
 
     public User create(User user) {
         user = userRepository.save(user);
@@ -38,12 +53,30 @@ public class UserService {
         return userRepository.findById(id).orElseThrow(() -> new UserNotFoundException(id));
     }
 
-    public List<User> findAll() {
-        return userRepository.findAll();
+    //page sizes above MAX_PAGE_SIZE are cut down, a single request never reads the whole table
+    public List<User> findAll(int from, int size) {
+        //a List result skips the count query findAll(Pageable) runs for its Page
+        return userRepository.findPage(OffsetPageRequest.of(from, Math.min(size, MAX_PAGE_SIZE), Sort.by("id")));
+    }
+
+    public List<User> findAll(UserCursor cursor, int size) {
+        return userRepository.findPageAfterId(cursor.getId(), PageRequest.of(0, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    public StreamingResponseBody exportAll() {
+        return out -> {
+            long count = userExporter.exportAll(out);
+            log.info("Export {} users", count);
+        };
     }
 
     public void deleteById(Long id) {
         userRepository.deleteById(id);
+        itemSearch.removeByOwner(id); //items are removed by cascade
+        suggestIndex.removeByOwner(id);
+        intervalIndex.removeByBooker(id); //bookings are removed by cascade
+        intervalIndex.removeByOwner(id); //and so are the bookings of the user's items
+        bookingCounters.invalidate();
         log.info("Delete user id: {}", id);
     }
 }
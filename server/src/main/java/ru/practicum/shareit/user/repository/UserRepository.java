@@ -1,8 +1,25 @@
 package ru.practicum.shareit.user.repository;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import javax.persistence.QueryHint;
+import java.util.List;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
+    @Query("select u from User u")
+    List<User> findPage(Pageable pageable);
+
+    @Query("select u from User u where u.id > ?1 order by u.id")
+    List<User> findPageAfterId(Long id, Pageable pageable);
 
+    @QueryHints({@QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")})
+    @Query("select new ru.practicum.shareit.user.dto.UserDto(u.id, u.email, u.name) from User u order by u.id")
+    Stream<UserDto> streamAll();
 }
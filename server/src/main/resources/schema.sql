@@ -23,6 +23,9 @@ CREATE TABLE requests
     CONSTRAINT fk_request_user FOREIGN KEY (requester_id) REFERENCES users (id) ON DELETE CASCADE
 );
 
+CREATE INDEX idx_requests_requester_created ON requests (requester_id, created DESC);
+CREATE INDEX idx_requests_created ON requests (created);
+
 CREATE TABLE items
 (
     id           BIGINT GENERATED BY DEFAULT AS IDENTITY NOT NULL,
@@ -33,9 +36,13 @@ CREATE TABLE items
     request_id   BIGINT,
     CONSTRAINT pk_item PRIMARY KEY (id),
     CONSTRAINT item_user FOREIGN KEY (owner_id) REFERENCES users (id) ON DELETE CASCADE,
+    CONSTRAINT uq_item_owner UNIQUE (id, owner_id),
     CONSTRAINT fk_item_request FOREIGN KEY (request_id) REFERENCES requests (id) ON DELETE SET NULL
 );
 
+CREATE INDEX idx_items_owner ON items (owner_id, id);
+CREATE INDEX idx_items_request ON items (request_id);
+
 CREATE TABLE bookings
 (
     id         BIGINT GENERATED ALWAYS AS IDENTITY,
@@ -43,12 +50,22 @@ CREATE TABLE bookings
     end_date   TIMESTAMP WITHOUT TIME ZONE NOT NULL,
     item_id    BIGINT                      NOT NULL,
     booker_id  BIGINT                      NOT NULL,
+    owner_id   BIGINT                      NOT NULL,
     status     VARCHAR(20)                 NOT NULL,
     CONSTRAINT pk_booking PRIMARY KEY (id),
     CONSTRAINT booking_user FOREIGN KEY (booker_id) REFERENCES users (id) ON DELETE CASCADE,
-    CONSTRAINT booking_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
+    CONSTRAINT booking_item FOREIGN KEY (item_id, owner_id) REFERENCES items (id, owner_id)
+        ON DELETE CASCADE ON UPDATE CASCADE
 );
 
+CREATE INDEX idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+CREATE INDEX idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+CREATE INDEX idx_bookings_item_booker_status_start ON bookings (item_id, booker_id, status, start_date);
+CREATE INDEX idx_bookings_booker_start ON bookings (booker_id, start_date DESC);
+CREATE INDEX idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+CREATE INDEX idx_bookings_owner_start ON bookings (owner_id, start_date DESC);
+CREATE INDEX idx_bookings_owner_status_start ON bookings (owner_id, status, start_date DESC);
+
 CREATE TABLE comments
 (
     id        BIGINT GENERATED BY DEFAULT AS IDENTITY,
@@ -59,4 +76,7 @@ CREATE TABLE comments
     CONSTRAINT pk_comment PRIMARY KEY (id),
     CONSTRAINT comment_user FOREIGN KEY (author_id) REFERENCES users (id) ON DELETE CASCADE,
     CONSTRAINT comment_item FOREIGN KEY (item_id) REFERENCES items (id) ON DELETE CASCADE
-);
\ No newline at end of file
+);
+
+CREATE INDEX idx_comments_item ON comments (item_id);
+CREATE INDEX idx_comments_author ON comments (author_id);
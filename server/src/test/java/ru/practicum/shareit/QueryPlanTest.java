@@ -0,0 +1,207 @@
+package ru.practicum.shareit;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.TestFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.item.repository.CommentRepository;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.repository.ItemRequestRepository;
+import ru.practicum.shareit.user.repository.UserRepository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Runs every repository query against a seeded database and checks with EXPLAIN that no table larger than
+//SCAN_THRESHOLD rows is read by a full scan. Substring searches (findByText*) scan by design and are left out,
+//PostgreSQL-only native queries can not be planned by H2.
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+        "ru.practicum.shareit.QueryPlanTest$StatementRecorder")
+@DirtiesContext
+@Sql(scripts = {"classpath:schema.sql", "classpath:data_QueryPlanTest.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class QueryPlanTest {
+    private static final long SCAN_THRESHOLD = 1000;
+    private static final Pattern TABLE_SCAN = Pattern.compile("PUBLIC\\.(\\w+)\\.tableScan");
+    private static final List<BookingStatus> ACTIVE = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    private final LocalDateTime now = LocalDateTime.of(2021, 1, 1, 10, 0);
+    private final Pageable page = OffsetPageRequest.of(0, 20, Sort.by("start", "id").descending());
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private ItemRequestRepository requestRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @TestFactory
+    Stream<DynamicTest> repositoryQueriesUseIndexesTest() {
+        Map<String, Runnable> queries = new LinkedHashMap<>();
+        queries.put("Booking.findViewByIdAndOwnerOrBooker", () -> bookingRepository
+                .findViewByIdAndOwnerOrBooker(5L, 7L));
+        queries.put("Booking.updateStatus", () -> bookingRepository.updateStatus(
+                3L, 5L, BookingStatus.APPROVED, BookingStatus.WAITING));
+        queries.put("Booking.updateStatusesCase", () -> bookingRepository.updateStatuses(
+                List.of(3L, 6L), 5L, List.of(3L), BookingStatus.APPROVED, BookingStatus.REJECTED));
+        queries.put("Booking.updateStatuses", () -> bookingRepository.updateStatuses(
+                List.of(3L, 6L), 5L, BookingStatus.APPROVED));
+        queries.put("Booking.findStatusesForUpdate", () -> transactionTemplate.executeWithoutResult(
+                status -> bookingRepository.findStatusesForUpdate(List.of(3L, 6L), 5L)));
+        queries.put("Booking.findStatusByIdAndOwnerId", () -> bookingRepository.findStatusByIdAndOwnerId(3L, 5L));
+        queries.put("Booking.countStatusesByBookerId", () -> bookingRepository.countStatusesByBookerId(7L));
+        queries.put("Booking.countStatusesByOwnerId", () -> bookingRepository.countStatusesByOwnerId(5L));
+        queries.put("Booking.countPeriodsByBookerId", () -> bookingRepository.countPeriodsByBookerId(7L, now));
+        queries.put("Booking.countPeriodsByOwnerId", () -> bookingRepository.countPeriodsByOwnerId(5L, now));
+        queries.put("Booking.streamViewsByOwnerId", () -> transactionTemplate.executeWithoutResult(
+                status -> bookingRepository.streamViewsByOwnerId(5L).close()));
+        queries.put("Booking.findViewById", () -> bookingRepository.findViewById(3L));
+        queries.put("Booking.existsByItemIdAndBookerIdAndStatusAndStartBefore", () -> bookingRepository
+                .existsByItemIdAndBookerIdAndStatusAndStartBefore(5L, 36L, BookingStatus.APPROVED, now));
+        queries.put("Booking.existsByItemIdAndStatusInAndStartBeforeAndEndAfter", () -> bookingRepository
+                .existsByItemIdAndStatusInAndStartBeforeAndEndAfter(5L, ACTIVE, now.plusHours(1), now));
+        queries.put("Booking.findIntervals", () -> bookingRepository.findIntervals(
+                ACTIVE, now, 0L, PageRequest.of(0, 1000)));
+        queries.put("Booking.findIntervalsByItemId", () -> bookingRepository.findIntervalsByItemId(5L, ACTIVE, now));
+        queries.put("Booking.findLastByItemId", () -> bookingRepository.findLastByItemId(
+                5L, BookingStatus.APPROVED, now, PageRequest.of(0, 1)));
+        queries.put("Booking.findNextByItemId", () -> bookingRepository.findNextByItemId(
+                5L, BookingStatus.APPROVED, now, PageRequest.of(0, 1)));
+        queries.put("Booking.findLastByItemIds", () -> bookingRepository.findLastByItemIds(
+                List.of(5L, 6L), BookingStatus.APPROVED.name(), now));
+        queries.put("Booking.findNextByItemIds", () -> bookingRepository.findNextByItemIds(
+                List.of(5L, 6L), BookingStatus.APPROVED.name(), now));
+        queries.put("Booking.findByBookerId", () -> bookingRepository.findByBookerId(7L, page));
+        queries.put("Booking.findByBookerIdAndStatus", () -> bookingRepository.findByBookerIdAndStatus(
+                7L, BookingStatus.WAITING, page));
+        queries.put("Booking.findByBookerIdAndStartAfter", () -> bookingRepository.findByBookerIdAndStartAfter(
+                7L, now, page));
+        queries.put("Booking.findByBookerIdAndEndBefore", () -> bookingRepository.findByBookerIdAndEndBefore(
+                7L, now, page));
+        queries.put("Booking.findByBookerIdAndStartBeforeAndEndAfter", () -> bookingRepository
+                .findByBookerIdAndStartBeforeAndEndAfter(7L, now, now, page));
+        queries.put("Booking.findByOwnerId", () -> bookingRepository.findByOwnerId(5L, page));
+        queries.put("Booking.findByOwnerIdAndStatus", () -> bookingRepository.findByOwnerIdAndStatus(
+                5L, BookingStatus.WAITING, page));
+        queries.put("Booking.findByOwnerIdAndStartAfter", () -> bookingRepository.findByOwnerIdAndStartAfter(
+                5L, now, page));
+        queries.put("Booking.findByOwnerIdAndEndBefore", () -> bookingRepository.findByOwnerIdAndEndBefore(
+                5L, now, page));
+        queries.put("Booking.findByOwnerIdAndStartBeforeAndEndAfter", () -> bookingRepository
+                .findByOwnerIdAndStartBeforeAndEndAfter(5L, now, now, page));
+        queries.put("Booking.findPageByBookerId", () -> bookingRepository.findPageByBookerId(
+                7L, now, 100L, PageRequest.of(0, 20)));
+        queries.put("Booking.findPageByBookerIdAndStatus", () -> bookingRepository.findPageByBookerIdAndStatus(
+                7L, BookingStatus.WAITING, now, 100L, PageRequest.of(0, 20)));
+        queries.put("Booking.findPageByBookerIdAndStartAfter", () -> bookingRepository
+                .findPageByBookerIdAndStartAfter(7L, now, now, 100L, PageRequest.of(0, 20)));
+        queries.put("Booking.findPageByBookerIdAndEndBefore", () -> bookingRepository
+                .findPageByBookerIdAndEndBefore(7L, now, now, 100L, PageRequest.of(0, 20)));
+        queries.put("Booking.findPageByBookerIdAndStartBeforeAndEndAfter", () -> bookingRepository
+                .findPageByBookerIdAndStartBeforeAndEndAfter(7L, now, now, now, 100L, PageRequest.of(0, 20)));
+        queries.put("Booking.findPageByOwnerId", () -> bookingRepository.findPageByOwnerId(
+                5L, now, 100L, PageRequest.of(0, 20)));
+        queries.put("Booking.findPageByOwnerIdAndStatus", () -> bookingRepository.findPageByOwnerIdAndStatus(
+                5L, BookingStatus.WAITING, now, 100L, PageRequest.of(0, 20)));
+        queries.put("Booking.findPageByOwnerIdAndStartAfter", () -> bookingRepository
+                .findPageByOwnerIdAndStartAfter(5L, now, now, 100L, PageRequest.of(0, 20)));
+        queries.put("Booking.findPageByOwnerIdAndEndBefore", () -> bookingRepository
+                .findPageByOwnerIdAndEndBefore(5L, now, now, 100L, PageRequest.of(0, 20)));
+        queries.put("Booking.findPageByOwnerIdAndStartBeforeAndEndAfter", () -> bookingRepository
+                .findPageByOwnerIdAndStartBeforeAndEndAfter(5L, now, now, now, 100L, PageRequest.of(0, 20)));
+        queries.put("User.findPageAfterId", () -> userRepository.findPageAfterId(100L, PageRequest.of(0, 20)));
+        queries.put("User.streamAll", () -> transactionTemplate.executeWithoutResult(
+                status -> userRepository.streamAll().close()));
+        queries.put("Item.findViewsByOwnerId", () -> itemRepository.findViewsByOwnerId(
+                5L, OffsetPageRequest.of(0, 20, Sort.by("id"))));
+        queries.put("Item.findAvailableForSearch", () -> itemRepository.findAvailableForSearch(
+                0L, PageRequest.of(0, 1000)));
+        queries.put("Item.findByIdIn", () -> itemRepository.findByIdIn(List.of(5L, 6L), Sort.by("id")));
+        queries.put("Item.findByRequestIdIn", () -> itemRepository.findByRequestIdIn(List.of(5L, 6L)));
+        queries.put("Comment.findByItemId", () -> commentRepository.findByItemId(5L));
+        queries.put("Comment.findViewsByItemIdIn", () -> commentRepository.findViewsByItemIdIn(List.of(5L, 6L)));
+        queries.put("ItemRequest.findViewsByRequesterId", () -> requestRepository.findViewsByRequesterId(5L));
+        queries.put("ItemRequest.findViewsByRequesterIdNot", () -> requestRepository.findViewsByRequesterIdNot(
+                5L, OffsetPageRequest.of(0, 20, Sort.by("created"))));
+
+        return queries.entrySet().stream()
+                .map(query -> DynamicTest.dynamicTest(query.getKey(), () -> assertNoLargeTableScans(query.getValue())));
+    }
+
+    private void assertNoLargeTableScans(Runnable query) {
+        StatementRecorder.STATEMENTS.clear();
+        query.run();
+        List<String> statements = new ArrayList<>(StatementRecorder.STATEMENTS);
+        assertFalse(statements.isEmpty());
+        for (String sql : statements) {
+            String plan = explain(sql);
+            Matcher scan = TABLE_SCAN.matcher(plan);
+            while (scan.find()) {
+                Long rows = jdbcTemplate.queryForObject("select count(*) from " + scan.group(1), Long.class);
+                assertTrue(rows <= SCAN_THRESHOLD, "Full scan of " + scan.group(1) + " (" + rows + " rows): " + plan);
+            }
+        }
+    }
+
+    //parameters are left null, H2 chooses indexes from the shape of the conditions
+    private String explain(String sql) {
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+                int parameters = statement.getParameterMetaData().getParameterCount();
+                for (int i = 1; i <= parameters; i++) {
+                    statement.setObject(i, null);
+                }
+                StringBuilder plan = new StringBuilder();
+                try (ResultSet result = statement.executeQuery()) {
+                    while (result.next()) {
+                        plan.append(result.getString(1));
+                    }
+                }
+                return plan.toString();
+            }
+        });
+    }
+
+    public static class StatementRecorder implements StatementInspector {
+        static final List<String> STATEMENTS = Collections.synchronizedList(new ArrayList<>());
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+}
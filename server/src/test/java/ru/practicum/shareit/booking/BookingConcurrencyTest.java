@@ -0,0 +1,141 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingIntervalIndex;
+import ru.practicum.shareit.common.exceptions.BookingConflictException;
+import ru.practicum.shareit.item.Item;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql(scripts = {"classpath:schema.sql", "classpath:data_BookingConcurrencyTest.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class BookingConcurrencyTest {
+    private static final int ITEMS = 10;
+    private static final int BOOKERS = 20;
+    private static final int THREADS = 32;
+
+    private LocalDateTime base;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingIntervalIndex intervalIndex;
+
+    @BeforeEach
+    void setUp() {
+        intervalIndex.warm();
+        base = LocalDateTime.now().plusDays(1).truncatedTo(ChronoUnit.HOURS);
+    }
+
+    @Test
+    void exactlyOneCreateWinsPerSlotTest() throws Exception {
+        int slots = 3;
+        int attempts = 100;
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            for (int slot = 0; slot < slots; slot++) {
+                for (int attempt = 0; attempt < attempts; attempt++) {
+                    LocalDateTime start = base.plusHours(slot * 2L);
+                    tasks.add(create(itemId, 2L + attempt % BOOKERS, start, start.plusHours(2)));
+                }
+            }
+        }
+        assertEquals(ITEMS * slots, run(tasks));
+
+        List<Booking> bookings = bookingRepository.findAll();
+        assertEquals(ITEMS * slots, bookings.size());
+        Map<Long, Set<LocalDateTime>> startsByItem = bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId(),
+                        Collectors.mapping(Booking::getStart, Collectors.toSet())));
+        for (long itemId = 1; itemId <= ITEMS; itemId++) {
+            assertEquals(slots, startsByItem.get(itemId).size());
+        }
+    }
+
+    @Test
+    void concurrentPartialOverlapsNeverDoubleBookTest() throws Exception {
+        Random random = new Random(42);
+        List<Callable<Boolean>> tasks = new ArrayList<>();
+        for (int i = 0; i < 3000; i++) {
+            long itemId = 1 + random.nextInt(ITEMS);
+            LocalDateTime start = base.plusMinutes(random.nextInt(24 * 60));
+            tasks.add(create(itemId, 2L + random.nextInt(BOOKERS), start, start.plusMinutes(30 + random.nextInt(180))));
+        }
+        int created = run(tasks);
+
+        List<Booking> bookings = bookingRepository.findAll();
+        assertEquals(created, bookings.size());
+        Map<Long, List<Booking>> byItem = bookings.stream()
+                .collect(Collectors.groupingBy(booking -> booking.getItem().getId()));
+        assertEquals(ITEMS, byItem.size());
+        for (List<Booking> itemBookings : byItem.values()) {
+            itemBookings.sort(Comparator.comparing(Booking::getStart));
+            for (int i = 1; i < itemBookings.size(); i++) {
+                assertFalse(itemBookings.get(i).getStart().isBefore(itemBookings.get(i - 1).getEnd()),
+                        "bookings " + itemBookings.get(i - 1).getId() + " and " + itemBookings.get(i).getId());
+            }
+        }
+    }
+
+    private Callable<Boolean> create(Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end) {
+        return () -> {
+            Booking booking = Booking.builder()
+                    .item(Item.builder().id(itemId).build())
+                    .start(start)
+                    .end(end)
+                    .build();
+            try {
+                bookingService.create(booking, bookerId);
+                return true;
+            } catch (BookingConflictException e) {
+                return false;
+            }
+        };
+    }
+
+    //returns the number of successful creates
+    private static int run(List<Callable<Boolean>> tasks) throws Exception {
+        Collections.shuffle(tasks, new Random(7));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger created = new AtomicInteger();
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (Callable<Boolean> task : tasks) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    if (task.call()) {
+                        created.incrementAndGet();
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(1, TimeUnit.MINUTES);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        return created.get();
+    }
+}
@@ -9,9 +9,16 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.common.PageCursor;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.user.User;
 
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -23,6 +30,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @WebMvcTest(controllers = BookingController.class)
 class BookingControllerTest {
     private Booking booking;
+    private BookingView view;
     private LocalDateTime start;
     private LocalDateTime end;
 
@@ -51,7 +59,14 @@ class BookingControllerTest {
                         .id(1L)
                         .build())
                 .build();
-        Mockito.when(mockService.findById(1L, 1L)).thenReturn(booking);
+        view = Mockito.mock(BookingView.class);
+        Mockito.when(view.getId()).thenReturn(1L);
+        Mockito.when(view.getStatus()).thenReturn(BookingStatus.WAITING);
+        Mockito.when(view.getStartDate()).thenReturn(start);
+        Mockito.when(view.getEndDate()).thenReturn(end);
+        Mockito.when(view.getItemId()).thenReturn(1L);
+        Mockito.when(view.getBookerId()).thenReturn(1L);
+        Mockito.when(mockService.findById(1L, 1L)).thenReturn(view);
     }
 
     @Test
@@ -86,7 +101,7 @@ class BookingControllerTest {
     @Test
     void findByBookerTest() throws Exception {
         Mockito.when(mockService.findByBooker(1L, "ALL", 0, 20))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view));
         mvc.perform(get("/bookings")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", 1L))
@@ -102,7 +117,7 @@ class BookingControllerTest {
     @Test
     void findByOwnerTest() throws Exception {
         Mockito.when(mockService.findByOwner(1L, "ALL", 0, 20))
-                .thenReturn(List.of(booking));
+                .thenReturn(List.of(view));
         mvc.perform(get("/bookings/owner")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", 1L))
@@ -115,10 +130,48 @@ class BookingControllerTest {
         Mockito.verify(mockService, Mockito.times(1)).findByOwner(1L, "ALL", 0, 20);
     }
 
+    @Test
+    void findByBookerNextCursorTest() throws Exception {
+        Mockito.when(mockService.findByBooker(1L, "ALL", 0, 1))
+                .thenReturn(List.of(view));
+        mvc.perform(get("/bookings")
+                        .param("size", "1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(PageCursor.HEADER, BookingCursor.of(view).encode()));
+    }
+
+    @Test
+    void findByOwnerCursorTest() throws Exception {
+        BookingCursor cursor = BookingCursor.of(view);
+        Mockito.when(mockService.findByOwner(1L, "ALL", cursor, 20))
+                .thenReturn(List.of(view));
+        mvc.perform(get("/bookings/owner")
+                        .param("cursor", cursor.encode())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(header().doesNotExist(PageCursor.HEADER));
+        Mockito.verify(mockService, Mockito.times(1)).findByOwner(1L, "ALL", cursor, 20);
+    }
+
+    @Test
+    void findByBookerInvalidCursorTest() throws Exception {
+        mvc.perform(get("/bookings")
+                        .param("cursor", "invalid")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void updateStatusTest() throws Exception {
         booking.setStatus(BookingStatus.APPROVED);
-        Mockito.when(mockService.updateStatus(1L, 1L, true)).thenReturn(booking);
+        Mockito.when(mockService.updateStatus(1L, 1L, true)).thenReturn(BookingMapper.toBookingDto(booking));
         mvc.perform(patch("/bookings/1")
                         .contentType(MediaType.APPLICATION_JSON)
                         .param("approved", String.valueOf(true))
@@ -130,4 +183,52 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$.end", is(end.toString())));
         Mockito.verify(mockService, Mockito.times(1)).updateStatus(1L, 1L, true);
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateStatesTest() throws Exception {
+        List<BookingDecisionDto> decisions = List.of(
+                BookingDecisionDto.builder().bookingId(1L).approved(true).build(),
+                BookingDecisionDto.builder().bookingId(2L).approved(false).build());
+        Mockito.when(mockService.updateStatuses(1L, decisions)).thenReturn(List.of(
+                new BookingDecisionResultDto(1L, BookingDecisionResultDto.Result.UPDATED, BookingStatus.APPROVED),
+                new BookingDecisionResultDto(2L, BookingDecisionResultDto.Result.NOT_FOUND, null)));
+        mvc.perform(patch("/bookings/owner/batch")
+                        .content(mapper.writeValueAsString(decisions))
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].bookingId", is(1)))
+                .andExpect(jsonPath("$[0].result", is("UPDATED")))
+                .andExpect(jsonPath("$[0].status", is("APPROVED")))
+                .andExpect(jsonPath("$[1].result", is("NOT_FOUND")));
+    }
+
+    @Test
+    void findOwnerSummaryTest() throws Exception {
+        Mockito.when(mockService.findOwnerSummary(1L)).thenReturn(BookingSummaryDto.builder()
+                .all(5L).current(1L).past(1L).future(3L).waiting(2L).approved(2L).rejected(1L)
+                .build());
+        mvc.perform(get("/bookings/owner/summary")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.all", is(5)))
+                .andExpect(jsonPath("$.future", is(3)))
+                .andExpect(jsonPath("$.waiting", is(2)));
+        Mockito.verify(mockService, Mockito.times(1)).findOwnerSummary(1L);
+    }
+
+    @Test
+    void exportByOwnerTest() throws Exception {
+        Mockito.when(mockService.exportByOwner(1L))
+                .thenReturn(out -> out.write("{\"id\":1}\n{\"id\":2}\n".getBytes(StandardCharsets.UTF_8)));
+        MvcResult result = mvc.perform(get("/bookings/owner/export")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n{\"id\":2}\n"));
+    }
+}
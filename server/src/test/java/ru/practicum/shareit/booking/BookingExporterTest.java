@@ -0,0 +1,56 @@
+package ru.practicum.shareit.booking;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.booking.dto.BookingDto;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql(scripts = {"classpath:schema.sql", "classpath:data_BookingRepositoryTest.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class BookingExporterTest {
+    @Autowired
+    private BookingExporter bookingExporter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void exportByOwnerTest() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(5, bookingExporter.exportByOwner(3L, out));
+        String content = out.toString(StandardCharsets.UTF_8);
+        assertTrue(content.endsWith("\n"));
+        List<BookingDto> bookings = new ArrayList<>();
+        for (String line : content.split("\n")) {
+            bookings.add(objectMapper.readValue(line, BookingDto.class));
+        }
+        List<Long> ids = new ArrayList<>();
+        bookings.forEach(booking -> ids.add(booking.getId()));
+        assertEquals(List.of(9L, 10L, 8L, 7L, 6L), ids);
+        BookingDto first = bookings.get(0);
+        assertEquals(LocalDateTime.of(2030, 5, 1, 10, 0), first.getStart());
+        assertEquals("testItem2", first.getItem().getName());
+        assertEquals(4L, first.getBooker().getId());
+        assertEquals(BookingStatus.APPROVED, first.getStatus());
+    }
+
+    @Test
+    void exportWithoutBookingsTest() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        assertEquals(0, bookingExporter.exportByOwner(2L, out));
+        assertEquals(0, out.size());
+    }
+}
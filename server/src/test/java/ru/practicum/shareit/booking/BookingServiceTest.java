@@ -6,20 +6,37 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.booking.dto.BookingDecisionDto;
+import ru.practicum.shareit.booking.dto.BookingDecisionResultDto;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.dto.BookingPeriodCountView;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
+import ru.practicum.shareit.booking.dto.BookingSummaryDto;
+import ru.practicum.shareit.booking.dto.BookingView;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingIntervalIndex;
+import ru.practicum.shareit.booking.summary.BookingCounters;
 import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.common.exceptions.BookingConflictException;
 import ru.practicum.shareit.common.exceptions.BookingNotFoundException;
-import ru.practicum.shareit.common.exceptions.UserIsNotOwnerException;
+import ru.practicum.shareit.common.exceptions.ItemNotFoundException;
+import ru.practicum.shareit.common.exceptions.UserNotFoundException;
 import ru.practicum.shareit.item.Item;
 import ru.practicum.shareit.item.ItemService;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
 import javax.validation.ValidationException;
+import java.io.ByteArrayOutputStream;
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.eq;
@@ -46,6 +63,18 @@ class BookingServiceTest {
     @MockBean
     private BookingRepository mockRepository;
 
+    @MockBean
+    private BookingIntervalIndex mockIntervalIndex;
+
+    @MockBean
+    private BookingCounters mockCounters;
+
+    @MockBean
+    private BookingExporter mockExporter;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
     @BeforeEach
     void setUp() {
         owner = User.builder().id(1L).build();
@@ -65,19 +94,44 @@ class BookingServiceTest {
                 .build();
         Mockito.when(mockUserService.findById(1L)).thenReturn(owner);
         Mockito.when(mockUserService.findById(2L)).thenReturn(booker);
-        Mockito.when(mockRepository.findByIdAndItemOwnerId(eq(1L), Mockito.anyLong())).thenReturn(Optional.of(booking));
+        Mockito.when(mockCounters.beginChange()).thenReturn(7L);
 
         from = 0;
         size = 20;
-        pageable = OffsetPageRequest.of(from, size, Sort.by("start").descending());
+        pageable = OffsetPageRequest.of(from, size, Sort.by("start", "id").descending());
     }
 
     @Test
     void createTest() {
         Mockito.when(mockItemService.findForBookingById(1L, 2L)).thenReturn(item);
         Mockito.when(mockRepository.save(booking)).thenReturn(booking);
-        assertEquals(booking, bookingService.create(booking, 1L));
+        assertEquals(booking, bookingService.create(booking, 2L));
+        assertEquals(1L, booking.getOwnerId());
         Mockito.verify(mockRepository, Mockito.times(1)).save(booking);
+        Mockito.verify(mockIntervalIndex, Mockito.times(1)).index(booking);
+        Mockito.verify(mockCounters, Mockito.times(1)).created(7L, 2L, 1L);
+    }
+
+    @Test
+    void createOverlappingTest() {
+        Mockito.when(mockItemService.findForBookingById(1L, 2L)).thenReturn(item);
+        Mockito.when(mockIntervalIndex.overlaps(1L, booking.getStart(), booking.getEnd())).thenReturn(true);
+        assertThrows(BookingConflictException.class, () -> bookingService.create(booking, 2L));
+        Mockito.verify(mockRepository, Mockito.never()).save(Mockito.any());
+    }
+
+    @Test
+    void createOverlappingUnknownItemTest() {
+        Mockito.when(mockItemService.findForBookingById(1L, 2L)).thenThrow(new ItemNotFoundException(1L));
+        Mockito.when(mockIntervalIndex.overlaps(1L, booking.getStart(), booking.getEnd())).thenReturn(true);
+        assertThrows(ItemNotFoundException.class, () -> bookingService.create(booking, 2L));
+    }
+
+    @Test
+    void createOverlappingUnknownUserTest() {
+        Mockito.when(mockUserService.findById(3L)).thenThrow(new UserNotFoundException(3L));
+        Mockito.when(mockIntervalIndex.overlaps(1L, booking.getStart(), booking.getEnd())).thenReturn(true);
+        assertThrows(UserNotFoundException.class, () -> bookingService.create(booking, 3L));
     }
 
     @Test
@@ -87,12 +141,21 @@ class BookingServiceTest {
         assertThrows(ValidationException.class, () -> bookingService.create(booking, 1L));
     }
 
+    @Test
+    void createAfterLatestDateTest() {
+        booking.setStart(BookingIntervalIndex.LATEST_DATE);
+        booking.setEnd(BookingIntervalIndex.LATEST_DATE.plusDays(1));
+        assertThrows(ValidationException.class, () -> bookingService.create(booking, 2L));
+        Mockito.verify(mockRepository, Mockito.never()).save(Mockito.any());
+    }
+
     @Test
     void findByIdTest() {
-        Mockito.when(mockRepository.findByIdAndOwnerOrBooker(1L, 1L)).thenReturn(Optional.of(booking));
-        assertEquals(booking, bookingService.findById(1L, 1L));
+        BookingView view = view(BookingStatus.WAITING);
+        Mockito.when(mockRepository.findViewByIdAndOwnerOrBooker(1L, 1L)).thenReturn(Optional.of(view));
+        assertEquals(view, bookingService.findById(1L, 1L));
         Mockito.verify(mockRepository, Mockito.times(1))
-                .findByIdAndOwnerOrBooker(1L, 1L);
+                .findViewByIdAndOwnerOrBooker(1L, 1L);
     }
 
     @Test
@@ -102,37 +165,153 @@ class BookingServiceTest {
 
     @Test
     void updateStatusApprovedTest() {
-        bookingService.updateStatus(1L, 1L, true);
-        assertEquals(BookingStatus.APPROVED, booking.getStatus());
-        Mockito.verify(mockRepository, Mockito.times(1)).save(booking);
+        BookingView view = view(BookingStatus.APPROVED);
+        Mockito.when(mockRepository.updateStatus(1L, 1L, BookingStatus.APPROVED, BookingStatus.WAITING))
+                .thenReturn(1);
+        Mockito.when(mockRepository.findViewById(1L)).thenReturn(Optional.of(view));
+        BookingDto result = bookingService.updateStatus(1L, 1L, true);
+        assertEquals(1L, result.getId());
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
+        assertEquals(1L, result.getItem().getId());
+        assertEquals(2L, result.getBooker().getId());
+        Mockito.verify(mockIntervalIndex, Mockito.never()).remove(Mockito.anyLong(), Mockito.anyLong());
     }
 
     @Test
     void updateStatusRejectedTest() {
-        bookingService.updateStatus(1L, 1L, false);
-        assertEquals(BookingStatus.REJECTED, booking.getStatus());
-        Mockito.verify(mockRepository, Mockito.times(1)).save(booking);
+        BookingView view = view(BookingStatus.REJECTED);
+        Mockito.when(mockRepository.updateStatus(1L, 1L, BookingStatus.REJECTED, BookingStatus.WAITING))
+                .thenReturn(1);
+        Mockito.when(mockRepository.findViewById(1L)).thenReturn(Optional.of(view));
+        assertEquals(BookingStatus.REJECTED, bookingService.updateStatus(1L, 1L, false).getStatus());
+        Mockito.verify(mockIntervalIndex, Mockito.times(1)).remove(1L, 1L);
+        Mockito.verify(mockCounters, Mockito.times(1))
+                .statusChanged(7L, 2L, 1L, BookingStatus.WAITING, BookingStatus.REJECTED);
     }
 
     @Test
     void updateStatusNotFound() {
         assertThrows(BookingNotFoundException.class,
                 () -> bookingService.updateStatus(2L, 1L, true));
+        Mockito.verify(mockRepository, Mockito.never()).findViewById(Mockito.anyLong());
     }
 
     @Test
     void updateStatusAlreadyApproved() {
-        booking.setStatus(BookingStatus.APPROVED);
+        Mockito.when(mockRepository.findStatusByIdAndOwnerId(1L, 1L)).thenReturn(Optional.of(BookingStatus.APPROVED));
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.updateStatus(1L, 1L, true));
+    }
+
+    @Test
+    void updateStatusAlreadyRejected() {
+        Mockito.when(mockRepository.findStatusByIdAndOwnerId(1L, 1L)).thenReturn(Optional.of(BookingStatus.REJECTED));
         assertThrows(IllegalArgumentException.class,
                 () -> bookingService.updateStatus(1L, 1L, true));
     }
 
     @Test
     void updateStatusNotOwner() {
-        assertThrows(UserIsNotOwnerException.class,
+        assertThrows(BookingNotFoundException.class,
                 () -> bookingService.updateStatus(1L, 2L, true));
     }
 
+    @Test
+    void updateStatusesTest() {
+        List<Long> ids = List.of(1L, 2L, 3L, 4L, 5L);
+        List<BookingStatusView> views = List.of(
+                statusView(1L, 10L, BookingStatus.WAITING),
+                statusView(2L, 10L, BookingStatus.WAITING),
+                statusView(3L, 11L, BookingStatus.APPROVED),
+                statusView(5L, 11L, BookingStatus.WAITING));
+        Mockito.when(mockRepository.findStatusesForUpdate(Set.copyOf(ids), 1L)).thenReturn(views);
+        List<BookingDecisionResultDto> results = bookingService.updateStatuses(1L, List.of(
+                decision(1L, true), decision(2L, false), decision(3L, false), decision(4L, true),
+                decision(5L, false), decision(5L, true)));
+        assertEquals(List.of(
+                new BookingDecisionResultDto(1L, BookingDecisionResultDto.Result.UPDATED, BookingStatus.APPROVED),
+                new BookingDecisionResultDto(2L, BookingDecisionResultDto.Result.UPDATED, BookingStatus.REJECTED),
+                new BookingDecisionResultDto(3L, BookingDecisionResultDto.Result.NOT_WAITING, BookingStatus.APPROVED),
+                new BookingDecisionResultDto(4L, BookingDecisionResultDto.Result.NOT_FOUND, null),
+                new BookingDecisionResultDto(5L, BookingDecisionResultDto.Result.UPDATED, BookingStatus.APPROVED)),
+                results);
+        Mockito.verify(mockRepository, Mockito.times(1)).updateStatuses(List.of(1L, 2L, 5L), 1L, List.of(1L, 5L),
+                BookingStatus.APPROVED, BookingStatus.REJECTED);
+        Mockito.verify(mockIntervalIndex, Mockito.times(1)).remove(10L, 2L);
+        Mockito.verify(mockIntervalIndex, Mockito.times(1)).remove(Mockito.anyLong(), Mockito.anyLong());
+        Mockito.verify(mockCounters, Mockito.times(2))
+                .statusChanged(7L, 20L, 1L, BookingStatus.WAITING, BookingStatus.APPROVED);
+        Mockito.verify(mockCounters, Mockito.times(1))
+                .statusChanged(7L, 20L, 1L, BookingStatus.WAITING, BookingStatus.REJECTED);
+    }
+
+    @Test
+    void updateStatusesAppliedAfterCommitTest() {
+        List<BookingStatusView> views = List.of(statusView(1L, 10L, BookingStatus.WAITING));
+        Mockito.when(mockRepository.findStatusesForUpdate(Set.of(1L), 1L)).thenReturn(views);
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.updateStatuses(1L, List.of(decision(1L, false)));
+            Mockito.verify(mockIntervalIndex, Mockito.never()).remove(Mockito.anyLong(), Mockito.anyLong());
+            Mockito.verify(mockCounters, Mockito.never()).statusChanged(Mockito.anyLong(), Mockito.anyLong(),
+                    Mockito.anyLong(), Mockito.any(), Mockito.any());
+        });
+        Mockito.verify(mockIntervalIndex, Mockito.times(1)).remove(10L, 1L);
+        Mockito.verify(mockCounters, Mockito.times(1))
+                .statusChanged(7L, 20L, 1L, BookingStatus.WAITING, BookingStatus.REJECTED);
+    }
+
+    @Test
+    void updateStatusesRolledBackKeepsIndexAndCountersTest() {
+        List<BookingStatusView> views = List.of(statusView(1L, 10L, BookingStatus.WAITING));
+        Mockito.when(mockRepository.findStatusesForUpdate(Set.of(1L), 1L)).thenReturn(views);
+        transactionTemplate.executeWithoutResult(status -> {
+            bookingService.updateStatuses(1L, List.of(decision(1L, false)));
+            status.setRollbackOnly();
+        });
+        Mockito.verify(mockIntervalIndex, Mockito.never()).remove(Mockito.anyLong(), Mockito.anyLong());
+        Mockito.verify(mockCounters, Mockito.never()).statusChanged(Mockito.anyLong(), Mockito.anyLong(),
+                Mockito.anyLong(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void exportByOwnerTest() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        bookingService.exportByOwner(1L).writeTo(out);
+        Mockito.verify(mockUserService, Mockito.times(1)).findById(1L);
+        Mockito.verify(mockExporter, Mockito.times(1)).exportByOwner(1L, out);
+    }
+
+    @Test
+    void findBookerSummaryTest() {
+        BookingPeriodCountView periods = Mockito.mock(BookingPeriodCountView.class);
+        Mockito.when(periods.getCurrent()).thenReturn(1L);
+        Mockito.when(periods.getFuture()).thenReturn(2L);
+        Mockito.when(mockRepository.countPeriodsByBookerId(Mockito.eq(2L), Mockito.any(LocalDateTime.class)))
+                .thenReturn(periods);
+        Mockito.when(mockCounters.findByBooker(2L)).thenReturn(Map.of(
+                BookingStatus.WAITING, 1L, BookingStatus.APPROVED, 2L, BookingStatus.REJECTED, 0L));
+        assertEquals(new BookingSummaryDto(3L, 1L, 0L, 2L, 1L, 2L, 0L), bookingService.findBookerSummary(2L));
+    }
+
+    @Test
+    void updateStatusesAllApprovedTest() {
+        List<BookingStatusView> views = List.of(
+                statusView(1L, 10L, BookingStatus.WAITING),
+                statusView(2L, 10L, BookingStatus.WAITING));
+        Mockito.when(mockRepository.findStatusesForUpdate(Set.of(1L, 2L), 1L)).thenReturn(views);
+        bookingService.updateStatuses(1L, List.of(decision(1L, true), decision(2L, true)));
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .updateStatuses(List.of(1L, 2L), 1L, BookingStatus.APPROVED);
+        Mockito.verify(mockIntervalIndex, Mockito.never()).remove(Mockito.anyLong(), Mockito.anyLong());
+    }
+
+    @Test
+    void updateStatusesNothingWaitingTest() {
+        bookingService.updateStatuses(1L, List.of(decision(1L, true)));
+        Mockito.verify(mockRepository, Mockito.never())
+                .updateStatuses(Mockito.anyCollection(), Mockito.anyLong(), Mockito.any(BookingStatus.class));
+    }
+
     @Test
     void findAllByBookerTest() {
         bookingService.findByBooker(1L, "ALL", from, size);
@@ -186,28 +365,28 @@ class BookingServiceTest {
     void findAllByOwnerTest() {
         bookingService.findByOwner(1L, "ALL", from, size);
         Mockito.verify(mockRepository, Mockito.times(1))
-                .findByItemOwnerId(1L, pageable);
+                .findByOwnerId(1L, pageable);
     }
 
     @Test
     void findWaitingByOwnerTest() {
         bookingService.findByOwner(1L, "WAITING", from, size);
         Mockito.verify(mockRepository, Mockito.times(1))
-                .findByItemOwnerIdAndStatus(1L, BookingStatus.WAITING, pageable);
+                .findByOwnerIdAndStatus(1L, BookingStatus.WAITING, pageable);
     }
 
     @Test
     void findRejectedByOwnerTest() {
         bookingService.findByOwner(1L, "REJECTED", from, size);
         Mockito.verify(mockRepository, Mockito.times(1))
-                .findByItemOwnerIdAndStatus(1L, BookingStatus.REJECTED, pageable);
+                .findByOwnerIdAndStatus(1L, BookingStatus.REJECTED, pageable);
     }
 
     @Test
     void findCurrentByOwnerTest() {
         bookingService.findByOwner(1L, "CURRENT", from, size);
         Mockito.verify(mockRepository, Mockito.times(1))
-                .findByItemOwnerIdAndStartBeforeAndEndAfter(eq(1L),
+                .findByOwnerIdAndStartBeforeAndEndAfter(eq(1L),
                         Mockito.any(LocalDateTime.class), Mockito.any(LocalDateTime.class), eq(pageable));
     }
 
@@ -215,14 +394,14 @@ class BookingServiceTest {
     void findPastByOwnerTest() {
         bookingService.findByOwner(1L, "PAST", from, size);
         Mockito.verify(mockRepository, Mockito.times(1))
-                .findByItemOwnerIdAndEndBefore(eq(1L), Mockito.any(LocalDateTime.class), eq(pageable));
+                .findByOwnerIdAndEndBefore(eq(1L), Mockito.any(LocalDateTime.class), eq(pageable));
     }
 
     @Test
     void findFutureByOwnerTest() {
         bookingService.findByOwner(1L, "FUTURE", from, size);
         Mockito.verify(mockRepository, Mockito.times(1))
-                .findByItemOwnerIdAndStartAfter(eq(1L), Mockito.any(LocalDateTime.class), eq(pageable));
+                .findByOwnerIdAndStartAfter(eq(1L), Mockito.any(LocalDateTime.class), eq(pageable));
     }
 
     @Test
@@ -230,4 +409,101 @@ class BookingServiceTest {
         assertThrows(IllegalArgumentException.class,
                 () -> bookingService.findByOwner(1L, "unknown", from, size));
     }
-}
\ No newline at end of file
+
+    @Test
+    void findAllByBookerCursorTest() {
+        BookingCursor cursor = BookingCursor.of(view(BookingStatus.WAITING));
+        bookingService.findByBooker(1L, "ALL", cursor, size);
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .findPageByBookerId(1L, booking.getStart(), booking.getId(), PageRequest.of(0, size));
+    }
+
+    @Test
+    void findWaitingByBookerCursorTest() {
+        BookingCursor cursor = BookingCursor.of(view(BookingStatus.WAITING));
+        bookingService.findByBooker(1L, "WAITING", cursor, size);
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .findPageByBookerIdAndStatus(1L, BookingStatus.WAITING, booking.getStart(), booking.getId(),
+                        PageRequest.of(0, size));
+    }
+
+    @Test
+    void findCurrentByBookerCursorTest() {
+        BookingCursor cursor = BookingCursor.of(view(BookingStatus.WAITING));
+        bookingService.findByBooker(1L, "CURRENT", cursor, size);
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .findPageByBookerIdAndStartBeforeAndEndAfter(eq(1L), Mockito.any(LocalDateTime.class),
+                        Mockito.any(LocalDateTime.class), eq(booking.getStart()), eq(booking.getId()),
+                        eq(PageRequest.of(0, size)));
+    }
+
+    @Test
+    void findUnknownByBookerCursorTest() {
+        assertThrows(IllegalArgumentException.class,
+                () -> bookingService.findByBooker(1L, "unknown", BookingCursor.of(view(BookingStatus.WAITING)), size));
+    }
+
+    @Test
+    void findAllByOwnerCursorTest() {
+        BookingCursor cursor = BookingCursor.of(view(BookingStatus.WAITING));
+        bookingService.findByOwner(1L, "ALL", cursor, size);
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .findPageByOwnerId(1L, booking.getStart(), booking.getId(), PageRequest.of(0, size));
+    }
+
+    @Test
+    void findPastByOwnerCursorTest() {
+        BookingCursor cursor = BookingCursor.of(view(BookingStatus.WAITING));
+        bookingService.findByOwner(1L, "PAST", cursor, size);
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .findPageByOwnerIdAndEndBefore(eq(1L), Mockito.any(LocalDateTime.class),
+                        eq(booking.getStart()), eq(booking.getId()), eq(PageRequest.of(0, size)));
+    }
+
+    @Test
+    void findFutureByOwnerCursorTest() {
+        BookingCursor cursor = BookingCursor.of(view(BookingStatus.WAITING));
+        bookingService.findByOwner(1L, "FUTURE", cursor, size);
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .findPageByOwnerIdAndStartAfter(eq(1L), Mockito.any(LocalDateTime.class),
+                        eq(booking.getStart()), eq(booking.getId()), eq(PageRequest.of(0, size)));
+    }
+
+    @Test
+    void cursorEncodeDecodeTest() {
+        BookingCursor cursor = BookingCursor.of(view(BookingStatus.WAITING));
+        assertEquals(cursor, BookingCursor.decode(cursor.encode()));
+    }
+
+    @Test
+    void cursorInvalidTest() {
+        assertThrows(IllegalArgumentException.class, () -> BookingCursor.decode("invalid"));
+    }
+
+    private BookingView view(BookingStatus status) {
+        BookingView view = Mockito.mock(BookingView.class);
+        Mockito.when(view.getId()).thenReturn(1L);
+        Mockito.when(view.getItemId()).thenReturn(1L);
+        Mockito.when(view.getBookerId()).thenReturn(2L);
+        Mockito.when(view.getStartDate()).thenReturn(booking.getStart());
+        Mockito.when(view.getEndDate()).thenReturn(booking.getEnd());
+        Mockito.when(view.getStatus()).thenReturn(status);
+        return view;
+    }
+
+    private static BookingDecisionDto decision(Long bookingId, boolean approved) {
+        return BookingDecisionDto.builder()
+                .bookingId(bookingId)
+                .approved(approved)
+                .build();
+    }
+
+    private static BookingStatusView statusView(Long id, Long itemId, BookingStatus status) {
+        BookingStatusView view = Mockito.mock(BookingStatusView.class);
+        Mockito.when(view.getId()).thenReturn(id);
+        Mockito.when(view.getItemId()).thenReturn(itemId);
+        Mockito.when(view.getBookerId()).thenReturn(20L);
+        Mockito.when(view.getStatus()).thenReturn(status);
+        return view;
+    }
+}
@@ -0,0 +1,300 @@
+package ru.practicum.shareit.booking.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.BookingPeriodCountView;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.BookingStatusCountView;
+import ru.practicum.shareit.booking.dto.BookingStatusView;
+import ru.practicum.shareit.booking.dto.BookingView;
+import ru.practicum.shareit.common.OffsetPageRequest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql(scripts = {"classpath:schema.sql", "classpath:data_BookingRepositoryTest.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class BookingRepositoryTest {
+    private static final LocalDateTime SECOND_DAY = LocalDateTime.of(2030, 1, 2, 10, 0);
+    private static final LocalDateTime THIRD_DAY = LocalDateTime.of(2030, 1, 3, 10, 0);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void findPageByBookerIdTest() {
+        List<BookingView> bookings = bookingRepository.findPageByBookerId(2L, THIRD_DAY, 4L, PageRequest.of(0, 2));
+        assertEquals(List.of(3L, 2L), ids(bookings));
+    }
+
+    @Test
+    void findPageByBookerIdLastPageTest() {
+        List<BookingView> bookings = bookingRepository.findPageByBookerId(2L, SECOND_DAY, 2L, PageRequest.of(0, 2));
+        assertEquals(List.of(1L), ids(bookings));
+    }
+
+    @Test
+    void findByBookerIdTiedStartTest() {
+        //offset pages and the cursor issued from their last row agree on the order of bookings with one start
+        Sort sort = Sort.by("start", "id").descending();
+        List<BookingView> first = bookingRepository.findByBookerId(2L, OffsetPageRequest.of(0, 2, sort));
+        assertEquals(List.of(5L, 4L), ids(first));
+        Pageable second = OffsetPageRequest.of(2, 2, sort);
+        assertEquals(List.of(3L, 2L), ids(bookingRepository.findByBookerId(2L, second)));
+        BookingView last = first.get(1);
+        assertEquals(List.of(3L, 2L), ids(bookingRepository.findPageByBookerId(
+                2L, last.getStartDate(), last.getId(), PageRequest.of(0, 2))));
+    }
+
+    @Test
+    void findPageByOwnerIdTest() {
+        List<BookingView> bookings = bookingRepository.findPageByOwnerId(1L, THIRD_DAY, 5L, PageRequest.of(0, 3));
+        assertEquals(List.of(4L, 3L, 2L), ids(bookings));
+    }
+
+    @Test
+    void findPageByOwnerIdAndStatusTest() {
+        List<BookingView> bookings = bookingRepository.findPageByOwnerIdAndStatus(
+                1L, BookingStatus.APPROVED, SECOND_DAY, 3L, PageRequest.of(0, 20));
+        assertEquals(List.of(2L, 1L), ids(bookings));
+    }
+
+    @Test
+    void findPageByBookerIdAndStartAfterTest() {
+        List<BookingView> bookings = bookingRepository.findPageByBookerIdAndStartAfter(
+                2L, SECOND_DAY.minusDays(1), THIRD_DAY, 4L, PageRequest.of(0, 20));
+        assertEquals(List.of(3L, 2L), ids(bookings));
+    }
+
+    @Test
+    void findLastByItemIdsTest() {
+        List<BookingShortView> bookings = bookingRepository.findLastByItemIds(
+                List.of(1L, 2L), BookingStatus.APPROVED.name(), LocalDateTime.now());
+        assertEquals(1, bookings.size());
+        assertEquals(7L, bookings.get(0).getId());
+        assertEquals(4L, bookings.get(0).getBookerId());
+        assertEquals(2L, bookings.get(0).getItemId());
+    }
+
+    @Test
+    void findNextByItemIdsTest() {
+        Map<Long, Long> bookings = bookingRepository.findNextByItemIds(
+                        List.of(1L, 2L), BookingStatus.APPROVED.name(), LocalDateTime.now()).stream()
+                .collect(Collectors.toMap(BookingShortView::getItemId, BookingShortView::getId));
+        assertEquals(Map.of(1L, 1L, 2L, 10L), bookings);
+    }
+
+    @Test
+    void findLastByItemIdTest() {
+        List<BookingDtoShort> bookings = bookingRepository.findLastByItemId(
+                2L, BookingStatus.APPROVED, LocalDateTime.now(), PageRequest.of(0, 1));
+        assertEquals(List.of(new BookingDtoShort(7L, 4L)), bookings);
+    }
+
+    @Test
+    void findNextByItemIdTest() {
+        List<BookingDtoShort> bookings = bookingRepository.findNextByItemId(
+                2L, BookingStatus.APPROVED, LocalDateTime.now(), PageRequest.of(0, 1));
+        assertEquals(List.of(new BookingDtoShort(10L, 4L)), bookings);
+    }
+
+    @Test
+    void findLastByItemIdEmptyTest() {
+        assertTrue(bookingRepository.findLastByItemId(
+                1L, BookingStatus.APPROVED, LocalDateTime.now(), PageRequest.of(0, 1)).isEmpty());
+    }
+
+    @Test
+    void existsByItemIdAndBookerIdAndStatusAndStartBeforeTest() {
+        LocalDateTime now = LocalDateTime.now();
+        assertTrue(bookingRepository.existsByItemIdAndBookerIdAndStatusAndStartBefore(
+                2L, 4L, BookingStatus.APPROVED, now));
+        assertFalse(bookingRepository.existsByItemIdAndBookerIdAndStatusAndStartBefore(
+                2L, 2L, BookingStatus.APPROVED, now));
+        assertFalse(bookingRepository.existsByItemIdAndBookerIdAndStatusAndStartBefore(
+                1L, 2L, BookingStatus.APPROVED, now));
+    }
+
+    @Test
+    void existsByItemIdAndStatusInAndStartBeforeAndEndAfterTest() {
+        List<BookingStatus> active = List.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+        assertTrue(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                1L, active, SECOND_DAY.plusHours(1), SECOND_DAY.minusHours(1)));
+        assertTrue(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                1L, active, THIRD_DAY.plusHours(3), THIRD_DAY.plusHours(1)));
+        assertFalse(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                1L, active, SECOND_DAY.plusHours(4), SECOND_DAY.plusHours(2)));
+        assertFalse(bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                2L, active, SECOND_DAY.plusHours(1), SECOND_DAY.minusHours(1)));
+    }
+
+    @Test
+    void findIntervalsTest() {
+        List<BookingIntervalView> intervals = bookingRepository.findIntervals(
+                List.of(BookingStatus.WAITING, BookingStatus.APPROVED), LocalDateTime.now(), 2L,
+                PageRequest.of(0, 3));
+        assertEquals(List.of(4L, 5L, 9L), intervals.stream()
+                .map(BookingIntervalView::getId)
+                .collect(Collectors.toList()));
+        assertEquals(1L, intervals.get(0).getItemId());
+        assertEquals(2L, intervals.get(0).getBookerId());
+        assertEquals(1L, intervals.get(0).getOwnerId());
+        assertEquals(THIRD_DAY, intervals.get(0).getStartDate());
+        assertEquals(THIRD_DAY.plusHours(2), intervals.get(0).getEndDate());
+    }
+
+    @Test
+    void findIntervalsByItemIdTest() {
+        List<BookingIntervalView> intervals = bookingRepository.findIntervalsByItemId(
+                2L, List.of(BookingStatus.WAITING, BookingStatus.APPROVED), LocalDateTime.now());
+        assertEquals(Set.of(9L, 10L), intervals.stream()
+                .map(BookingIntervalView::getId)
+                .collect(Collectors.toSet()));
+    }
+
+    @Test
+    void updateStatusTest() {
+        assertEquals(1, bookingRepository.updateStatus(4L, 1L, BookingStatus.APPROVED, BookingStatus.WAITING));
+        assertEquals(Optional.of(BookingStatus.APPROVED), bookingRepository.findStatusByIdAndOwnerId(4L, 1L));
+    }
+
+    @Test
+    void updateStatusNotWaitingTest() {
+        assertEquals(0, bookingRepository.updateStatus(3L, 1L, BookingStatus.APPROVED, BookingStatus.WAITING));
+        assertEquals(Optional.of(BookingStatus.REJECTED), bookingRepository.findStatusByIdAndOwnerId(3L, 1L));
+    }
+
+    @Test
+    void updateStatusNotOwnerTest() {
+        assertEquals(0, bookingRepository.updateStatus(4L, 3L, BookingStatus.APPROVED, BookingStatus.WAITING));
+        assertEquals(Optional.empty(), bookingRepository.findStatusByIdAndOwnerId(4L, 3L));
+        assertEquals(Optional.of(BookingStatus.WAITING), bookingRepository.findStatusByIdAndOwnerId(4L, 1L));
+    }
+
+    @Test
+    void updateStatusesTest() {
+        assertEquals(2, bookingRepository.updateStatuses(List.of(3L, 4L, 5L, 9L), 1L, List.of(5L),
+                BookingStatus.APPROVED, BookingStatus.REJECTED));
+        assertEquals(Optional.of(BookingStatus.REJECTED), bookingRepository.findStatusByIdAndOwnerId(3L, 1L));
+        assertEquals(Optional.of(BookingStatus.REJECTED), bookingRepository.findStatusByIdAndOwnerId(4L, 1L));
+        assertEquals(Optional.of(BookingStatus.APPROVED), bookingRepository.findStatusByIdAndOwnerId(5L, 1L));
+        assertEquals(Optional.of(BookingStatus.APPROVED), bookingRepository.findStatusByIdAndOwnerId(9L, 3L));
+    }
+
+    @Test
+    void updateStatusesToOneStatusTest() {
+        assertEquals(2, bookingRepository.updateStatuses(List.of(4L, 5L), 1L, BookingStatus.APPROVED));
+        assertEquals(0, bookingRepository.updateStatuses(List.of(4L, 5L), 1L, BookingStatus.REJECTED));
+        assertEquals(Optional.of(BookingStatus.APPROVED), bookingRepository.findStatusByIdAndOwnerId(5L, 1L));
+    }
+
+    @Test
+    @Transactional
+    void findStatusesForUpdateTest() {
+        Map<Long, BookingStatus> statuses = bookingRepository.findStatusesForUpdate(List.of(3L, 4L, 9L), 1L).stream()
+                .collect(Collectors.toMap(BookingStatusView::getId, BookingStatusView::getStatus));
+        assertEquals(Map.of(3L, BookingStatus.REJECTED, 4L, BookingStatus.WAITING), statuses);
+    }
+
+    @Test
+    void ownerFollowsItemOwnerTest() {
+        jdbcTemplate.update("UPDATE items SET owner_id = 3 WHERE id = 1");
+        assertEquals(10, bookingRepository.findByOwnerId(3L, PageRequest.of(0, 20)).size());
+        assertTrue(bookingRepository.findByOwnerId(1L, PageRequest.of(0, 20)).isEmpty());
+    }
+
+    @Test
+    void ownerMustMatchItemOwnerTest() {
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status) " +
+                        "VALUES ('2030-06-01 10:00:00', '2030-06-02 10:00:00', 1, 2, 3, 'WAITING')"));
+    }
+
+    @Test
+    void findViewByIdTest() {
+        BookingView booking = bookingRepository.findViewById(4L).orElseThrow();
+        assertEquals(4L, booking.getId());
+        assertEquals(THIRD_DAY, booking.getStartDate());
+        assertEquals(THIRD_DAY.plusHours(2), booking.getEndDate());
+        assertEquals(1L, booking.getItemId());
+        assertEquals("testItem1", booking.getItemName());
+        assertEquals(2L, booking.getBookerId());
+        assertEquals("testBooker", booking.getBookerName());
+        assertEquals("booker@mail.com", booking.getBookerEmail());
+        assertEquals(BookingStatus.WAITING, booking.getStatus());
+    }
+
+    @Test
+    void findViewByIdAndOwnerOrBookerTest() {
+        assertEquals(4L, bookingRepository.findViewByIdAndOwnerOrBooker(4L, 1L).orElseThrow().getId());
+        assertEquals(4L, bookingRepository.findViewByIdAndOwnerOrBooker(4L, 2L).orElseThrow().getId());
+        assertTrue(bookingRepository.findViewByIdAndOwnerOrBooker(4L, 3L).isEmpty());
+    }
+
+    private static List<Long> ids(List<BookingView> bookings) {
+        return bookings.stream()
+                .map(BookingView::getId)
+                .collect(Collectors.toList());
+    }
+
+    @Test
+    void countStatusesByBookerIdTest() {
+        Map<BookingStatus, Long> counts = bookingRepository.countStatusesByBookerId(2L).stream()
+                .collect(Collectors.toMap(BookingStatusCountView::getStatus, BookingStatusCountView::getTotal));
+        assertEquals(Map.of(BookingStatus.APPROVED, 2L, BookingStatus.REJECTED, 1L, BookingStatus.WAITING, 2L),
+                counts);
+    }
+
+    @Test
+    void countStatusesByOwnerIdTest() {
+        Map<BookingStatus, Long> counts = bookingRepository.countStatusesByOwnerId(3L).stream()
+                .collect(Collectors.toMap(BookingStatusCountView::getStatus, BookingStatusCountView::getTotal));
+        assertEquals(Map.of(BookingStatus.APPROVED, 4L, BookingStatus.REJECTED, 1L), counts);
+    }
+
+    @Test
+    void countPeriodsByOwnerIdTest() {
+        BookingPeriodCountView periods = bookingRepository.countPeriodsByOwnerId(3L,
+                LocalDateTime.of(2020, 1, 1, 12, 0));
+        assertEquals(1L, periods.getCurrent());
+        assertEquals(0L, periods.getPast());
+        assertEquals(4L, periods.getFuture());
+    }
+
+    @Test
+    void countPeriodsByBookerIdTest() {
+        BookingPeriodCountView periods = bookingRepository.countPeriodsByBookerId(4L,
+                LocalDateTime.of(2025, 1, 1, 10, 0));
+        assertEquals(0L, periods.getCurrent());
+        assertEquals(3L, periods.getPast());
+        assertEquals(2L, periods.getFuture());
+    }
+
+    @Test
+    void countPeriodsWithoutBookingsTest() {
+        assertNull(bookingRepository.countPeriodsByBookerId(1L, THIRD_DAY).getPast());
+    }
+}
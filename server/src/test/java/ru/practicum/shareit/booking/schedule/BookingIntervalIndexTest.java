@@ -0,0 +1,279 @@
+package ru.practicum.shareit.booking.schedule;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.booking.Booking;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingIntervalView;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.user.User;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingIntervalIndexTest {
+    private static final LocalDateTime DAY = LocalDateTime.of(2030, 1, 1, 10, 0);
+
+    private BookingRepository mockRepository;
+    private BookingIntervalIndex index;
+
+    @BeforeEach
+    void setUp() {
+        mockRepository = Mockito.mock(BookingRepository.class);
+        warm(List.of(
+                view(1L, 1L, 2L, DAY, DAY.plusHours(2)),
+                view(2L, 1L, 3L, DAY.plusDays(1), DAY.plusDays(2)),
+                view(3L, 2L, 2L, DAY, DAY.plusDays(10))));
+    }
+
+    @Test
+    void overlapsTest() {
+        assertTrue(index.overlaps(1L, DAY.plusHours(1), DAY.plusHours(3)));
+        assertTrue(index.overlaps(1L, DAY.minusHours(1), DAY.plusHours(1)));
+        assertTrue(index.overlaps(1L, DAY.plusDays(1).plusHours(1), DAY.plusDays(1).plusHours(2)));
+        assertTrue(index.overlaps(1L, DAY.minusDays(1), DAY.plusDays(3)));
+        assertTrue(index.overlaps(2L, DAY.plusDays(5), DAY.plusDays(6)));
+    }
+
+    @Test
+    void doesNotOverlapTest() {
+        assertFalse(index.overlaps(1L, DAY.plusHours(2), DAY.plusDays(1)));
+        assertFalse(index.overlaps(1L, DAY.minusHours(2), DAY));
+        assertFalse(index.overlaps(1L, DAY.plusDays(2), DAY.plusDays(3)));
+        assertFalse(index.overlaps(3L, DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void longBookingHidesInsideLaterStartsTest() {
+        warm(List.of(
+                view(1L, 1L, 2L, DAY, DAY.plusDays(30)),
+                view(2L, 1L, 2L, DAY.plusDays(1), DAY.plusDays(2)),
+                view(3L, 1L, 2L, DAY.plusDays(3), DAY.plusDays(4))));
+        assertTrue(index.overlaps(1L, DAY.plusDays(10), DAY.plusDays(11)));
+    }
+
+    @Test
+    void farFutureBookingsTest() {
+        LocalDateTime farFuture = LocalDateTime.of(2262, 4, 11, 0, 0);
+        warm(List.of(
+                view(1L, 1L, 2L, farFuture, farFuture.plusDays(2)),
+                view(2L, 1L, 2L, BookingIntervalIndex.LATEST_DATE.minusDays(1), BookingIntervalIndex.LATEST_DATE)));
+        assertTrue(index.overlaps(1L, farFuture.plusDays(1), farFuture.plusDays(3)));
+        assertTrue(index.overlaps(1L, BookingIntervalIndex.LATEST_DATE.minusHours(1),
+                BookingIntervalIndex.LATEST_DATE));
+        assertFalse(index.overlaps(1L, farFuture.plusDays(2), farFuture.plusDays(3)));
+        assertEquals(BookingIntervalIndex.LATEST_DATE,
+                BookingIntervalIndex.toDateTime(BookingIntervalIndex.toLong(BookingIntervalIndex.LATEST_DATE)));
+    }
+
+    @Test
+    void indexNewBookingTest() {
+        index.index(booking(4L, 1L, 2L, DAY.plusHours(5), DAY.plusHours(6), BookingStatus.WAITING));
+        assertTrue(index.overlaps(1L, DAY.plusHours(4), DAY.plusHours(6)));
+    }
+
+    @Test
+    void indexRejectedBookingTest() {
+        index.index(booking(1L, 1L, 2L, DAY, DAY.plusHours(2), BookingStatus.REJECTED));
+        assertFalse(index.overlaps(1L, DAY, DAY.plusHours(2)));
+        assertTrue(index.overlaps(1L, DAY.plusDays(1), DAY.plusDays(2)));
+    }
+
+    @Test
+    void indexApprovedBookingTest() {
+        index.index(booking(1L, 1L, 2L, DAY, DAY.plusHours(2), BookingStatus.APPROVED));
+        assertTrue(index.overlaps(1L, DAY, DAY.plusHours(1)));
+        index.index(booking(1L, 1L, 2L, DAY, DAY.plusHours(2), BookingStatus.REJECTED));
+        assertFalse(index.overlaps(1L, DAY, DAY.plusHours(1)));
+    }
+
+    @Test
+    void removeTest() {
+        index.remove(1L, 1L);
+        assertFalse(index.overlaps(1L, DAY, DAY.plusHours(2)));
+        assertTrue(index.overlaps(1L, DAY.plusDays(1), DAY.plusDays(2)));
+        index.remove(2L, 1L);
+        assertTrue(index.overlaps(2L, DAY, DAY.plusHours(2)));
+    }
+
+    @Test
+    void removeItemTest() {
+        index.removeItem(2L);
+        assertFalse(index.overlaps(2L, DAY, DAY.plusDays(1)));
+        assertTrue(index.overlaps(1L, DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void removeByBookerTest() {
+        index.removeByBooker(2L);
+        assertFalse(index.overlaps(1L, DAY, DAY.plusHours(2)));
+        assertFalse(index.overlaps(2L, DAY, DAY.plusDays(1)));
+        assertTrue(index.overlaps(1L, DAY.plusDays(1), DAY.plusDays(2)));
+    }
+
+    @Test
+    void removeByOwnerTest() {
+        index.index(booking(4L, 3L, 2L, DAY, DAY.plusHours(1), BookingStatus.WAITING));
+        index.removeByOwner(ownerId(1L));
+        index.removeByOwner(ownerId(3L));
+        assertFalse(index.overlaps(1L, DAY, DAY.plusDays(2)));
+        assertFalse(index.overlaps(3L, DAY, DAY.plusHours(1)));
+        assertTrue(index.overlaps(2L, DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void findFreeSlotsTest() {
+        warm(List.of(
+                view(1L, 1L, 2L, DAY.plusHours(1), DAY.plusHours(3)),
+                view(2L, 1L, 2L, DAY.plusHours(2), DAY.plusHours(4)),
+                view(3L, 1L, 2L, DAY.plusHours(4), DAY.plusHours(5)),
+                view(4L, 1L, 2L, DAY.plusHours(7), DAY.plusHours(8)),
+                view(5L, 1L, 2L, DAY.plusHours(20), DAY.plusHours(30))));
+        assertEquals(List.of(
+                new TimeSlotDto(DAY, DAY.plusHours(1)),
+                new TimeSlotDto(DAY.plusHours(5), DAY.plusHours(7)),
+                new TimeSlotDto(DAY.plusHours(8), DAY.plusHours(10))),
+                index.findFreeSlots(1L, DAY, DAY.plusHours(10)));
+        assertEquals(List.of(new TimeSlotDto(DAY.plusHours(5), DAY.plusHours(6))),
+                index.findFreeSlots(1L, DAY.plusHours(3), DAY.plusHours(6)));
+        assertEquals(List.of(), index.findFreeSlots(1L, DAY.plusHours(21), DAY.plusHours(22)));
+        assertEquals(List.of(new TimeSlotDto(DAY, DAY.plusDays(1))), index.findFreeSlots(3L, DAY, DAY.plusDays(1)));
+    }
+
+    @Test
+    void findNextFreeSlotTest() {
+        warm(List.of(
+                view(1L, 1L, 2L, DAY, DAY.plusHours(3)),
+                view(2L, 1L, 2L, DAY.plusHours(4), DAY.plusHours(5)),
+                view(3L, 1L, 2L, DAY.plusHours(1), DAY.plusHours(6)),
+                view(4L, 1L, 2L, DAY.plusHours(8), DAY.plusHours(9))));
+        assertEquals(new TimeSlotDto(DAY.plusHours(6), DAY.plusHours(8)),
+                index.findNextFreeSlot(1L, DAY, Duration.ofHours(2)));
+        assertEquals(new TimeSlotDto(DAY.plusHours(9), DAY.plusHours(12)),
+                index.findNextFreeSlot(1L, DAY, Duration.ofHours(3)));
+        assertEquals(new TimeSlotDto(DAY.minusHours(1), DAY),
+                index.findNextFreeSlot(1L, DAY.minusHours(1), Duration.ofHours(1)));
+    }
+
+    @Test
+    void findNextFreeSlotOverflowTest() {
+        assertThrows(ArithmeticException.class,
+                () -> index.findNextFreeSlot(1L, DAY, Duration.ofDays(200_000_000L)));
+        //the length fits a key, the end of the slot does not
+        assertThrows(ArithmeticException.class,
+                () -> index.findNextFreeSlot(1L, DAY, Duration.ofDays(106_745_000L)));
+    }
+
+    @Test
+    void findFreeSlotsFromRepositoryUntilWarmedTest() {
+        BookingIntervalIndex cold = new BookingIntervalIndex(mockRepository);
+        Mockito.when(mockRepository.findIntervalsByItemId(1L, BookingIntervalIndex.ACTIVE_STATUSES, DAY))
+                .thenReturn(List.of(view(1L, 1L, 2L, DAY.plusHours(1), DAY.plusHours(2))));
+        assertEquals(List.of(
+                new TimeSlotDto(DAY, DAY.plusHours(1)),
+                new TimeSlotDto(DAY.plusHours(2), DAY.plusHours(3))),
+                cold.findFreeSlots(1L, DAY, DAY.plusHours(3)));
+    }
+
+    @Test
+    void fallsBackToRepositoryUntilWarmedTest() {
+        BookingIntervalIndex cold = new BookingIntervalIndex(mockRepository);
+        Mockito.when(mockRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(
+                1L, BookingIntervalIndex.ACTIVE_STATUSES, DAY.plusHours(1), DAY)).thenReturn(true);
+        assertFalse(cold.isReady());
+        assertTrue(cold.overlaps(1L, DAY, DAY.plusHours(1)));
+    }
+
+    @Test
+    void matchesBruteForceTest() {
+        Random random = new Random(42);
+        List<BookingIntervalView> bookings = new ArrayList<>();
+        List<long[]> intervals = new ArrayList<>();
+        for (long id = 1; id <= 2000; id++) {
+            long start = random.nextInt(100_000);
+            long end = start + 1 + random.nextInt(random.nextInt(10) == 0 ? 5_000 : 50);
+            bookings.add(view(id, 1L, 2L, DAY.plusMinutes(start), DAY.plusMinutes(end)));
+            intervals.add(new long[]{start, end});
+        }
+        warm(bookings);
+        for (int i = 0; i < 5000; i++) {
+            long start = random.nextInt(110_000);
+            long end = start + 1 + random.nextInt(100);
+            boolean expected = intervals.stream().anyMatch(interval -> interval[0] < end && interval[1] > start);
+            assertEquals(expected, index.overlaps(1L, DAY.plusMinutes(start), DAY.plusMinutes(end)),
+                    "interval " + start + " - " + end);
+        }
+    }
+
+    //every item has its own owner
+    private static Long ownerId(Long itemId) {
+        return itemId + 10;
+    }
+
+    private void warm(List<BookingIntervalView> bookings) {
+        Mockito.when(mockRepository.findIntervals(ArgumentMatchers.eq(BookingIntervalIndex.ACTIVE_STATUSES),
+                        ArgumentMatchers.any(), ArgumentMatchers.eq(0L),
+                        ArgumentMatchers.eq(PageRequest.of(0, BookingIntervalIndex.WARM_BATCH_SIZE))))
+                .thenReturn(new ArrayList<>(bookings));
+        index = new BookingIntervalIndex(mockRepository);
+        index.warm();
+    }
+
+    private static Booking booking(Long id, Long itemId, Long bookerId, LocalDateTime start, LocalDateTime end,
+                                   BookingStatus status) {
+        return Booking.builder()
+                .id(id)
+                .item(Item.builder().id(itemId).build())
+                .booker(User.builder().id(bookerId).build())
+                .ownerId(ownerId(itemId))
+                .start(start)
+                .end(end)
+                .status(status)
+                .build();
+    }
+
+    private static BookingIntervalView view(Long id, Long itemId, Long bookerId, LocalDateTime start,
+                                            LocalDateTime end) {
+        return new BookingIntervalView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId(itemId);
+            }
+
+            @Override
+            public LocalDateTime getStartDate() {
+                return start;
+            }
+
+            @Override
+            public LocalDateTime getEndDate() {
+                return end;
+            }
+        };
+    }
+}
@@ -0,0 +1,32 @@
+package ru.practicum.shareit.booking.schedule;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingLocksTest {
+    @Test
+    void sameItemSameLockTest() {
+        BookingLocks locks = new BookingLocks(16);
+        assertSame(locks.forItem(42L), locks.forItem(42L));
+    }
+
+    @Test
+    void itemsSpreadOverStripesTest() {
+        BookingLocks locks = new BookingLocks(16);
+        Set<Lock> used = new HashSet<>();
+        for (long itemId = 1; itemId <= 64; itemId++) {
+            used.add(locks.forItem(itemId));
+        }
+        assertEquals(16, used.size());
+    }
+
+    @Test
+    void wrongStripeCountTest() {
+        assertThrows(IllegalArgumentException.class, () -> new BookingLocks(0));
+    }
+}
@@ -0,0 +1,185 @@
+package ru.practicum.shareit.booking.summary;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingStatusCountView;
+import ru.practicum.shareit.booking.repository.BookingRepository;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingCountersTest {
+    private BookingRepository mockRepository;
+    private BookingCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        mockRepository = Mockito.mock(BookingRepository.class);
+        List<BookingStatusCountView> bookerCounts = List.of(
+                count(BookingStatus.WAITING, 2L),
+                count(BookingStatus.APPROVED, 1L));
+        List<BookingStatusCountView> ownerCounts = List.of(
+                count(BookingStatus.WAITING, 1L),
+                count(BookingStatus.REJECTED, 4L));
+        Mockito.when(mockRepository.countStatusesByBookerId(2L)).thenReturn(bookerCounts);
+        Mockito.when(mockRepository.countStatusesByOwnerId(1L)).thenReturn(ownerCounts);
+        counters = new BookingCounters(mockRepository, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void loadTest() {
+        assertEquals(Map.of(BookingStatus.WAITING, 2L, BookingStatus.APPROVED, 1L, BookingStatus.REJECTED, 0L),
+                counters.findByBooker(2L));
+        assertEquals(Map.of(BookingStatus.WAITING, 1L, BookingStatus.APPROVED, 0L, BookingStatus.REJECTED, 4L),
+                counters.findByOwner(1L));
+    }
+
+    @Test
+    void loadedOnceTest() {
+        counters.findByBooker(2L);
+        counters.findByBooker(2L);
+        Mockito.verify(mockRepository, Mockito.times(1)).countStatusesByBookerId(2L);
+    }
+
+    @Test
+    void adjustTest() {
+        counters.findByBooker(2L);
+        counters.findByOwner(1L);
+        counters.created(counters.beginChange(), 2L, 1L);
+        counters.statusChanged(counters.beginChange(), 2L, 1L, BookingStatus.WAITING, BookingStatus.APPROVED);
+        counters.statusChanged(counters.beginChange(), 2L, 1L, BookingStatus.WAITING, BookingStatus.REJECTED);
+        assertEquals(Map.of(BookingStatus.WAITING, 1L, BookingStatus.APPROVED, 2L, BookingStatus.REJECTED, 1L),
+                counters.findByBooker(2L));
+        assertEquals(Map.of(BookingStatus.WAITING, 0L, BookingStatus.APPROVED, 1L, BookingStatus.REJECTED, 5L),
+                counters.findByOwner(1L));
+    }
+
+    @Test
+    void adjustNotLoadedTest() {
+        counters.created(counters.beginChange(), 2L, 1L);
+        assertEquals(2L, counters.findByBooker(2L).get(BookingStatus.WAITING));
+    }
+
+    @Test
+    void invalidateTest() {
+        counters.findByBooker(2L);
+        counters.invalidate();
+        counters.findByBooker(2L);
+        Mockito.verify(mockRepository, Mockito.times(2)).countStatusesByBookerId(2L);
+    }
+
+    @Test
+    void expiredTest() {
+        counters = new BookingCounters(mockRepository, Duration.ofNanos(1));
+        counters.findByBooker(2L);
+        counters.created(counters.beginChange(), 2L, 1L);
+        assertEquals(2L, counters.findByBooker(2L).get(BookingStatus.WAITING));
+        Mockito.verify(mockRepository, Mockito.times(2)).countStatusesByBookerId(2L);
+    }
+
+    @Test
+    void expiredEvictedTest() throws InterruptedException {
+        counters = new BookingCounters(mockRepository, Duration.ofMillis(200));
+        counters.findByBooker(2L);
+        counters.findByOwner(1L);
+        assertEquals(2, counters.tracked());
+        Thread.sleep(300);
+        counters.findByBooker(3L);
+        assertEquals(1, counters.tracked());
+    }
+
+    @Test
+    void concurrentFirstReadsLoadOnceTest() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        Mockito.when(mockRepository.countStatusesByBookerId(3L)).thenAnswer(invocation -> {
+            loading.countDown();
+            Thread.sleep(100);
+            return List.of(count(BookingStatus.WAITING, 1L));
+        });
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<Map<BookingStatus, Long>>> reads = new ArrayList<>();
+            reads.add(executor.submit(() -> counters.findByBooker(3L)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                reads.add(executor.submit(() -> counters.findByBooker(3L)));
+            }
+            for (Future<Map<BookingStatus, Long>> read : reads) {
+                assertEquals(1L, read.get(5, TimeUnit.SECONDS).get(BookingStatus.WAITING));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        Mockito.verify(mockRepository, Mockito.times(1)).countStatusesByBookerId(3L);
+    }
+
+    @Test
+    void loadAfterWriteNotCountedTwiceTest() {
+        //the write commits and a first read loads counts that already include it before created() is called
+        long change = counters.beginChange();
+        List<BookingStatusCountView> withWrite = List.of(count(BookingStatus.WAITING, 1L));
+        Mockito.when(mockRepository.countStatusesByBookerId(4L)).thenReturn(withWrite);
+        assertEquals(1L, counters.findByBooker(4L).get(BookingStatus.WAITING));
+        counters.created(change, 4L, 1L);
+        assertEquals(1L, counters.findByBooker(4L).get(BookingStatus.WAITING));
+        Mockito.verify(mockRepository, Mockito.times(2)).countStatusesByBookerId(4L);
+    }
+
+    @Test
+    void createdDuringLoadTest() throws Exception {
+        //the query misses the write, created() is called while the load is still being installed
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<BookingStatusCountView> withWrite = List.of(count(BookingStatus.WAITING, 1L));
+        Mockito.when(mockRepository.countStatusesByBookerId(4L)).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return List.of();
+        }).thenReturn(withWrite);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Map<BookingStatus, Long>> read = executor.submit(() -> counters.findByBooker(4L));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            long change = counters.beginChange();
+            Future<?> created = executor.submit(() -> counters.created(change, 4L, 1L));
+            Thread.sleep(50);
+            release.countDown();
+            assertEquals(0L, read.get(5, TimeUnit.SECONDS).get(BookingStatus.WAITING));
+            created.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1L, counters.findByBooker(4L).get(BookingStatus.WAITING));
+    }
+
+    @Test
+    void adjustedWhenLoadedBeforeWriteTest() {
+        counters.findByBooker(2L);
+        counters.created(counters.beginChange(), 2L, 1L);
+        assertEquals(3L, counters.findByBooker(2L).get(BookingStatus.WAITING));
+        Mockito.verify(mockRepository, Mockito.times(1)).countStatusesByBookerId(2L);
+    }
+
+    @Test
+    void nonPositiveTtlTest() {
+        assertThrows(IllegalArgumentException.class, () -> new BookingCounters(mockRepository, Duration.ZERO));
+    }
+
+    private static BookingStatusCountView count(BookingStatus status, Long total) {
+        BookingStatusCountView view = Mockito.mock(BookingStatusCountView.class);
+        Mockito.when(view.getStatus()).thenReturn(status);
+        Mockito.when(view.getTotal()).thenReturn(total);
+        return view;
+    }
+}
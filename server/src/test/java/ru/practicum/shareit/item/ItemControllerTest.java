@@ -9,8 +9,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.user.User;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -116,7 +118,7 @@ class ItemControllerTest {
 
     @Test
     void findByTestTest() throws Exception {
-        Mockito.when(mockService.findByText("text", 0, 20))
+        Mockito.when(mockService.findByText("text", "id", 0, 20))
                 .thenReturn(List.of(item));
         mvc.perform(get("/items/search")
                         .param("text", "text")
@@ -128,7 +130,75 @@ class ItemControllerTest {
                 .andExpect(jsonPath("$[0].name", is("item")))
                 .andExpect(jsonPath("$[0].description", is("description")))
                 .andExpect(jsonPath("$[0].available", is(true)));
-        Mockito.verify(mockService, Mockito.times(1)).findByText("text", 0, 20);
+        Mockito.verify(mockService, Mockito.times(1)).findByText("text", "id", 0, 20);
+    }
+
+    @Test
+    void findByTextSortedByRelevanceTest() throws Exception {
+        Mockito.when(mockService.findByText("text", "relevance", 0, 20))
+                .thenReturn(List.of(item));
+        mvc.perform(get("/items/search")
+                        .param("text", "text")
+                        .param("sort", "relevance")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)));
+        Mockito.verify(mockService, Mockito.times(1)).findByText("text", "relevance", 0, 20);
+    }
+
+    @Test
+    void findByTextUnknownSortTest() throws Exception {
+        Mockito.when(mockService.findByText("text", "price", 0, 20))
+                .thenThrow(new IllegalArgumentException("Unknown sort: price"));
+        mvc.perform(get("/items/search")
+                        .param("text", "text")
+                        .param("sort", "price")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void suggestTest() throws Exception {
+        Mockito.when(mockService.suggest("it", 10)).thenReturn(List.of("item"));
+        mvc.perform(get("/items/suggest")
+                        .param("prefix", "it")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0]", is("item")));
+        Mockito.verify(mockService, Mockito.times(1)).suggest("it", 10);
+    }
+
+    @Test
+    void findAvailabilityTest() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 10, 0);
+        LocalDateTime to = from.plusDays(1);
+        Mockito.when(mockService.findAvailability(1L, from, to))
+                .thenReturn(List.of(new TimeSlotDto(from, from.plusHours(2)), new TimeSlotDto(from.plusHours(5), to)));
+        mvc.perform(get("/items/1/availability")
+                        .param("from", "2030-01-01T10:00:00")
+                        .param("to", "2030-01-02T10:00:00")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].start", is("2030-01-01T10:00:00")))
+                .andExpect(jsonPath("$[0].end", is("2030-01-01T12:00:00")))
+                .andExpect(jsonPath("$[1].start", is("2030-01-01T15:00:00")));
+    }
+
+    @Test
+    void findNextFreeSlotTest() throws Exception {
+        LocalDateTime start = LocalDateTime.of(2030, 1, 1, 10, 0);
+        Mockito.when(mockService.findNextFreeSlot(1L, null, Duration.ofHours(2)))
+                .thenReturn(new TimeSlotDto(start, start.plusHours(2)));
+        mvc.perform(get("/items/1/next-free")
+                        .param("duration", "PT2H")
+                        .header("X-Sharer-User-Id", 1L))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.start", is("2030-01-01T10:00:00")))
+                .andExpect(jsonPath("$.end", is("2030-01-01T12:00:00")));
     }
 
     @Test
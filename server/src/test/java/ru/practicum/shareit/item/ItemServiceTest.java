@@ -6,20 +6,37 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import ru.practicum.shareit.booking.Booking;
 import ru.practicum.shareit.booking.BookingStatus;
+import ru.practicum.shareit.booking.dto.BookingDtoShort;
+import ru.practicum.shareit.booking.dto.BookingShortView;
+import ru.practicum.shareit.booking.dto.TimeSlotDto;
 import ru.practicum.shareit.booking.repository.BookingRepository;
+import ru.practicum.shareit.booking.schedule.BookingIntervalIndex;
 import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.common.exceptions.*;
+import ru.practicum.shareit.item.dto.CommentView;
+import ru.practicum.shareit.item.dto.ItemDtoOut;
+import ru.practicum.shareit.item.dto.ItemView;
 import ru.practicum.shareit.item.repository.CommentRepository;
 import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
 
+import javax.validation.ValidationException;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -44,6 +61,15 @@ class ItemServiceTest {
     @MockBean
     private BookingRepository mockBookingRepository;
 
+    @MockBean
+    private ItemSearch mockItemSearch;
+
+    @MockBean
+    private ItemSuggestIndex mockSuggestIndex;
+
+    @MockBean
+    private BookingIntervalIndex mockIntervalIndex;
+
     @BeforeEach
     void setUp() {
         user1 = User.builder().id(1L).build();
@@ -72,6 +98,32 @@ class ItemServiceTest {
     void createTest() {
         assertEquals(item1, itemService.create(item1, 1L));
         Mockito.verify(mockItemRepository, Mockito.times(1)).save(item1);
+        Mockito.verify(mockItemSearch, Mockito.times(1)).index(item1);
+        Mockito.verify(mockSuggestIndex, Mockito.times(1)).index(item1);
+    }
+
+    @Test
+    void createIndexesCurrentRowTest() {
+        //a patch committed between the save and the index update must not be overwritten by the created row
+        Item patched = Item.builder()
+                .id(1L)
+                .name("patched")
+                .description("Item1 description")
+                .available(true)
+                .owner(user1)
+                .build();
+        Mockito.when(mockItemRepository.findById(1L)).thenReturn(Optional.of(patched));
+        itemService.create(item1, 1L);
+        Mockito.verify(mockItemSearch, Mockito.times(1)).index(patched);
+        Mockito.verify(mockSuggestIndex, Mockito.times(1)).index(patched);
+    }
+
+    @Test
+    void createDeletedBeforeIndexTest() {
+        Mockito.when(mockItemRepository.findById(1L)).thenReturn(Optional.empty());
+        itemService.create(item1, 1L);
+        Mockito.verify(mockItemSearch, Mockito.never()).index(Mockito.any(Item.class));
+        Mockito.verify(mockSuggestIndex, Mockito.never()).index(Mockito.any(Item.class));
     }
 
     @Test
@@ -85,6 +137,28 @@ class ItemServiceTest {
         Mockito.verify(mockItemRepository, Mockito.times(1)).findById(1L);
     }
 
+    @Test
+    void findByOwnerWithBookingsTest() {
+        Mockito.when(mockBookingRepository.findLastByItemId(Mockito.eq(1L), Mockito.eq(BookingStatus.APPROVED),
+                        Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(new BookingDtoShort(1L, 2L)));
+        Mockito.when(mockBookingRepository.findNextByItemId(Mockito.eq(1L), Mockito.eq(BookingStatus.APPROVED),
+                        Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class)))
+                .thenReturn(List.of(new BookingDtoShort(2L, 3L)));
+        ItemDtoOut item = itemService.findById(1L, 1L);
+        assertEquals(new BookingDtoShort(1L, 2L), item.getLastBooking());
+        assertEquals(new BookingDtoShort(2L, 3L), item.getNextBooking());
+    }
+
+    @Test
+    void findByNotOwnerWithoutBookingsTest() {
+        ItemDtoOut item = itemService.findById(1L, 2L);
+        assertNull(item.getLastBooking());
+        assertNull(item.getNextBooking());
+        Mockito.verify(mockBookingRepository, Mockito.never()).findLastByItemId(Mockito.anyLong(),
+                Mockito.any(BookingStatus.class), Mockito.any(LocalDateTime.class), Mockito.any(Pageable.class));
+    }
+
     @Test
     void findNonExistingTest() {
         assertThrows(ItemNotFoundException.class, () -> itemService.findById(-1L, 1L));
@@ -101,6 +175,8 @@ class ItemServiceTest {
                 .build();
         assertEquals(itemUpdated, itemService.update(itemUpdated, 1L));
         Mockito.verify(mockItemRepository, Mockito.times(1)).save(itemUpdated);
+        Mockito.verify(mockItemSearch, Mockito.times(1)).index(itemUpdated);
+        Mockito.verify(mockSuggestIndex, Mockito.times(1)).index(itemUpdated);
     }
 
     @Test
@@ -116,6 +192,45 @@ class ItemServiceTest {
         Mockito.verify(mockItemRepository, Mockito.times(1)).save(Mockito.any(Item.class));
     }
 
+    @Test
+    void concurrentUpdatesIndexInSaveOrderTest() throws Exception {
+        CountDownLatch saving = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<String> saved = new CopyOnWriteArrayList<>();
+        List<String> indexed = new CopyOnWriteArrayList<>();
+        List<String> suggested = new CopyOnWriteArrayList<>();
+        Mockito.when(mockItemRepository.save(Mockito.any(Item.class))).thenAnswer(invocation -> {
+            Item item = invocation.getArgument(0);
+            saved.add(item.getName());
+            if ("first".equals(item.getName())) {
+                saving.countDown();
+                assertTrue(release.await(5, TimeUnit.SECONDS));
+            }
+            return item;
+        });
+        Mockito.doAnswer(invocation -> indexed.add(invocation.<Item>getArgument(0).getName()))
+                .when(mockItemSearch).index(Mockito.any(Item.class));
+        Mockito.doAnswer(invocation -> suggested.add(invocation.<Item>getArgument(0).getName()))
+                .when(mockSuggestIndex).index(Mockito.any(Item.class));
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Item> first = executor.submit(() ->
+                    itemService.update(Item.builder().id(1L).name("first").build(), 1L));
+            assertTrue(saving.await(5, TimeUnit.SECONDS));
+            Future<Item> second = executor.submit(() ->
+                    itemService.update(Item.builder().id(1L).name("second").build(), 1L));
+            Thread.sleep(100);
+            assertEquals(List.of("first"), saved); //the second patch waits for the first one to be indexed
+            release.countDown();
+            first.get(5, TimeUnit.SECONDS);
+            second.get(5, TimeUnit.SECONDS);
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(List.of("first", "second"), indexed);
+        assertEquals(List.of("first", "second"), suggested);
+    }
+
     @Test
     void updateNotExistingTest() {
         assertThrows(ItemNotFoundException.class, () -> itemService.update(Item.builder().id(-1L).build(), 1L));
@@ -133,11 +248,37 @@ class ItemServiceTest {
 
     @Test
     void findByOwnerTest() {
-        Mockito.when(mockItemRepository.findByOwnerId(1L, OffsetPageRequest.of(0, 20, Sort.by("id"))))
-                .thenReturn(List.of(item1));
+        Mockito.when(mockItemRepository.findViewsByOwnerId(1L, OffsetPageRequest.of(0, 20, Sort.by("id"))))
+                .thenReturn(List.of(itemView(item1)));
         assertEquals(List.of(ItemMapper.toItemDtoOut(item1)), itemService.findByOwner(1L, 0, 20));
         Mockito.verify(mockItemRepository, Mockito.times(1))
-                .findByOwnerId(1L, OffsetPageRequest.of(0, 20, Sort.by("id")));
+                .findViewsByOwnerId(1L, OffsetPageRequest.of(0, 20, Sort.by("id")));
+    }
+
+    @Test
+    void findByOwnerBatchEnrichmentTest() {
+        Mockito.when(mockItemRepository.findViewsByOwnerId(1L, OffsetPageRequest.of(0, 20, Sort.by("id"))))
+                .thenReturn(List.of(itemView(item1), itemView(item2)));
+        Mockito.when(mockBookingRepository.findLastByItemIds(Mockito.anyCollection(), Mockito.anyString(),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingView(10L, 3L, 1L)));
+        Mockito.when(mockBookingRepository.findNextByItemIds(Mockito.anyCollection(), Mockito.anyString(),
+                        Mockito.any(LocalDateTime.class)))
+                .thenReturn(List.of(bookingView(11L, 3L, 1L), bookingView(12L, 4L, 2L)));
+        Mockito.when(mockCommentRepository.findViewsByItemIdIn(List.of(1L, 2L)))
+                .thenReturn(List.of(commentView(1L, 2L, "author")));
+
+        List<ItemDtoOut> items = itemService.findByOwner(1L, 0, 20);
+
+        assertEquals(2, items.size());
+        assertEquals(10L, items.get(0).getLastBooking().getId());
+        assertEquals(11L, items.get(0).getNextBooking().getId());
+        assertEquals(List.of(), items.get(0).getComments());
+        assertNull(items.get(1).getLastBooking());
+        assertEquals(12L, items.get(1).getNextBooking().getId());
+        assertEquals(4L, items.get(1).getNextBooking().getBookerId());
+        assertEquals("author", items.get(1).getComments().get(0).getAuthorName());
+        Mockito.verify(mockCommentRepository, Mockito.never()).findByItemId(Mockito.anyLong());
     }
 
     @Test
@@ -158,44 +299,229 @@ class ItemServiceTest {
 
     @Test
     void findByTextTest() {
-        Mockito.when(mockItemRepository.findByText("Item1", OffsetPageRequest.of(0, 20, Sort.by("id"))))
-                .thenReturn(List.of(item2));
-        assertEquals(List.of(item2), itemService.findByText("Item1", 0, 20));
-        Mockito.verify(mockItemRepository, Mockito.times(1))
-                .findByText("Item1", OffsetPageRequest.of(0, 20, Sort.by("id")));
+        Mockito.when(mockItemSearch.findByText("Item1", 0, 20)).thenReturn(List.of(item2));
+        assertEquals(List.of(item2), itemService.findByText("Item1", "id", 0, 20));
+        Mockito.verify(mockItemSearch, Mockito.times(1)).findByText("Item1", 0, 20);
+    }
+
+    @Test
+    void findByTextOrderByRelevanceTest() {
+        Mockito.when(mockItemSearch.findByTextOrderByRelevance("Item1", 0, 20)).thenReturn(List.of(item2, item1));
+        assertEquals(List.of(item2, item1), itemService.findByText("Item1", "RELEVANCE", 0, 20));
+        Mockito.verify(mockItemSearch, Mockito.never()).findByText(Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    void findByTextUnknownSortTest() {
+        assertThrows(IllegalArgumentException.class, () -> itemService.findByText("Item1", "price", 0, 20));
     }
 
     @Test
     void findByTextEmptyTest() {
-        assertEquals(List.of(), itemService.findByText("", 0, 20));
-        Mockito.verify(mockItemRepository, Mockito.never()).findByText(Mockito.anyString(), Mockito.any(OffsetPageRequest.class));
+        assertEquals(List.of(), itemService.findByText("", "id", 0, 20));
+        Mockito.verify(mockItemSearch, Mockito.never()).findByText(Mockito.anyString(), Mockito.anyInt(), Mockito.anyInt());
+    }
+
+    @Test
+    void suggestTest() {
+        Mockito.when(mockSuggestIndex.suggest("it", 10)).thenReturn(List.of("Item1", "Item2"));
+        assertEquals(List.of("Item1", "Item2"), itemService.suggest("it", 10));
+    }
+
+    @Test
+    void suggestBlankPrefixTest() {
+        assertEquals(List.of(), itemService.suggest(" ", 10));
+        Mockito.verify(mockSuggestIndex, Mockito.never()).suggest(Mockito.anyString(), Mockito.anyInt());
+    }
+
+    @Test
+    void findAvailabilityTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        LocalDateTime to = from.plusDays(1);
+        List<TimeSlotDto> slots = List.of(new TimeSlotDto(from, to));
+        Mockito.when(mockItemRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(mockIntervalIndex.findFreeSlots(1L, from, to)).thenReturn(slots);
+        assertEquals(slots, itemService.findAvailability(1L, from, to));
+    }
+
+    @Test
+    void findAvailabilityInPastTest() {
+        LocalDateTime from = LocalDateTime.now().minusDays(2);
+        Mockito.when(mockItemRepository.existsById(1L)).thenReturn(true);
+        assertEquals(List.of(), itemService.findAvailability(1L, from, from.plusDays(1)));
+        Mockito.verify(mockIntervalIndex, Mockito.never()).findFreeSlots(Mockito.any(), Mockito.any(), Mockito.any());
+    }
+
+    @Test
+    void findAvailabilityWrongDatesTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        assertThrows(ValidationException.class, () -> itemService.findAvailability(1L, from, from.minusHours(1)));
+    }
+
+    @Test
+    void findAvailabilityNonExistingItemTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        assertThrows(ItemNotFoundException.class, () -> itemService.findAvailability(1L, from, from.plusHours(1)));
+    }
+
+    @Test
+    void findNextFreeSlotTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        TimeSlotDto slot = new TimeSlotDto(from, from.plusHours(2));
+        Mockito.when(mockItemRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(mockIntervalIndex.findNextFreeSlot(1L, from, Duration.ofHours(2))).thenReturn(slot);
+        assertEquals(slot, itemService.findNextFreeSlot(1L, from, Duration.ofHours(2)));
+    }
+
+    @Test
+    void findNextFreeSlotWrongDurationTest() {
+        assertThrows(ValidationException.class, () -> itemService.findNextFreeSlot(1L, null, Duration.ZERO));
+    }
+
+    @Test
+    void findNextFreeSlotTooLongTest() {
+        Duration duration = Duration.ofDays(200_000_000L);
+        Mockito.when(mockItemRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(mockIntervalIndex.findNextFreeSlot(Mockito.eq(1L), Mockito.any(), Mockito.eq(duration)))
+                .thenThrow(new ArithmeticException("long overflow"));
+        assertThrows(ValidationException.class, () -> itemService.findNextFreeSlot(1L, null, duration));
+    }
+
+    @Test
+    void findNextFreeSlotAfterLatestDateTest() {
+        LocalDateTime from = BookingIntervalIndex.LATEST_DATE.minusDays(1);
+        Mockito.when(mockItemRepository.existsById(1L)).thenReturn(true);
+        Mockito.when(mockIntervalIndex.findNextFreeSlot(1L, from, Duration.ofDays(2)))
+                .thenReturn(new TimeSlotDto(from, from.plusDays(2)));
+        assertThrows(ValidationException.class, () -> itemService.findNextFreeSlot(1L, from, Duration.ofDays(2)));
+        assertThrows(ValidationException.class, () -> itemService.findNextFreeSlot(1L,
+                BookingIntervalIndex.LATEST_DATE.plusDays(1), Duration.ofDays(2)));
+    }
+
+    @Test
+    void findAvailabilityAfterLatestDateTest() {
+        LocalDateTime from = LocalDateTime.now().plusDays(1);
+        assertThrows(ValidationException.class, () -> itemService.findAvailability(1L, from,
+                LocalDateTime.of(300_000, 1, 1, 0, 0)));
     }
 
     @Test
     void deleteTest() {
         itemService.deleteById(1L);
         Mockito.verify(mockItemRepository, Mockito.times(1)).deleteById(1L);
+        Mockito.verify(mockItemSearch, Mockito.times(1)).remove(1L);
+        Mockito.verify(mockSuggestIndex, Mockito.times(1)).remove(1L);
+        Mockito.verify(mockIntervalIndex, Mockito.times(1)).removeItem(1L);
     }
 
     @Test
     void addCommentTest() {
-        Mockito.when(mockBookingRepository.findByItemIdAndStatus(Mockito.anyLong(), Mockito.any(BookingStatus.class)))
-                .thenReturn(List.of(Booking.builder()
-                        .start(LocalDateTime.now().minusDays(1))
-                        .end(LocalDateTime.now())
-                        .item(item1)
-                        .booker(user1)
-                        .status(BookingStatus.APPROVED)
-                        .build()));
+        Mockito.when(mockBookingRepository.existsByItemIdAndBookerIdAndStatusAndStartBefore(Mockito.eq(1L),
+                        Mockito.eq(1L), Mockito.eq(BookingStatus.APPROVED), Mockito.any(LocalDateTime.class)))
+                .thenReturn(true);
+        Mockito.when(mockItemRepository.getReferenceById(1L)).thenReturn(item1);
         Comment comment = Comment.builder()
                 .id(1L)
-                .item(item1)
-                .author(user1)
                 .text("test comment")
                 .build();
         Mockito.when(mockCommentRepository.save(comment)).thenReturn(comment);
-        assertEquals(comment, itemService.addComment(1L, 1L,comment));
+        assertEquals(comment, itemService.addComment(1L, 1L, comment));
+        assertEquals(item1, comment.getItem());
+        assertEquals(user1, comment.getAuthor());
         Mockito.verify(mockCommentRepository, Mockito.times(1)).save(comment);
+        Mockito.verify(mockItemRepository, Mockito.never()).findById(Mockito.anyLong());
+        Mockito.verify(mockCommentRepository, Mockito.never()).findByItemId(Mockito.anyLong());
+    }
+
+    @Test
+    void addCommentItemNotFoundTest() {
+        Comment comment = Comment.builder()
+                .text("test comment")
+                .build();
+        assertThrows(ItemNotFoundException.class, () -> itemService.addComment(-1L, 1L, comment));
+        Mockito.verify(mockCommentRepository, Mockito.never()).save(Mockito.any(Comment.class));
+    }
+
+    private static BookingShortView bookingView(Long id, Long bookerId, Long itemId) {
+        return new BookingShortView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getBookerId() {
+                return bookerId;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+        };
+    }
+
+    private static ItemView itemView(Item item) {
+        return new ItemView() {
+            @Override
+            public Long getId() {
+                return item.getId();
+            }
+
+            @Override
+            public String getName() {
+                return item.getName();
+            }
+
+            @Override
+            public String getDescription() {
+                return item.getDescription();
+            }
+
+            @Override
+            public Boolean getAvailable() {
+                return item.getAvailable();
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return item.getOwner().getId();
+            }
+
+            @Override
+            public Long getRequestId() {
+                return null;
+            }
+        };
+    }
+
+    private static CommentView commentView(Long id, Long itemId, String authorName) {
+        return new CommentView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public Long getItemId() {
+                return itemId;
+            }
+
+            @Override
+            public String getText() {
+                return "comment";
+            }
+
+            @Override
+            public String getAuthorName() {
+                return authorName;
+            }
+
+            @Override
+            public LocalDateTime getCreated() {
+                return null;
+            }
+        };
     }
 
     @Test
@@ -206,6 +532,7 @@ class ItemServiceTest {
                 .author(user1)
                 .text("test comment")
                 .build();
-        assertThrows(ItemNeverBookedByUserException.class, () -> itemService.addComment(1L, 2L, comment));
+        Mockito.when(mockItemRepository.existsById(1L)).thenReturn(true);
+        assertThrows(ItemNeverBookedByUserException.class, () -> itemService.addComment(1L, 1L, comment));
     }
 }
\ No newline at end of file
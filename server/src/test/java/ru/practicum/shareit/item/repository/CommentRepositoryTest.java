@@ -0,0 +1,46 @@
+package ru.practicum.shareit.item.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.item.Comment;
+import ru.practicum.shareit.item.dto.CommentView;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql(scripts = {"classpath:schema.sql", "classpath:data_CommentRepositoryTest.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class CommentRepositoryTest {
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Test
+    void findViewsByItemIdInTest() {
+        Map<Long, List<String>> comments = commentRepository.findViewsByItemIdIn(List.of(1L, 2L)).stream()
+                .collect(Collectors.groupingBy(CommentView::getItemId,
+                        Collectors.mapping(CommentView::getText, Collectors.toList())));
+        assertEquals(Map.of(1L, List.of("comment1"), 2L, List.of("comment2", "comment3")), comments);
+    }
+
+    @Test
+    void findViewsByItemIdInAuthorNameTest() {
+        List<CommentView> comments = commentRepository.findViewsByItemIdIn(List.of(3L));
+        assertEquals(1, comments.size());
+        assertEquals("testAuthor", comments.get(0).getAuthorName());
+    }
+
+    @Test
+    void findByItemIdFetchesAuthorTest() {
+        List<Comment> comments = commentRepository.findByItemId(3L);
+        assertEquals(1, comments.size());
+        assertEquals("testAuthor", comments.get(0).getAuthor().getName());
+    }
+}
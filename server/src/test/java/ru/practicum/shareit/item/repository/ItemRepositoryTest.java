@@ -3,6 +3,7 @@ package ru.practicum.shareit.item.repository;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.jdbc.Sql;
 import ru.practicum.shareit.common.OffsetPageRequest;
@@ -72,4 +73,15 @@ class ItemRepositoryTest {
         assertEquals(2, items.size());
         assertEquals(expectedItems, items);
     }
-}
\ No newline at end of file
+
+    @Test
+    void findNamesByPatternTest() {
+        assertEquals(List.of("testItem1_nameKeyword", "testItem3", "testItem5"),
+                itemRepository.findNamesByPattern("TESTITEM%", PageRequest.of(0, 10)));
+        assertEquals(List.of("testItem1_nameKeyword", "testItem3"),
+                itemRepository.findNamesByPattern("TESTITEM%", PageRequest.of(0, 2)));
+        assertEquals(List.of("testItem1_nameKeyword"),
+                itemRepository.findNamesByPattern("TESTITEM1\\_%", PageRequest.of(0, 10)));
+        assertEquals(List.of(), itemRepository.findNamesByPattern("TESTITEM\\_%", PageRequest.of(0, 10)));
+    }
+}
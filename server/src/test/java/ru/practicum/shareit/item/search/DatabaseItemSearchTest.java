@@ -0,0 +1,54 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.item.Item;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = ItemSearch.BACKEND_PROPERTY + "=database")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql(scripts = {"classpath:schema.sql", "classpath:data_ItemRepositoryTest.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class DatabaseItemSearchTest {
+    @Autowired
+    private ItemSearch itemSearch;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void backendSelectedByPropertyTest() {
+        assertTrue(itemSearch instanceof DatabaseItemSearch);
+    }
+
+    @Test
+    void findByTextFallsBackToLikeTest() {
+        assertEquals(List.of(1L, 3L), ids(itemSearch.findByText("KEYWORD", 0, 20)));
+        assertEquals(List.of(3L), ids(itemSearch.findByText("keyword", 1, 1)));
+    }
+
+    @Test
+    void findByTextOrderByRelevanceFallsBackToLikeTest() {
+        jdbcTemplate.update("INSERT INTO items (name, description, is_available, owner_id) " +
+                "VALUES ('descriptionKeyword holder', 'testDescr6', true, 1)");
+        assertEquals(List.of(6L, 3L), ids(itemSearch.findByTextOrderByRelevance("descriptionKeyword", 0, 20)));
+        assertEquals(List.of(3L), ids(itemSearch.findByTextOrderByRelevance("descriptionKeyword", 1, 1)));
+    }
+
+    @Test
+    void likePatternEscapesWildcardsTest() {
+        assertEquals("%50\\%\\_off\\\\%", DatabaseItemSearch.likePattern("50%_off\\"));
+    }
+
+    private static List<Long> ids(List<Item> items) {
+        return items.stream().map(Item::getId).collect(Collectors.toList());
+    }
+}
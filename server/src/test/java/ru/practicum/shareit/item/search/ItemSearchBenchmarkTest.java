@@ -0,0 +1,133 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.springframework.jdbc.support.JdbcUtils;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.item.repository.ItemRepository;
+
+import javax.sql.DataSource;
+import java.sql.DatabaseMetaData;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+//Run with -Dshareit.benchmark=true, optionally -Dshareit.benchmark.items=N and spring.datasource.* pointing to PostgreSQL
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.AFTER_CLASS)
+@Sql(scripts = "classpath:schema.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+@EnabledIfSystemProperty(named = "shareit.benchmark", matches = "true")
+@Slf4j
+class ItemSearchBenchmarkTest {
+    private static final String[] WORDS = {"drill", "hammer", "saw", "ladder", "tent", "bike", "camera", "kayak",
+            "projector", "mixer", "wrench", "sander", "grill", "heater", "scooter", "speaker", "tripod", "jack"};
+    private static final String[] QUERIES = {"drill", "amme", "kayak tent", "projector", "er", "x", "nothing"};
+    private static final int INSERT_BATCH_SIZE = 10_000;
+    private static final int ROUNDS = 20;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Test
+    void compareBackendsTest() throws Exception {
+        int count = Integer.getInteger("shareit.benchmark.items", 1_000_000);
+        boolean postgres = "PostgreSQL".equals(JdbcUtils.commonDatabaseName(
+                JdbcUtils.extractDatabaseMetaData(dataSource, DatabaseMetaData::getDatabaseProductName)));
+        if (postgres) { //schema.sql above dropped the search column and indexes
+            new ResourceDatabasePopulator(new ClassPathResource("schema-postgresql.sql")).execute(dataSource);
+        }
+        fillCatalog(count);
+        if (postgres) {
+            jdbcTemplate.execute("ANALYZE items");
+        }
+
+        long start = System.nanoTime();
+        ItemSearchIndex index = new ItemSearchIndex(itemRepository);
+        index.warm();
+        log.info("Index built for {} items in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        DatabaseItemSearch database = new DatabaseItemSearch(itemRepository, dataSource);
+
+        for (String query : QUERIES) {
+            assertEquals(database.findByText(query, 0, 20), index.findByText(query, 0, 20), query);
+            log.info("'{}': index lookup {} us, memory {} us, database {} us", query,
+                    measureLookup(index, query), measure(index, query), measure(database, query));
+            log.info("'{}' by relevance: memory {} us, database {} us", query,
+                    measureRanked(index, query), measureRanked(database, query));
+            if (postgres) {
+                log.info("'{}' by relevance plan:\n{}", query, String.join("\n", explainRanked(query)));
+            }
+        }
+    }
+
+    //benchmark queries hold no quotes, so they are inlined instead of bound
+    private List<String> explainRanked(String query) throws NoSuchMethodException {
+        String sql = ItemRepository.class
+                .getMethod("findByPatternOrderByRelevance", String.class, String.class, Pageable.class)
+                .getAnnotation(Query.class).value()
+                .replace("?1", "'" + DatabaseItemSearch.likePattern(query) + "'")
+                .replace("?2", "'" + query + "'");
+        return jdbcTemplate.queryForList("EXPLAIN ANALYZE " + sql + " LIMIT 20", String.class);
+    }
+
+    private void fillCatalog(int count) {
+        jdbcTemplate.update("INSERT INTO users (name, email) VALUES ('owner', 'owner@mail.com')");
+        Random random = new Random(1);
+        for (int from = 0; from < count; from += INSERT_BATCH_SIZE) {
+            List<Object[]> rows = new ArrayList<>();
+            for (int i = from; i < Math.min(count, from + INSERT_BATCH_SIZE); i++) {
+                rows.add(new Object[]{word(random) + " " + i, word(random) + " " + word(random) + " " + word(random),
+                        random.nextInt(10) > 0});
+            }
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO items (name, description, is_available, owner_id) VALUES (?, ?, ?, 1)", rows);
+        }
+    }
+
+    private static String word(Random random) {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private static long measureLookup(ItemSearchIndex index, String query) {
+        index.search(query, 0, 20);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            index.search(query, 0, 20);
+        }
+        return (System.nanoTime() - start) / ROUNDS / 1_000;
+    }
+
+    private static long measureRanked(ItemSearch search, String query) {
+        search.findByTextOrderByRelevance(query, 0, 20);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            search.findByTextOrderByRelevance(query, 0, 20);
+        }
+        return (System.nanoTime() - start) / ROUNDS / 1_000;
+    }
+
+    private static long measure(ItemSearch search, String query) {
+        search.findByText(query, 0, 20);
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            search.findByText(query, 0, 20);
+        }
+        return (System.nanoTime() - start) / ROUNDS / 1_000;
+    }
+}
@@ -0,0 +1,326 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSearchIndexTest {
+    private ItemRepository mockRepository;
+    private ItemSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        mockRepository = Mockito.mock(ItemRepository.class);
+        Mockito.when(mockRepository.findAvailableForSearch(0L, PageRequest.of(0, ItemSearchIndex.WARM_BATCH_SIZE)))
+                .thenReturn(List.of(
+                        view(1L, "Drill", "Powerful cordless drill", 1L),
+                        view(2L, "Hammer", "Heavy claw hammer", 1L),
+                        view(3L, "Saw", "Hand saw for wood", 2L)));
+        index = new ItemSearchIndex(mockRepository);
+        index.warm();
+    }
+
+    @Test
+    void notReadyBeforeWarmTest() {
+        assertFalse(new ItemSearchIndex(mockRepository).isReady());
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void warmInBatchesTest() {
+        List<ItemSearchView> firstBatch = LongStream.rangeClosed(1, ItemSearchIndex.WARM_BATCH_SIZE)
+                .mapToObj(id -> view(id, "item" + id, "description", 1L))
+                .collect(Collectors.toList());
+        Mockito.when(mockRepository.findAvailableForSearch(0L, PageRequest.of(0, ItemSearchIndex.WARM_BATCH_SIZE)))
+                .thenReturn(firstBatch);
+        Mockito.when(mockRepository.findAvailableForSearch((long) ItemSearchIndex.WARM_BATCH_SIZE,
+                        PageRequest.of(0, ItemSearchIndex.WARM_BATCH_SIZE)))
+                .thenReturn(List.of(view(5000L, "last", "description", 1L)));
+        index.warm();
+        assertEquals(List.of(5000L), index.search("last", 0, 20));
+        assertEquals(List.of(1000L), index.search("item1000", 0, 20));
+    }
+
+    @Test
+    void findByTextTest() {
+        Item drill = item(1L, "Drill", "Powerful cordless drill", true, 1L);
+        Mockito.when(mockRepository.findByIdIn(List.of(1L), Sort.by("id"))).thenReturn(List.of(drill));
+        assertEquals(List.of(drill), index.findByText("drill", 0, 20));
+        assertEquals(List.of(), index.findByText("missing", 0, 20));
+        Mockito.verify(mockRepository, Mockito.times(1)).findByIdIn(Mockito.anyCollection(), Mockito.any(Sort.class));
+        Mockito.verify(mockRepository, Mockito.never()).findByText(Mockito.anyString(), Mockito.any(OffsetPageRequest.class));
+    }
+
+    @Test
+    void findByTextBeforeWarmTest() {
+        Item drill = item(1L, "Drill", "Powerful cordless drill", true, 1L);
+        Mockito.when(mockRepository.findByText("drill", OffsetPageRequest.of(0, 20, Sort.by("id"))))
+                .thenReturn(List.of(drill));
+        assertEquals(List.of(drill), new ItemSearchIndex(mockRepository).findByText("drill", 0, 20));
+    }
+
+    @Test
+    void findByTextOrderByRelevanceBeforeWarmTest() {
+        new ItemSearchIndex(mockRepository).findByTextOrderByRelevance("drill", 0, 20);
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .findByTextOrderByRelevance("drill", OffsetPageRequest.of(0, 20));
+    }
+
+    @Test
+    void findByTextOrderByRelevanceKeepsRankTest() {
+        Item drill = item(1L, "Drill", "Powerful cordless drill", true, 1L);
+        Item saw = item(4L, "Cordless saw", "Battery included", true, 1L);
+        index.index(saw);
+        Mockito.when(mockRepository.findByIdIn(List.of(4L, 1L), Sort.by("id"))).thenReturn(List.of(drill, saw));
+        assertEquals(List.of(saw, drill), index.findByTextOrderByRelevance("cordless", 0, 20));
+    }
+
+    @Test
+    void searchByRelevanceNameAboveDescriptionTest() {
+        index.index(item(4L, "Bag", "Bag for a drill", true, 1L));
+        index.index(item(5L, "Old drill", "Works", true, 1L));
+        assertEquals(List.of(1L, 5L, 4L), index.searchByRelevance("drill", 0, 20));
+        index.index(item(6L, "Jigsaw", "Electric", true, 1L));
+        assertEquals(List.of(3L, 6L), index.searchByRelevance("saw", 0, 20));
+    }
+
+    @Test
+    void searchByRelevanceToleratesOneTypoTest() {
+        assertEquals(List.of(1L), index.searchByRelevance("drll", 0, 20));
+        assertEquals(List.of(2L), index.searchByRelevance("hamer", 0, 20));
+        assertEquals(List.of(1L), index.searchByRelevance("CORDLES", 0, 20));
+        assertEquals(List.of(), index.searchByRelevance("hmmr", 0, 20));
+    }
+
+    @Test
+    void searchByRelevanceExactAboveTypoTest() {
+        index.index(item(4L, "Drills", "Set", true, 1L));
+        index.index(item(5L, "Dril", "Broken", true, 1L));
+        assertEquals(List.of(1L, 4L, 5L), index.searchByRelevance("drill", 0, 20));
+    }
+
+    @Test
+    void searchByRelevancePagingTest() {
+        index.index(item(4L, "Bag", "Bag for a drill", true, 1L));
+        index.index(item(5L, "Old drill", "Works", true, 1L));
+        assertEquals(List.of(5L), index.searchByRelevance("drill", 1, 1));
+        assertEquals(List.of(4L), index.searchByRelevance("drill", 2, 5));
+        assertEquals(List.of(), index.searchByRelevance("drill", 3, 5));
+    }
+
+    @Test
+    void containsWithTypoTest() {
+        assertTrue(ItemSearchIndex.containsWithTypo("CORDLESS DRILL", "DRIL"));
+        assertTrue(ItemSearchIndex.containsWithTypo("CORDLESS DRILL", "DRILX"));
+        assertTrue(ItemSearchIndex.containsWithTypo("CORDLESS DRILL", "DRIILL"));
+        assertTrue(ItemSearchIndex.containsWithTypo("CORDLESS DRILL", "CRDLESS"));
+        assertFalse(ItemSearchIndex.containsWithTypo("CORDLESS DRILL", "DRXLX"));
+        assertFalse(ItemSearchIndex.containsWithTypo("SAW", "HAMMER"));
+    }
+
+    @Test
+    void searchShortQueryTest() {
+        assertEquals(List.of(1L, 2L, 3L), index.search("r", 0, 20));
+        assertEquals(List.of(1L), index.search("dr", 0, 20));
+        assertEquals(List.of(2L), index.search("HAM", 0, 20));
+    }
+
+    @Test
+    void searchLongQueryIgnoresCaseTest() {
+        assertEquals(List.of(1L), index.search("CORDless", 0, 20));
+        assertEquals(List.of(3L), index.search("saw for", 0, 20));
+    }
+
+    @Test
+    void searchRequiresContiguousSubstringTest() {
+        index.index(item(4L, "Set", "abcd bcde", true, 1L));
+        //every trigram of the query is present, but not as one substring
+        assertEquals(List.of(), index.search("abcde", 0, 20));
+        assertEquals(List.of(4L), index.search("abcd", 0, 20));
+    }
+
+    @Test
+    void searchDoesNotMatchAcrossNameAndDescriptionTest() {
+        assertEquals(List.of(), index.search("sawhand", 0, 20));
+    }
+
+    @Test
+    void searchPagingTest() {
+        assertEquals(List.of(2L, 3L), index.search("r", 1, 20));
+        assertEquals(List.of(2L), index.search("r", 1, 1));
+        assertEquals(List.of(3L), index.search("a", 1, 1));
+        assertEquals(List.of(), index.search("r", 3, 20));
+    }
+
+    @Test
+    void searchUnknownTest() {
+        assertEquals(List.of(), index.search("z", 0, 20));
+        assertEquals(List.of(), index.search("screwdriver", 0, 20));
+    }
+
+    @Test
+    void indexNewItemTest() {
+        index.index(item(4L, "Screwdriver", "Flat screwdriver", true, 2L));
+        assertEquals(List.of(4L), index.search("screw", 0, 20));
+    }
+
+    @Test
+    void indexUpdatedItemTest() {
+        index.index(item(1L, "Impact driver", "Cordless impact driver", true, 1L));
+        assertEquals(List.of(), index.search("drill", 0, 20));
+        assertEquals(List.of(1L), index.search("driver", 0, 20));
+    }
+
+    @Test
+    void indexUnavailableItemTest() {
+        index.index(item(1L, "Drill", "Powerful cordless drill", false, 1L));
+        assertEquals(List.of(), index.search("drill", 0, 20));
+    }
+
+    @Test
+    void removeTest() {
+        index.remove(2L);
+        index.remove(10L);
+        assertEquals(List.of(1L, 3L), index.search("r", 0, 20));
+    }
+
+    @Test
+    void removeByOwnerTest() {
+        index.removeByOwner(1L);
+        assertEquals(List.of(3L), index.search("r", 0, 20));
+    }
+
+    @Test
+    void searchMatchesSubstringScanTest() {
+        Random random = new Random(42);
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            Item item = item(id, randomText(random, 8), randomText(random, 30), random.nextInt(4) > 0, 1L);
+            items.add(item);
+            index.index(item);
+        }
+        for (int i = 0; i < 300; i++) {
+            String query = randomText(random, 1 + random.nextInt(5));
+            List<Long> expected = items.stream()
+                    .filter(Item::getAvailable)
+                    .filter(item -> item.getName().toUpperCase(Locale.ROOT).contains(query.toUpperCase(Locale.ROOT))
+                            || item.getDescription().toUpperCase(Locale.ROOT)
+                            .contains(query.toUpperCase(Locale.ROOT)))
+                    .map(Item::getId)
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.search(query, 0, Integer.MAX_VALUE), query);
+        }
+    }
+
+    @Test
+    void searchByRelevanceMatchesFullScanTest() {
+        Random random = new Random(7);
+        List<Item> items = new ArrayList<>();
+        for (long id = 1; id <= 300; id++) {
+            Item item = item(id, randomText(random, 8), randomText(random, 30), random.nextInt(4) > 0, 1L);
+            items.add(item);
+            index.index(item);
+        }
+        for (int i = 0; i < 300; i++) {
+            String query = randomText(random, 1 + random.nextInt(7)).toUpperCase(Locale.ROOT);
+            List<Long> expected = items.stream()
+                    .filter(Item::getAvailable)
+                    .filter(item -> score(item, query) > 0)
+                    .sorted(Comparator.comparingInt((Item item) -> score(item, query)).reversed()
+                            .thenComparing(Item::getId))
+                    .map(Item::getId)
+                    .skip(2)
+                    .limit(10)
+                    .collect(Collectors.toList());
+            assertEquals(expected, index.searchByRelevance(query, 2, 10), query);
+        }
+    }
+
+    @Test
+    void candidatesSkipCommonGramsTest() {
+        for (long id = 10; id < 100_010; id++) {
+            index.index(item(id, "Ball " + id, "Round and bouncy", true, 2L));
+        }
+        index.index(item(200_000L, "Dril", "Cordless", true, 2L));
+        index.index(item(200_001L, "Grill", "Charcoal", true, 2L));
+        //every ball shares only the LL bigram with the query, too few to be a candidate
+        assertArrayEquals(new long[]{1L, 200_000L, 200_001L}, index.candidates("DRILL"));
+        assertEquals(List.of(1L, 200_000L, 200_001L), index.searchByRelevance("drill", 0, 10));
+    }
+
+    private static int score(Item item, String query) {
+        String name = item.getName().toUpperCase(Locale.ROOT);
+        String description = item.getDescription().toUpperCase(Locale.ROOT);
+        boolean fuzzy = query.length() >= ItemSearchIndex.FUZZY_MIN_LENGTH;
+        if (name.contains(query)) {
+            return ItemSearchIndex.NAME_MATCH;
+        } else if (fuzzy && ItemSearchIndex.containsWithTypo(name, query)) {
+            return ItemSearchIndex.NAME_TYPO_MATCH;
+        } else if (description.contains(query)) {
+            return ItemSearchIndex.DESCRIPTION_MATCH;
+        } else if (fuzzy && ItemSearchIndex.containsWithTypo(description, query)) {
+            return ItemSearchIndex.DESCRIPTION_TYPO_MATCH;
+        }
+        return 0;
+    }
+
+    private static String randomText(Random random, int length) {
+        String alphabet = "abcABC ";
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < length; i++) {
+            text.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return text.toString();
+    }
+
+    private static Item item(Long id, String name, String description, boolean available, Long ownerId) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(available)
+                .owner(User.builder().id(ownerId).build())
+                .build();
+    }
+
+    private static ItemSearchView view(Long id, String name, String description, Long ownerId) {
+        return new ItemSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return description;
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+}
@@ -0,0 +1,135 @@
+package ru.practicum.shareit.item.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.springframework.data.domain.PageRequest;
+import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemSearchView;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.user.User;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ItemSuggestIndexTest {
+    private ItemSuggestIndex index;
+    private ItemRepository mockRepository;
+
+    @BeforeEach
+    void setUp() {
+        mockRepository = Mockito.mock(ItemRepository.class);
+        Mockito.when(mockRepository.findAvailableForSearch(0L, PageRequest.of(0, ItemSuggestIndex.WARM_BATCH_SIZE)))
+                .thenReturn(List.of(
+                        view(1L, "Drill", 1L),
+                        view(2L, "Drill bits", 1L),
+                        view(3L, "Dremel", 2L),
+                        view(4L, "drill", 2L),
+                        view(5L, "Hammer", 2L)));
+        index = new ItemSuggestIndex(mockRepository);
+        index.warm();
+    }
+
+    @Test
+    void suggestTest() {
+        assertEquals(List.of("Dremel", "Drill", "Drill bits"), index.suggest("dr", 10));
+        assertEquals(List.of("Drill", "Drill bits"), index.suggest("DRILL", 10));
+        assertEquals(List.of("Hammer"), index.suggest("h", 10));
+        assertEquals(List.of(), index.suggest("saw", 10));
+    }
+
+    @Test
+    void suggestLimitTest() {
+        assertEquals(List.of("Dremel", "Drill"), index.suggest("d", 2));
+    }
+
+    @Test
+    void indexNewItemTest() {
+        index.index(item(6L, "Drainer", true, 1L));
+        assertEquals(List.of("Drainer", "Dremel"), index.suggest("dr", 2));
+    }
+
+    @Test
+    void indexRenamedItemTest() {
+        index.index(item(3L, "Sander", true, 2L));
+        assertEquals(List.of("Drill", "Drill bits"), index.suggest("dr", 10));
+        assertEquals(List.of("Sander"), index.suggest("sa", 10));
+    }
+
+    @Test
+    void indexUnavailableItemTest() {
+        index.index(item(5L, "Hammer", false, 2L));
+        assertEquals(List.of(), index.suggest("ham", 10));
+    }
+
+    @Test
+    void removeKeepsSharedNameTest() {
+        index.remove(1L);
+        assertEquals(List.of("Drill", "Drill bits"), index.suggest("drill", 10));
+        index.remove(4L);
+        assertEquals(List.of("Drill bits"), index.suggest("drill", 10));
+    }
+
+    @Test
+    void removeByOwnerTest() {
+        index.removeByOwner(2L);
+        assertEquals(List.of("Drill", "Drill bits"), index.suggest("d", 10));
+        assertEquals(List.of(), index.suggest("h", 10));
+    }
+
+    @Test
+    void coldIndexFallsBackToDatabaseTest() {
+        ItemSuggestIndex cold = new ItemSuggestIndex(mockRepository);
+        Mockito.when(mockRepository.findNamesByPattern("DR%", PageRequest.of(0, 10)))
+                .thenReturn(List.of("Dremel", "Drill"));
+        assertFalse(cold.isReady());
+        assertEquals(List.of("Dremel", "Drill"), cold.suggest("dr", 10));
+        cold.warm();
+        assertTrue(cold.isReady());
+        assertEquals(List.of("Dremel", "Drill", "Drill bits"), cold.suggest("dr", 10));
+        Mockito.verify(mockRepository, Mockito.times(1)).findNamesByPattern(Mockito.anyString(), Mockito.any());
+    }
+
+    @Test
+    void coldIndexEscapesPatternTest() {
+        ItemSuggestIndex cold = new ItemSuggestIndex(mockRepository);
+        cold.suggest("50%_off\\", 5);
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .findNamesByPattern("50\\%\\_OFF\\\\%", PageRequest.of(0, 5));
+    }
+
+    private static Item item(Long id, String name, boolean available, Long ownerId) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description("description")
+                .available(available)
+                .owner(User.builder().id(ownerId).build())
+                .build();
+    }
+
+    private static ItemSearchView view(Long id, String name, Long ownerId) {
+        return new ItemSearchView() {
+            @Override
+            public Long getId() {
+                return id;
+            }
+
+            @Override
+            public String getName() {
+                return name;
+            }
+
+            @Override
+            public String getDescription() {
+                return "description";
+            }
+
+            @Override
+            public Long getOwnerId() {
+                return ownerId;
+            }
+        };
+    }
+}
@@ -10,6 +10,8 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import ru.practicum.shareit.item.Item;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
 import ru.practicum.shareit.user.User;
 
 import java.time.LocalDateTime;
@@ -26,6 +28,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 class ItemRequestControllerTest {
     private LocalDateTime created;
     private ItemRequest request;
+    private ItemRequestDto requestDto;
 
     @Autowired
     private MockMvc mvc;
@@ -46,7 +49,9 @@ class ItemRequestControllerTest {
                 .created(created)
                 .items(List.of(Item.builder().id(1L).build()))
                 .build();
-        Mockito.when(mockService.findById(1L, 1L)).thenReturn(request);
+        requestDto = ItemRequestMapper.toItemRequestDto(request,
+                List.of(ItemDtoRequest.builder().id(1L).requestId(1L).build()));
+        Mockito.when(mockService.findById(1L, 1L)).thenReturn(requestDto);
     }
 
     @Test
@@ -72,13 +77,14 @@ class ItemRequestControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.id", is(1)))
                 .andExpect(jsonPath("$.description", is("description")))
-                .andExpect(jsonPath("$.created", is(created.toString())));
+                .andExpect(jsonPath("$.created", is(created.toString())))
+                .andExpect(jsonPath("$.items[0].requestId", is(1)));
         Mockito.verify(mockService, Mockito.times(1)).findById(1L, 1L);
     }
 
     @Test
     void findByRequesterTest() throws Exception {
-        Mockito.when(mockService.findByUser(1L)).thenReturn(List.of(request));
+        Mockito.when(mockService.findByUser(1L)).thenReturn(List.of(requestDto));
         mvc.perform(get("/requests")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", 1L)
@@ -93,7 +99,7 @@ class ItemRequestControllerTest {
 
     @Test
     void findAllTest() throws Exception {
-        Mockito.when(mockService.findAll(1L, 0, 20)).thenReturn(List.of(request));
+        Mockito.when(mockService.findAll(1L, 0, 20)).thenReturn(List.of(requestDto));
         mvc.perform(get("/requests/all")
                         .contentType(MediaType.APPLICATION_JSON)
                         .header("X-Sharer-User-Id", 1L)
@@ -0,0 +1,86 @@
+package ru.practicum.shareit.request;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.request.dto.ItemRequestDto;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.List;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql(scripts = {"classpath:schema.sql", "classpath:data_ItemRequestQueryCountTest.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ItemRequestQueryCountTest {
+    private Statistics statistics;
+
+    @Autowired
+    private ItemRequestService requestService;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    @Test
+    void findAllQueryCountDoesNotGrowWithPageSizeTest() {
+        long small = countQueries(() -> requestService.findAll(1L, 0, 1));
+        long large = countQueries(() -> requestService.findAll(1L, 0, 6));
+        assertEquals(small, large);
+        assertEquals(3, large);
+    }
+
+    @Test
+    void findByUserQueryCountDoesNotGrowWithRequestCountTest() {
+        long requester1 = countQueries(() -> requestService.findByUser(2L));
+        long requester2 = countQueries(() -> requestService.findByUser(3L));
+        assertEquals(3, requester1);
+        assertEquals(requester1, requester2);
+    }
+
+    @Test
+    void findAllItemsTest() {
+        List<ItemRequestDto> requests = requestService.findAll(1L, 0, 6);
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L, 6L),
+                requests.stream().map(ItemRequestDto::getId).collect(Collectors.toList()));
+        assertEquals(List.of(3L, 4L), requests.get(2).getItems().stream()
+                .map(ItemDtoRequest::getId)
+                .collect(Collectors.toList()));
+        assertEquals(3L, requests.get(2).getItems().get(0).getRequestId());
+        assertFalse(requests.get(4).getItems().get(0).getAvailable());
+        assertEquals(2L, requests.get(0).getRequesterId());
+    }
+
+    @Test
+    void findByIdItemsTest() {
+        ItemRequestDto request = requestService.findById(3L, 1L);
+        assertEquals("request3", request.getDescription());
+        assertEquals(2, request.getItems().size());
+        assertEquals("testItem3", request.getItems().get(0).getName());
+    }
+
+    @Test
+    void findByUserWithoutRequestsTest() {
+        assertEquals(List.of(), requestService.findByUser(4L));
+    }
+
+    private long countQueries(Supplier<List<ItemRequestDto>> call) {
+        statistics.clear();
+        call.get();
+        return statistics.getPrepareStatementCount();
+    }
+}
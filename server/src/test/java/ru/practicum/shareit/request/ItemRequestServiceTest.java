@@ -8,6 +8,9 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.common.exceptions.ItemRequestNotFound;
+import ru.practicum.shareit.item.dto.ItemDtoRequest;
+import ru.practicum.shareit.item.repository.ItemRepository;
+import ru.practicum.shareit.request.dto.ItemRequestView;
 import ru.practicum.shareit.request.repository.ItemRequestRepository;
 import ru.practicum.shareit.user.User;
 import ru.practicum.shareit.user.UserService;
@@ -22,6 +25,8 @@ import static org.junit.jupiter.api.Assertions.*;
 class ItemRequestServiceTest {
     private User user;
     private ItemRequest request;
+    private ItemRequestView view;
+    private ItemDtoRequest item;
 
     @Autowired
     private ItemRequestService requestService;
@@ -32,6 +37,9 @@ class ItemRequestServiceTest {
     @MockBean
     private ItemRequestRepository mockRepository;
 
+    @MockBean
+    private ItemRepository mockItemRepository;
+
     @BeforeEach
     void setUp() {
         user = User.builder().id(1L).build();
@@ -41,8 +49,19 @@ class ItemRequestServiceTest {
                 .description("description")
                 .created(LocalDateTime.now().withNano(0))
                 .build();
+        view = Mockito.mock(ItemRequestView.class);
+        Mockito.when(view.getId()).thenReturn(1L);
+        Mockito.when(view.getDescription()).thenReturn("description");
+        Mockito.when(view.getRequesterId()).thenReturn(1L);
+        Mockito.when(view.getCreated()).thenReturn(request.getCreated());
         Mockito.when(mockUserService.findById(1L)).thenReturn(user);
+        item = ItemDtoRequest.builder()
+                .id(1L)
+                .name("item")
+                .requestId(1L)
+                .build();
         Mockito.when(mockRepository.findById(1L)).thenReturn(Optional.of(request));
+        Mockito.when(mockItemRepository.findByRequestIdIn(List.of(1L))).thenReturn(List.of(item));
     }
 
     @Test
@@ -54,7 +73,7 @@ class ItemRequestServiceTest {
 
     @Test
     void findByIdTest() {
-        assertEquals(request, requestService.findById(1L, 1L));
+        assertEquals(ItemRequestMapper.toItemRequestDto(request, List.of(item)), requestService.findById(1L, 1L));
         Mockito.verify(mockRepository, Mockito.times(1)).findById(1L);
     }
 
@@ -65,17 +84,27 @@ class ItemRequestServiceTest {
 
     @Test
     void findByUserTest() {
-        Mockito.when(mockRepository.findByRequesterIdOrderByCreatedDesc(1L)).thenReturn(List.of(request));
-        assertEquals(List.of(request), requestService.findByUser(1L));
-        Mockito.verify(mockRepository, Mockito.times(1)).findByRequesterIdOrderByCreatedDesc(1L);
+        Mockito.when(mockRepository.findViewsByRequesterId(1L)).thenReturn(List.of(view));
+        assertEquals(List.of(ItemRequestMapper.toItemRequestDto(request, List.of(item))),
+                requestService.findByUser(1L));
+        Mockito.verify(mockRepository, Mockito.times(1)).findViewsByRequesterId(1L);
+        Mockito.verify(mockItemRepository, Mockito.times(1)).findByRequestIdIn(List.of(1L));
     }
 
     @Test
     void findAllTest() {
-        Mockito.when(mockRepository.findByRequesterIdNot(Mockito.anyLong(), Mockito.any(OffsetPageRequest.class)))
-                .thenReturn(List.of(request));
-        assertEquals(List.of(request), requestService.findAll(1L, 0, 20));
+        Mockito.when(mockRepository.findViewsByRequesterIdNot(Mockito.anyLong(),
+                        Mockito.any(OffsetPageRequest.class)))
+                .thenReturn(List.of(view));
+        assertEquals(List.of(ItemRequestMapper.toItemRequestDto(request, List.of(item))),
+                requestService.findAll(1L, 0, 20));
         Mockito.verify(mockRepository, Mockito.times(1))
-                .findByRequesterIdNot(Mockito.anyLong(), Mockito.any(OffsetPageRequest.class));
+                .findViewsByRequesterIdNot(Mockito.anyLong(), Mockito.any(OffsetPageRequest.class));
+    }
+
+    @Test
+    void findAllEmptyTest() {
+        assertEquals(List.of(), requestService.findAll(1L, 0, 20));
+        Mockito.verify(mockItemRepository, Mockito.never()).findByRequestIdIn(Mockito.anyCollection());
     }
 }
\ No newline at end of file
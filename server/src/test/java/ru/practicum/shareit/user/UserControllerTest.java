@@ -9,7 +9,10 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import ru.practicum.shareit.common.PageCursor;
 
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
@@ -85,7 +88,7 @@ class UserControllerTest {
 
     @Test
     void findAllTest() throws Exception {
-        Mockito.when(mockService.findAll()).thenReturn(List.of(user));
+        Mockito.when(mockService.findAll(0, 20)).thenReturn(List.of(user));
         mvc.perform(get("/users")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(mapper.writeValueAsString(user)))
@@ -94,7 +97,46 @@ class UserControllerTest {
                 .andExpect(jsonPath("$[0].id", is(1)))
                 .andExpect(jsonPath("$[0].name", is("user")))
                 .andExpect(jsonPath("$[0].email", is("user@user.com")));
-        Mockito.verify(mockService, Mockito.times(1)).findAll();
+        Mockito.verify(mockService, Mockito.times(1)).findAll(0, 20);
+    }
+
+    @Test
+    void findAllByCursorTest() throws Exception {
+        Mockito.when(mockService.findAll(new UserCursor(1L), 1)).thenReturn(List.of(user));
+        mvc.perform(get("/users")
+                        .param("cursor", new UserCursor(1L).encode())
+                        .param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().string(PageCursor.HEADER, new UserCursor(1L).encode()));
+    }
+
+    @Test
+    void findAllPageSizeCappedTest() throws Exception {
+        mvc.perform(get("/users")
+                        .param("size", "1000"))
+                .andExpect(status().isOk());
+        Mockito.verify(mockService, Mockito.times(1)).findAll(0, UserService.MAX_PAGE_SIZE);
+    }
+
+    @Test
+    void findAllInvalidCursorTest() throws Exception {
+        mvc.perform(get("/users")
+                        .param("cursor", "invalid"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void exportAllTest() throws Exception {
+        Mockito.when(mockService.exportAll())
+                .thenReturn(out -> out.write("{\"id\":1}\n".getBytes(StandardCharsets.UTF_8)));
+        MvcResult result = mvc.perform(get("/users/export"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andExpect(content().string("{\"id\":1}\n"));
     }
 
     @Test
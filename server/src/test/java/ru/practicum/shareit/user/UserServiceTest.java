@@ -6,7 +6,14 @@ import org.mockito.Mockito;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import ru.practicum.shareit.booking.schedule.BookingIntervalIndex;
+import ru.practicum.shareit.common.OffsetPageRequest;
 import ru.practicum.shareit.common.exceptions.UserNotFoundException;
+import ru.practicum.shareit.item.search.ItemSearch;
+import ru.practicum.shareit.item.search.ItemSuggestIndex;
 import ru.practicum.shareit.user.repository.UserRepository;
 
 
@@ -25,6 +32,15 @@ class UserServiceTest {
     @MockBean
     private UserRepository mockRepository;
 
+    @MockBean
+    private ItemSearch mockItemSearch;
+
+    @MockBean
+    private ItemSuggestIndex mockSuggestIndex;
+
+    @MockBean
+    private BookingIntervalIndex mockIntervalIndex;
+
     @BeforeEach
     void setUp() {
         user1 = User.builder()
@@ -58,9 +74,22 @@ class UserServiceTest {
                         .email("user2@user.com")
                         .build()
         );
-        Mockito.when(mockRepository.findAll()).thenReturn(users);
-        assertEquals(users, userService.findAll());
-        Mockito.verify(mockRepository, Mockito.times(1)).findAll();
+        Mockito.when(mockRepository.findPage(OffsetPageRequest.of(0, 20, Sort.by("id")))).thenReturn(users);
+        assertEquals(users, userService.findAll(0, 20));
+        Mockito.verify(mockRepository, Mockito.never()).findAll(Mockito.any(Pageable.class));
+    }
+
+    @Test
+    void findAllPageSizeCappedTest() {
+        userService.findAll(0, 1000);
+        Mockito.verify(mockRepository, Mockito.times(1))
+                .findPage(OffsetPageRequest.of(0, UserService.MAX_PAGE_SIZE, Sort.by("id")));
+    }
+
+    @Test
+    void findAllByCursorTest() {
+        Mockito.when(mockRepository.findPageAfterId(1L, PageRequest.of(0, 20))).thenReturn(List.of(user1));
+        assertEquals(List.of(user1), userService.findAll(new UserCursor(1L), 20));
     }
 
     @Test
@@ -100,5 +129,9 @@ class UserServiceTest {
     void deleteTest() {
         userService.deleteById(1L);
         Mockito.verify(mockRepository, Mockito.times(1)).deleteById(1L);
+        Mockito.verify(mockItemSearch, Mockito.times(1)).removeByOwner(1L);
+        Mockito.verify(mockSuggestIndex, Mockito.times(1)).removeByOwner(1L);
+        Mockito.verify(mockIntervalIndex, Mockito.times(1)).removeByBooker(1L);
+        Mockito.verify(mockIntervalIndex, Mockito.times(1)).removeByOwner(1L);
     }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package ru.practicum.shareit.user.repository;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.common.OffsetPageRequest;
+import ru.practicum.shareit.user.User;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
+@Sql(scripts = {"classpath:schema.sql", "classpath:data_BookingRepositoryTest.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class UserRepositoryTest {
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void findPageTest() {
+        List<Long> ids = userRepository.findPage(OffsetPageRequest.of(2, 2, Sort.by("id"))).stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+        assertEquals(List.of(3L, 4L), ids);
+    }
+
+    @Test
+    void findPageAfterIdTest() {
+        List<Long> ids = userRepository.findPageAfterId(1L, PageRequest.of(0, 2)).stream()
+                .map(User::getId)
+                .collect(Collectors.toList());
+        assertEquals(List.of(2L, 3L), ids);
+    }
+
+    @Test
+    void findPageAfterLastIdTest() {
+        assertTrue(userRepository.findPageAfterId(4L, PageRequest.of(0, 2)).isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void streamAllTest() {
+        try (Stream<UserDto> users = userRepository.streamAll()) {
+            List<UserDto> result = users.collect(Collectors.toList());
+            assertEquals(4, result.size());
+            assertEquals(new UserDto(1L, "owner@mail.com", "testOwner"), result.get(0));
+        }
+    }
+}
@@ -0,0 +1,34 @@
+INSERT INTO users (name, email)
+VALUES ('testOwner', 'owner@mail.com'),
+       ('testBooker1', 'booker1@mail.com'),
+       ('testBooker2', 'booker2@mail.com'),
+       ('testBooker3', 'booker3@mail.com'),
+       ('testBooker4', 'booker4@mail.com'),
+       ('testBooker5', 'booker5@mail.com'),
+       ('testBooker6', 'booker6@mail.com'),
+       ('testBooker7', 'booker7@mail.com'),
+       ('testBooker8', 'booker8@mail.com'),
+       ('testBooker9', 'booker9@mail.com'),
+       ('testBooker10', 'booker10@mail.com'),
+       ('testBooker11', 'booker11@mail.com'),
+       ('testBooker12', 'booker12@mail.com'),
+       ('testBooker13', 'booker13@mail.com'),
+       ('testBooker14', 'booker14@mail.com'),
+       ('testBooker15', 'booker15@mail.com'),
+       ('testBooker16', 'booker16@mail.com'),
+       ('testBooker17', 'booker17@mail.com'),
+       ('testBooker18', 'booker18@mail.com'),
+       ('testBooker19', 'booker19@mail.com'),
+       ('testBooker20', 'booker20@mail.com');
+
+INSERT INTO items (name, description, is_available, owner_id)
+VALUES ('testItem1', 'testDescr1', true, 1),
+       ('testItem2', 'testDescr2', true, 1),
+       ('testItem3', 'testDescr3', true, 1),
+       ('testItem4', 'testDescr4', true, 1),
+       ('testItem5', 'testDescr5', true, 1),
+       ('testItem6', 'testDescr6', true, 1),
+       ('testItem7', 'testDescr7', true, 1),
+       ('testItem8', 'testDescr8', true, 1),
+       ('testItem9', 'testDescr9', true, 1),
+       ('testItem10', 'testDescr10', true, 1);
@@ -0,0 +1,21 @@
+INSERT INTO users (name, email)
+VALUES ('testOwner', 'owner@mail.com'),
+       ('testBooker', 'booker@mail.com'),
+       ('testOwner2', 'owner2@mail.com'),
+       ('testBooker2', 'booker2@mail.com');
+
+INSERT INTO items (name, description, is_available, owner_id)
+VALUES ('testItem1', 'testDescr1', true, 1),
+       ('testItem2', 'testDescr2', true, 3);
+
+INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status)
+VALUES ('2030-01-01 10:00:00', '2030-01-01 12:00:00', 1, 2, 1, 'APPROVED'),
+       ('2030-01-02 10:00:00', '2030-01-02 12:00:00', 1, 2, 1, 'APPROVED'),
+       ('2030-01-02 10:00:00', '2030-01-02 12:00:00', 1, 2, 1, 'REJECTED'),
+       ('2030-01-03 10:00:00', '2030-01-03 12:00:00', 1, 2, 1, 'WAITING'),
+       ('2030-01-03 10:00:00', '2030-01-03 12:00:00', 1, 2, 1, 'WAITING'),
+       ('2020-01-01 10:00:00', '2020-01-02 10:00:00', 2, 4, 3, 'APPROVED'),
+       ('2020-02-01 10:00:00', '2020-02-02 10:00:00', 2, 4, 3, 'APPROVED'),
+       ('2020-03-01 10:00:00', '2020-03-02 10:00:00', 2, 4, 3, 'REJECTED'),
+       ('2030-05-01 10:00:00', '2030-05-02 10:00:00', 2, 4, 3, 'APPROVED'),
+       ('2030-04-01 10:00:00', '2030-04-02 10:00:00', 2, 4, 3, 'APPROVED');
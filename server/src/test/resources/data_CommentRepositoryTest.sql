@@ -0,0 +1,14 @@
+INSERT INTO users (name, email)
+VALUES ('testOwner', 'owner@mail.com'),
+       ('testAuthor', 'author@mail.com');
+
+INSERT INTO items (name, description, is_available, owner_id)
+VALUES ('testItem1', 'testDescr1', true, 1),
+       ('testItem2', 'testDescr2', true, 1),
+       ('testItem3', 'testDescr3', true, 1);
+
+INSERT INTO comments (text, author_id, item_id, created)
+VALUES ('comment1', 2, 1, '2020-01-01 10:00:00'),
+       ('comment2', 2, 2, '2020-01-02 10:00:00'),
+       ('comment3', 2, 2, '2020-01-03 10:00:00'),
+       ('comment4', 2, 3, '2020-01-04 10:00:00');
@@ -0,0 +1,24 @@
+INSERT INTO users (name, email)
+VALUES ('testUser', 'user@mail.com'),
+       ('testRequester1', 'requester1@mail.com'),
+       ('testRequester2', 'requester2@mail.com'),
+       ('testOwner1', 'owner1@mail.com'),
+       ('testOwner2', 'owner2@mail.com');
+
+INSERT INTO requests (description, requester_id, created)
+VALUES ('request1', 2, '2020-01-01 10:00:00'),
+       ('request2', 3, '2020-01-02 10:00:00'),
+       ('request3', 2, '2020-01-03 10:00:00'),
+       ('request4', 3, '2020-01-04 10:00:00'),
+       ('request5', 2, '2020-01-05 10:00:00'),
+       ('request6', 3, '2020-01-06 10:00:00');
+
+INSERT INTO items (name, description, is_available, owner_id, request_id)
+VALUES ('testItem1', 'testDescr1', true, 4, 1),
+       ('testItem2', 'testDescr2', true, 5, 2),
+       ('testItem3', 'testDescr3', true, 4, 3),
+       ('testItem4', 'testDescr4', true, 5, 3),
+       ('testItem5', 'testDescr5', true, 4, 4),
+       ('testItem6', 'testDescr6', false, 5, 5),
+       ('testItem7', 'testDescr7', true, 1, 6),
+       ('testItem8', 'testDescr8', true, 4, null);
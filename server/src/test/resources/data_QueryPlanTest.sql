@@ -0,0 +1,26 @@
+INSERT INTO users (name, email)
+SELECT 'user' || X, 'user' || X || '@mail.com'
+FROM SYSTEM_RANGE(1, 2000);
+
+INSERT INTO requests (description, requester_id, created)
+SELECT 'request' || X, 1 + MOD(X, 2000), DATEADD('MINUTE', X, TIMESTAMP '2020-01-01 10:00:00')
+FROM SYSTEM_RANGE(1, 2000);
+
+INSERT INTO items (name, description, is_available, owner_id, request_id)
+SELECT 'item' || X, 'description' || X, MOD(X, 5) > 0, 1 + MOD(X, 2000), CASE WHEN MOD(X, 4) = 0 THEN X / 4 END
+FROM SYSTEM_RANGE(1, 4000);
+
+INSERT INTO bookings (start_date, end_date, item_id, booker_id, owner_id, status)
+SELECT DATEADD('HOUR', X, TIMESTAMP '2020-01-01 10:00:00'),
+       DATEADD('HOUR', X + 2, TIMESTAMP '2020-01-01 10:00:00'),
+       1 + MOD(X, 4000),
+       1 + MOD(X * 7, 2000),
+       1 + MOD(1 + MOD(X, 4000), 2000),
+       CASE MOD(X, 3) WHEN 0 THEN 'WAITING' WHEN 1 THEN 'APPROVED' ELSE 'REJECTED' END
+FROM SYSTEM_RANGE(1, 20000);
+
+INSERT INTO comments (text, author_id, item_id, created)
+SELECT 'comment' || X, 1 + MOD(X * 3, 2000), 1 + MOD(X, 4000), DATEADD('MINUTE', X, TIMESTAMP '2020-01-01 10:00:00')
+FROM SYSTEM_RANGE(1, 4000);
+
+ANALYZE;